@@ -25,17 +25,21 @@ import com.leonardobishop.quests.bukkit.item.QuestItem;
 import com.leonardobishop.quests.bukkit.item.QuestItemRegistry;
 import com.leonardobishop.quests.bukkit.listener.PlayerJoinListener;
 import com.leonardobishop.quests.bukkit.listener.PlayerLeaveListener;
+import com.leonardobishop.quests.bukkit.listener.WorldListener;
 import com.leonardobishop.quests.bukkit.menu.MenuController;
 import com.leonardobishop.quests.bukkit.menu.itemstack.QItemStackRegistry;
 import com.leonardobishop.quests.bukkit.questcompleter.BukkitQuestCompleter;
 import com.leonardobishop.quests.bukkit.questcontroller.NormalQuestController;
 import com.leonardobishop.quests.bukkit.runnable.QuestsAutoSaveRunnable;
+import com.leonardobishop.quests.bukkit.storage.BinaryStorageProvider;
 import com.leonardobishop.quests.bukkit.storage.MySqlStorageProvider;
 import com.leonardobishop.quests.bukkit.storage.YamlStorageProvider;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskTypeManager;
+import com.leonardobishop.quests.bukkit.tasktype.TaskPoller;
 import com.leonardobishop.quests.bukkit.tasktype.type.*;
 import com.leonardobishop.quests.bukkit.tasktype.type.dependent.*;
 import com.leonardobishop.quests.bukkit.util.LogHistory;
+import com.leonardobishop.quests.bukkit.util.WorldIds;
 import com.leonardobishop.quests.common.config.ConfigProblem;
 import com.leonardobishop.quests.common.config.ConfigProblemDescriptions;
 import com.leonardobishop.quests.common.config.QuestsConfig;
@@ -84,6 +88,7 @@ public class BukkitQuestsPlugin extends JavaPlugin implements Quests {
 
     private boolean validConfiguration;
     private Map<String, List<ConfigProblem>> configProblems;
+    private BukkitQuestsLoader questsLoader;
 
     private QItemStackRegistry qItemStackRegistry;
     private QuestItemRegistry questItemRegistry;
@@ -99,6 +104,7 @@ public class BukkitQuestsPlugin extends JavaPlugin implements Quests {
     private LogHistory logHistory;
     private BukkitTask questAutoSaveTask;
     private BukkitTask questQueuePollTask;
+    private TaskPoller taskPoller;
     private BiFunction<Player, String, String> placeholderAPIProcessor;
 
     @Override
@@ -176,6 +182,9 @@ public class BukkitQuestsPlugin extends JavaPlugin implements Quests {
             case "yaml":
                 this.storageProvider = new YamlStorageProvider(this);
                 break;
+            case "binary":
+                this.storageProvider = new BinaryStorageProvider(this);
+                break;
             case "mysql":
                 ConfigurationSection section = this.getConfig().getConfigurationSection("options.storage.database-settings");
                 if (section == null) {
@@ -237,6 +246,8 @@ public class BukkitQuestsPlugin extends JavaPlugin implements Quests {
         this.questItemRegistry = new QuestItemRegistry();
         this.qItemStackRegistry = new QItemStackRegistry();
         this.questCompleter = new BukkitQuestCompleter(this);
+        this.taskPoller = new TaskPoller(this);
+        Bukkit.getScheduler().runTaskTimer(this, taskPoller, 1L, 1L);
 
         // Start metrics
         MetricsLite metrics = new MetricsLite(this, 3443);
@@ -266,6 +277,8 @@ public class BukkitQuestsPlugin extends JavaPlugin implements Quests {
         super.getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
         super.getServer().getPluginManager().registerEvents(menuController, this);
         super.getServer().getPluginManager().registerEvents(new PlayerLeaveListener(this), this);
+        super.getServer().getPluginManager().registerEvents(new WorldListener(), this);
+        WorldIds.loadAll();
 
         // Register task types after the server has fully started
         Bukkit.getScheduler().runTask(this, () -> {
@@ -416,11 +429,15 @@ public class BukkitQuestsPlugin extends JavaPlugin implements Quests {
                 taskType.onDisable();
             } catch (Exception ignored) { }
         }
+        // queue every player so that shutdown writes them as a single batch
         for (QPlayer qPlayer : qPlayerManager.getQPlayers()) {
             try {
-                qPlayerManager.savePlayerSync(qPlayer.getPlayerUUID());
+                qPlayerManager.savePlayer(qPlayer.getPlayerUUID());
             } catch (Exception ignored) { }
         }
+        try {
+            qPlayerManager.shutdown();
+        } catch (Exception ignored) { }
         if (placeholderAPIHook != null) {
             try {
                 placeholderAPIHook.unregisterExpansion();
@@ -437,11 +454,30 @@ public class BukkitQuestsPlugin extends JavaPlugin implements Quests {
     @Override
     public void reloadQuests() {
         if (this.reloadBaseConfiguration()) {
-            BukkitQuestsLoader questsLoader = new BukkitQuestsLoader(this);
-            questsLoader.loadQuestItems(new File(super.getDataFolder() + File.separator + "items"));
-            configProblems = questsLoader.loadQuests(new File(super.getDataFolder() + File.separator + "quests"));
+            if (questsLoader == null) questsLoader = new BukkitQuestsLoader(this);
+            configProblems = questsLoader.reloadQuests(new File(super.getDataFolder() + File.separator + "items"),
+                    new File(super.getDataFolder() + File.separator + "quests"));
+
+            // pending tasks and cached start results hold references to the previously loaded quests
+            for (QPlayer qPlayer : qPlayerManager.getQPlayers()) {
+                qPlayer.invalidatePendingTasks();
+                qPlayer.invalidateCachedStartResults();
+            }
+
+            // placeholder values may refer to quests which have changed
+            if (placeholderAPIHook != null) {
+                placeholderAPIHook.clearCache();
+            }
 
-            for (TaskType taskType : taskTypeManager.getTaskTypes()) {
+            // time limits may have changed
+            if (questCompleter instanceof BukkitQuestCompleter bukkitQuestCompleter) {
+                bukkitQuestCompleter.clearTimeLimits();
+                for (QPlayer qPlayer : qPlayerManager.getQPlayers()) {
+                    bukkitQuestCompleter.queueTimeLimits(qPlayer);
+                }
+            }
+
+            for (TaskType taskType : questsLoader.getModifiedTaskTypes()) {
                 try {
                     taskType.onReady();
                 } catch (Exception e) {
@@ -614,6 +650,10 @@ public class BukkitQuestsPlugin extends JavaPlugin implements Quests {
         return menuController;
     }
 
+    public TaskPoller getTaskPoller() {
+        return taskPoller;
+    }
+
     @NotNull
     @Override
     public FileConfiguration getConfig() {
@@ -0,0 +1,43 @@
+package com.leonardobishop.quests.bukkit.api.event;
+
+import com.leonardobishop.quests.common.player.QPlayer;
+import com.leonardobishop.quests.common.quest.Quest;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+public class PlayerUnlockQuestEvent extends PlayerQuestEvent {
+    private final static HandlerList handlers = new HandlerList();
+    private final Quest quest;
+    private final Quest completedQuest;
+
+    public PlayerUnlockQuestEvent(@NotNull Player who, @NotNull QPlayer questPlayer, @NotNull Quest quest, @NotNull Quest completedQuest) {
+        super(who, questPlayer);
+        this.quest = quest;
+        this.completedQuest = completedQuest;
+    }
+
+    /**
+     * @return The quest whose requirements are now met
+     */
+    public Quest getQuest() {
+        return this.quest;
+    }
+
+    /**
+     * @return The quest whose completion met the requirements
+     */
+    public Quest getCompletedQuest() {
+        return this.completedQuest;
+    }
+
+    @NotNull
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+}
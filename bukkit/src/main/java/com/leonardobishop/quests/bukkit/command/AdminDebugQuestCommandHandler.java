@@ -1,6 +1,7 @@
 package com.leonardobishop.quests.bukkit.command;
 
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
+import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskTypeManager;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.QPlayerPreferences;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -61,6 +62,7 @@ public class AdminDebugQuestCommandHandler implements CommandHandler {
                 }
 
                 preferences.setDebug(questId, debugTypeEnum);
+                ((BukkitTaskTypeManager) plugin.getTaskTypeManager()).updateDebugSubscriber(qPlayer);
                 sender.sendMessage(ChatColor.GREEN + "Debugging enabled for " + questName + ".");
                 sender.sendMessage(ChatColor.GRAY + "You will now see debug logs for "
                         + questName
@@ -70,6 +72,7 @@ public class AdminDebugQuestCommandHandler implements CommandHandler {
                 sender.sendMessage(ChatColor.GRAY + "Use '/quests admin debug " + questId + "' to disable.");
             } else {
                 preferences.setDebug(questId, null);
+                ((BukkitTaskTypeManager) plugin.getTaskTypeManager()).updateDebugSubscriber(qPlayer);
                 sender.sendMessage(ChatColor.GREEN + "Debugging disabled for " + questName + ".");
             }
 
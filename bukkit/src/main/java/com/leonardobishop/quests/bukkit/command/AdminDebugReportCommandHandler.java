@@ -98,7 +98,11 @@ public class AdminDebugReportCommandHandler implements CommandHandler {
             lines.add("");
             printList(lines, 0, "Full check queue", completer.getFullCheckQueue(), questProgressFile -> questProgressFile.getPlayerUUID().toString());
             lines.add("");
-            printList(lines, 0, "Expired check queue", completer.getExpiredCheckQueue(), UUID::toString);
+            printList(lines, 0, "Time limit queue", completer.getTimeLimitQueue(), entry -> entry.player() + " " + entry.questId() + " (" + entry.deadline() + ")");
+            lines.add("");
+            lines.add("Last queue drain: " + completer.getLastDrainCount() + " entries in " + String.format("%.3f", completer.getLastDrainTime() / 1_000_000d) + "ms");
+            lines.add("");
+            lines.add("Players polled last tick: " + plugin.getTaskPoller().getLastTickPlayersChecked() + " " + plugin.getTaskPoller().getLastTickPlayersCheckedByType());
             lines.add("");
 
             lines.add("################################");
@@ -106,6 +110,8 @@ public class AdminDebugReportCommandHandler implements CommandHandler {
             lines.add("################################");
             lines.add("");
             lines.add("Storage provider: " + plugin.getStorageProvider().getName());
+            lines.add("Pending saves: " + plugin.getPlayerManager().getPendingSaveCount());
+            lines.add("Last save flush: " + plugin.getPlayerManager().getLastFlushSize() + " players in " + plugin.getPlayerManager().getLastFlushDuration() + "ms");
             lines.add("");
 
             lines.add("################################");
@@ -131,7 +137,10 @@ public class AdminDebugReportCommandHandler implements CommandHandler {
                 lines.add("Quests autotrack: " + plugin.getQuestsConfig().getBoolean("options.quest-autotrack", true));
                 lines.add("Verify quests exist on load: " + plugin.getQuestsConfig().getBoolean("options.verify-quest-exists-on-load", true));
                 lines.add("Queue executor interval: " + plugin.getQuestsConfig().getInt("options.performance-tweaking.quest-queue-executor-interval", 1) + " ticks");
+                lines.add("Queue executor budget: " + plugin.getQuestsConfig().getInt("options.performance-tweaking.quest-queue-executor-budget", 2) + "ms");
                 lines.add("Autosave interval: " + plugin.getQuestsConfig().getInt("options.performance-tweaking.quest-autosave-interval", 12000) + " ticks");
+                lines.add("Save delay: " + plugin.getQuestsConfig().getInt("options.performance-tweaking.quest-save-delay", 20) + " ticks");
+                lines.add("Task poll max players: " + plugin.getQuestsConfig().getInt("options.performance-tweaking.quest-task-poll-max-players", 50) + " per tick");
                 lines.add("Override errors: " + plugin.getQuestsConfig().getBoolean("options.error-checking.override-errors", false));
                 lines.add("Placeholder cache time: " + plugin.getQuestsConfig().getInt("options.placeholder-cache-time") + " seconds");
                 lines.add("Quest mode: " + plugin.getQuestsConfig().getInt("quest-mode.mode"));
@@ -247,13 +256,16 @@ public class AdminDebugReportCommandHandler implements CommandHandler {
                 int timeMaxLength = 1;
                 int typeMaxLength = 1;
                 int threadMaxLength = 1;
-                for (LogHistory.LogEntry line : plugin.getLogHistory().getEntries()) {
+                List<LogHistory.LogEntry> entries = plugin.getLogHistory().snapshot();
+                lines.add("Entries: " + entries.size() + " (capacity " + plugin.getLogHistory().getCapacity() + ")");
+                lines.add("");
+                for (LogHistory.LogEntry line : entries) {
                     timeMaxLength = Math.max(timeMaxLength, String.valueOf(line.getTime()).length());
                     typeMaxLength = Math.max(typeMaxLength, line.getType().toString().length());
                     threadMaxLength = Math.max(threadMaxLength, line.getThread().length());
                 }
                 SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                for (LogHistory.LogEntry line : plugin.getLogHistory().getEntries()) {
+                for (LogHistory.LogEntry line : entries) {
                     lines.add(String.format("%-" + timeMaxLength + "s %-" + typeMaxLength + "s %-" + threadMaxLength + "s | %s",
                             dateFormat.format(new Date(line.getTime())), line.getType().toString(), line.getThread(), line.getEntry()));
                 }
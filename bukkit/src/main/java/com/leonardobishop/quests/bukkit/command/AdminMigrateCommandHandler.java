@@ -1,6 +1,7 @@
 package com.leonardobishop.quests.bukkit.command;
 
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
+import com.leonardobishop.quests.bukkit.storage.BinaryStorageProvider;
 import com.leonardobishop.quests.bukkit.storage.MySqlStorageProvider;
 import com.leonardobishop.quests.bukkit.storage.YamlStorageProvider;
 import com.leonardobishop.quests.common.player.questprogressfile.QuestProgressFile;
@@ -13,12 +14,17 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AdminMigrateCommandHandler implements CommandHandler {
 
+    // the number of files to hold in memory before writing them to the destination
+    private static final int MIGRATE_BATCH_SIZE = 500;
+
     private final BukkitQuestsPlugin plugin;
 
     private final AtomicBoolean migrationInProgress;
@@ -86,17 +92,23 @@ public class AdminMigrateCommandHandler implements CommandHandler {
                     return;
                 }
 
-                sender.sendMessage(ChatColor.GRAY + "Loading quest progress files from '" + fromProvider.getName() + "'...");
-                List<QuestProgressFile> files = fromProvider.loadAllProgressFiles();
-                sender.sendMessage(ChatColor.GRAY.toString() + files.size() + " files loaded.");
-
-                for (QuestProgressFile file : files) {
+                sender.sendMessage(ChatColor.GRAY + "Copying quest progress files from '" + fromProvider.getName() + "' to '" + toProvider.getName() + "'...");
+                List<QuestProgressFile> files = new ArrayList<>(MIGRATE_BATCH_SIZE);
+                AtomicInteger migrated = new AtomicInteger();
+                fromProvider.loadAllProgressFiles(file -> {
                     file.setModified(true);
+                    files.add(file);
+                    if (files.size() >= MIGRATE_BATCH_SIZE) {
+                        toProvider.saveAllProgressFiles(files);
+                        migrated.addAndGet(files.size());
+                        files.clear();
+                    }
+                });
+                if (!files.isEmpty()) {
+                    toProvider.saveAllProgressFiles(files);
+                    migrated.addAndGet(files.size());
                 }
-
-                sender.sendMessage(ChatColor.GRAY + "Writing quest progress files to '" + toProvider.getName() + "'...");
-                toProvider.saveAllProgressFiles(files);
-                sender.sendMessage(ChatColor.GRAY + "Done.");
+                sender.sendMessage(ChatColor.GRAY.toString() + migrated.get() + " files copied.");
 
                 shutdownProvider(sender, fromProvider);
                 shutdownProvider(sender, toProvider);
@@ -153,6 +165,9 @@ public class AdminMigrateCommandHandler implements CommandHandler {
             case "yaml":
                 storageProvider = new YamlStorageProvider(plugin);
                 break;
+            case "binary":
+                storageProvider = new BinaryStorageProvider(plugin);
+                break;
             case "mysql":
                 ConfigurationSection section = configurationSection.getConfigurationSection("database-settings");
                 storageProvider = new MySqlStorageProvider(plugin, section);
@@ -5,6 +5,7 @@ import com.leonardobishop.quests.bukkit.hook.itemgetter.ItemGetter;
 import com.leonardobishop.quests.bukkit.item.*;
 import com.leonardobishop.quests.bukkit.menu.itemstack.QItemStack;
 import com.leonardobishop.quests.bukkit.menu.itemstack.QItemStackRegistry;
+import com.leonardobishop.quests.bukkit.util.CompiledTaskConfig;
 import com.leonardobishop.quests.bukkit.util.StringUtils;
 import com.leonardobishop.quests.bukkit.util.chat.Chat;
 import com.leonardobishop.quests.common.config.ConfigProblem;
@@ -14,8 +15,8 @@ import com.leonardobishop.quests.common.logger.QuestsLogger;
 import com.leonardobishop.quests.common.quest.Category;
 import com.leonardobishop.quests.common.quest.Quest;
 import com.leonardobishop.quests.common.quest.QuestManager;
+import com.leonardobishop.quests.common.quest.QuestRequirementGraph;
 import com.leonardobishop.quests.common.quest.Task;
-import com.leonardobishop.quests.common.questcontroller.QuestController;
 import com.leonardobishop.quests.common.tasktype.TaskType;
 import com.leonardobishop.quests.common.tasktype.TaskTypeManager;
 import org.bukkit.Bukkit;
@@ -27,30 +28,42 @@ import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class BukkitQuestsLoader implements QuestsLoader {
 
+    // <\$m\s*([^ ]+)\s*\$>
+    private static final Pattern MACRO_PATTERN = Pattern.compile("<\\$m\\s*([^ ]+)\\s*\\$>");
+
     private final BukkitQuestsPlugin plugin;
     private final BukkitQuestsConfig questsConfig;
     private final QuestManager questManager;
     private final TaskTypeManager taskTypeManager;
-    private final QuestController questController;
     private final QuestsLogger questsLogger;
     private final QItemStackRegistry qItemStackRegistry;
     private final QuestItemRegistry questItemRegistry;
 
+    // state of the most recent load, used to only load changed quest files again on reload
+    private final Map<String, String> questFileHashes = new HashMap<>();
+    private final Map<String, Quest> pathToQuest = new HashMap<>();
+    private final Map<String, List<ConfigProblem>> configProblems = new HashMap<>();
+    private final Map<String, ConfigProblem> requirementCycleProblems = new HashMap<>();
+    private Set<TaskType> modifiedTaskTypes = Collections.emptySet();
+    private String globalHash;
+
     public BukkitQuestsLoader(BukkitQuestsPlugin plugin) {
         this.plugin = plugin;
         this.questsConfig = (BukkitQuestsConfig) plugin.getQuestsConfig();
         this.questManager = plugin.getQuestManager();
         this.taskTypeManager = plugin.getTaskTypeManager();
-        this.questController = plugin.getQuestController();
         this.questsLogger = plugin.getQuestsLogger();
         this.qItemStackRegistry = plugin.getQItemStackRegistry();
         this.questItemRegistry = plugin.getQuestItemRegistry();
@@ -69,19 +82,11 @@ public class BukkitQuestsLoader implements QuestsLoader {
         questManager.clear();
         taskTypeManager.resetTaskTypes();
 
-        Map<String, List<ConfigProblem>> configProblems = new HashMap<>();
-        HashMap<String, Quest> pathToQuest = new HashMap<>();
-        HashMap<String, Map<String, Object>> globalTaskConfig = new HashMap<>();
-
-        if (questsConfig.getConfig().isConfigurationSection("global-task-configuration.types")) {
-            for (String type : questsConfig.getConfig().getConfigurationSection("global-task-configuration.types").getKeys(false)) {
-                HashMap<String, Object> configValues = new HashMap<>();
-                for (String key : questsConfig.getConfig().getConfigurationSection("global-task-configuration.types." + type).getKeys(false)) {
-                    configValues.put(key, questsConfig.getConfig().get("global-task-configuration.types." + type + "." + key));
-                }
-                globalTaskConfig.putIfAbsent(type, configValues);
-            }
-        }
+        globalHash = null;
+        questFileHashes.clear();
+        pathToQuest.clear();
+        configProblems.clear();
+        modifiedTaskTypes = new HashSet<>(taskTypeManager.getTaskTypes());
 
         ConfigurationSection categories;
         File categoriesFile = new File(plugin.getDataFolder() + File.separator + "categories.yml");
@@ -110,267 +115,214 @@ public class BukkitQuestsLoader implements QuestsLoader {
             qItemStackRegistry.register(category, displayItem);
         }
 
-        // <\$m\s*([^ ]+)\s*\$>
-        Pattern macroPattern = Pattern.compile("<\\$m\\s*([^ ]+)\\s*\\$>");
+        long loadStart = System.nanoTime();
+        List<Path> questFiles = findYamlFiles(root);
+        for (Path path : questFiles) {
+            questFileHashes.put(relativePath(root, path), hashFile(path));
+        }
 
-        FileVisitor<Path> fileVisitor = new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) {
-                try {
-                    File questFile = new File(path.toUri());
-                    URI relativeLocation = root.toURI().relativize(path.toUri());
+        int threads = parserThreads(questFiles.size());
+        List<ParsedQuest> parsedQuests = parseQuests(root, questFiles, threads);
+        long parseEnd = System.nanoTime();
 
-                    if (!questFile.getName().toLowerCase().endsWith(".yml")) {
-                        return FileVisitResult.CONTINUE;
-                    }
+        // register quests in the order their files were found
+        Map<String, Map<String, Object>> globalTaskConfig = getGlobalTaskConfig();
+        for (ParsedQuest parsedQuest : parsedQuests) {
+            registerParsedQuest(parsedQuest, globalTaskConfig);
+        }
+        long registerEnd = System.nanoTime();
 
-                    // process macros -- start
-                    String data = Files.readAllLines(path).stream().reduce("", (a, b) -> a + "\n" + b);
-                    StringBuilder processed = new StringBuilder();
-                    Matcher matcher = macroPattern.matcher(data);
-
-                    int end = 0;
-                    while (matcher.find()) {
-                        String macro = matcher.group(1);
-                        String replacement = questsConfig.getString("global-macros." + macro, null);
-                        if (replacement == null) {
-                            replacement = matcher.group(0);
-                        }
-                        processed.append(data, end, matcher.start()).append(replacement);
-                        end = matcher.end();
-                    }
+        questsLogger.info(questManager.getQuests().size() + " quests have been registered.");
+        questsLogger.info("Loaded " + questFiles.size() + " quest files in " + TimeUnit.NANOSECONDS.toMillis(registerEnd - loadStart) + "ms ("
+                + TimeUnit.NANOSECONDS.toMillis(parseEnd - loadStart) + "ms parsing on " + threads + " threads, "
+                + TimeUnit.NANOSECONDS.toMillis(registerEnd - parseEnd) + "ms registering).");
 
-                    if (end < data.length()) {
-                        processed.append(data, end, data.length());
-                    }
-                    // process macros -- end
+        // post-load checks
+        for (Map.Entry<String, Quest> loadedQuest : pathToQuest.entrySet()) {
+            checkRequirements(loadedQuest.getKey(), loadedQuest.getValue());
+        }
+        buildRequirementGraph();
 
-                    YamlConfiguration config = new YamlConfiguration();
-                    // test QUEST file integrity
-                    try {
-                        config.loadFromString(processed.toString());
-                    } catch (InvalidConfigurationException ex) {
-                        configProblems.put(relativeLocation.getPath(), Collections.singletonList(new ConfigProblem(
-                                ConfigProblem.ConfigProblemType.ERROR,
-                                ConfigProblemDescriptions.MALFORMED_YAML.getDescription(),
-                                ConfigProblemDescriptions.MALFORMED_YAML.getExtendedDescription(ex.getMessage())
-                        )));
-                        return FileVisitResult.CONTINUE;
-                    }
+        return new HashMap<>(configProblems);
+    }
 
-                    String id = questFile.getName().replace(".yml", "");
+    /**
+     * Reload quest items, quests and categories. If the quest items, categories and main configuration are
+     * unchanged since the last load by this loader, only the quest files which have been added, modified or removed
+     * are loaded again, along with the quests which require them. Otherwise, everything is loaded again.
+     * <p>
+     * Quests which are not loaded again keep their existing instances, so the task types they are registered
+     * to and any player progress referring to them remain valid.
+     *
+     * @param itemsRoot the directory to load quest items from
+     * @param questsRoot the directory to load quests from
+     * @return map of configuration issues
+     */
+    public Map<String, List<ConfigProblem>> reloadQuests(File itemsRoot, File questsRoot) {
+        String globalHash = hashGlobalInputs(itemsRoot);
+        if (!globalHash.equals(this.globalHash)) {
+            loadQuestItems(itemsRoot);
+            Map<String, List<ConfigProblem>> problems = loadQuests(questsRoot);
+            this.globalHash = globalHash;
+            return problems;
+        }
 
-                    List<ConfigProblem> problems = new ArrayList<>();
+        long loadStart = System.nanoTime();
+        Map<String, Path> questFiles = new LinkedHashMap<>();
+        Map<String, String> hashes = new HashMap<>();
+        for (Path path : findYamlFiles(questsRoot)) {
+            String relativePath = relativePath(questsRoot, path);
+            questFiles.put(relativePath, path);
+            hashes.put(relativePath, hashFile(path));
+        }
 
-                    if (!StringUtils.isAlphanumeric(id)) {
-                        problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.ERROR,
-                                ConfigProblemDescriptions.INVALID_QUEST_ID.getDescription(id),
-                                ConfigProblemDescriptions.INVALID_QUEST_ID.getExtendedDescription(id)));
-                    }
+        Set<String> changed = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            if (!entry.getValue().equals(questFileHashes.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        Set<String> removed = new HashSet<>(questFileHashes.keySet());
+        removed.removeAll(hashes.keySet());
 
-                    // CHECK EVERYTHING WRONG WITH THE QUEST FILE BEFORE ACTUALLY LOADING THE QUEST
-
-                    if (!config.isConfigurationSection("tasks")) {
-                        problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.ERROR,
-                                ConfigProblemDescriptions.NO_TASKS.getDescription(),
-                                ConfigProblemDescriptions.NO_TASKS.getExtendedDescription(),
-                                "tasks"));
-                    } else { //continue
-                        int validTasks = 0;
-                        for (String taskId : config.getConfigurationSection("tasks").getKeys(false)) {
-                            boolean isValid = true;
-                            String taskRoot = "tasks." + taskId;
-                            String taskType = config.getString(taskRoot + ".type");
-
-                            if (!config.isConfigurationSection(taskRoot)) {
-                                problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
-                                        ConfigProblemDescriptions.TASK_MALFORMED_NOT_SECTION.getDescription(taskId),
-                                        ConfigProblemDescriptions.TASK_MALFORMED_NOT_SECTION.getExtendedDescription(taskId),
-                                        taskRoot));
-                                continue;
-                            }
+        if (changed.isEmpty() && removed.isEmpty()) {
+            modifiedTaskTypes = Collections.emptySet();
+            questsLogger.info("No quest files have changed since they were last loaded.");
+            return new HashMap<>(configProblems);
+        }
 
-                            if (taskType == null) {
-                                problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
-                                        ConfigProblemDescriptions.NO_TASK_TYPE.getDescription(),
-                                        ConfigProblemDescriptions.NO_TASK_TYPE.getExtendedDescription(),
-                                        taskRoot));
-                                continue;
-                            }
-
-                            // check the tasks
-                            String resolvedTaskTypeName = taskTypeManager.resolveTaskTypeName(taskType);
-                            if (resolvedTaskTypeName != null) {
-                                TaskType t = taskTypeManager.getTaskType(resolvedTaskTypeName);
-                                HashMap<String, Object> configValues = new HashMap<>();
-                                for (String key : config.getConfigurationSection(taskRoot).getKeys(false)) {
-                                    configValues.put(key, config.get(taskRoot + "." + key));
-                                }
-
-                                List<ConfigProblem> taskProblems = new ArrayList<>();
-                                for (TaskType.ConfigValidator validator : t.getConfigValidators()) {
-                                    validator.validateConfig(configValues, taskProblems);
-                                }
-
-                                // pre-pend task root to locations
-                                for (ConfigProblem problem : taskProblems) {
-                                    problems.add(new ConfigProblem(problem.getType(), problem.getDescription(),
-                                            problem.getExtendedDescription(), taskRoot + "." + problem.getLocation()));
-                                }
-                            } else {
-                                problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
-                                        ConfigProblemDescriptions.UNKNOWN_TASK_TYPE.getDescription(taskType),
-                                        ConfigProblemDescriptions.UNKNOWN_TASK_TYPE.getExtendedDescription(taskType),
-                                        taskRoot));
-                                isValid = false;
-                            }
-
-                            if (isValid) {
-                                validTasks++;
-                            }
-                        }
-                        if (validTasks == 0) {
-                            problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.ERROR,
-                                    ConfigProblemDescriptions.NO_TASKS.getDescription(),
-                                    ConfigProblemDescriptions.NO_TASKS.getExtendedDescription(),
-                                    "tasks"));
-                        }
-                    }
+        // quests which require a changed quest are loaded again, as their requirements may have become (un)known
+        Set<String> changedIds = new HashSet<>();
+        for (String path : changed) {
+            changedIds.add(questFiles.get(path).getFileName().toString().replace(".yml", ""));
+        }
+        for (String path : removed) {
+            Quest quest = pathToQuest.get(path);
+            if (quest != null) changedIds.add(quest.getId());
+        }
+        Set<String> dependents = new LinkedHashSet<>();
+        for (Map.Entry<String, Quest> loadedQuest : pathToQuest.entrySet()) {
+            if (changed.contains(loadedQuest.getKey()) || removed.contains(loadedQuest.getKey())) continue;
+            for (String req : loadedQuest.getValue().getRequirements()) {
+                if (changedIds.contains(req)) {
+                    dependents.add(loadedQuest.getKey());
+                    break;
+                }
+            }
+        }
 
-                    boolean error = false;
-                    for (ConfigProblem problem : problems) {
-                        if (problem.getType() == ConfigProblem.ConfigProblemType.ERROR) {
-                            error = true;
-                            break;
-                        }
-                    }
+        Set<String> reloaded = new LinkedHashSet<>(changed);
+        reloaded.addAll(dependents);
 
-                    // END OF THE CHECKING
-                    if (!error && !questsConfig.getBoolean("options.error-checking.override-errors", false)) {
-                        QItemStack displayItem = getQItemStack("display", config);
-                        List<String> rewards = config.getStringList("rewards");
-                        List<String> requirements = config.getStringList("options.requires");
-                        List<String> rewardString = config.getStringList("rewardstring");
-                        List<String> startString = config.getStringList("startstring");
-                        List<String> startCommands = config.getStringList("startcommands");
-                        boolean repeatable = config.getBoolean("options.repeatable", false);
-                        boolean cooldown = config.getBoolean("options.cooldown.enabled", false);
-                        boolean timeLimit = config.getBoolean("options.time-limit.enabled", false);
-                        boolean permissionRequired = config.getBoolean("options.permission-required", false);
-                        boolean autostart = config.getBoolean("options.autostart", false);
-                        boolean cancellable = config.getBoolean("options.cancellable", true);
-                        boolean countsTowardsLimit = config.getBoolean("options.counts-towards-limit", true);
-                        int cooldownTime = config.getInt("options.cooldown.time", 10);
-                        int timeLimtTime = config.getInt("options.time-limit.time", 10);
-                        int sortOrder = config.getInt("options.sort-order", 1);
-                        String category = config.getString("options.category");
-                        Map<String, String> placeholders = new HashMap<>();
-
-                        if (category != null && category.equals("")) category = null;
-
-                        if (questController.getName().equals("daily")) {
-                            repeatable = true;
-                            cooldown = true;
-                            cooldownTime = 0;
-                            requirements = Collections.emptyList();
-                            permissionRequired = false;
-                        }
+        Set<TaskType> modifiedTaskTypes = new HashSet<>();
+        for (String path : reloaded) {
+            unregisterPath(path, modifiedTaskTypes);
+        }
+        for (String path : removed) {
+            unregisterPath(path, modifiedTaskTypes);
+            questFileHashes.remove(path);
+        }
 
-                        Quest quest = new Quest.Builder(id)
-                                .withRewards(rewards)
-                                .withRequirements(requirements)
-                                .withRewardString(rewardString)
-                                .withStartString(startString)
-                                .withStartCommands(startCommands)
-                                .withPlaceholders(placeholders)
-                                .withCooldown(cooldownTime)
-                                .withTimeLimit(timeLimtTime)
-                                .withSortOrder(sortOrder)
-                                .withCooldownEnabled(cooldown)
-                                .withTimeLimitEnabled(timeLimit)
-                                .withPermissionRequired(permissionRequired)
-                                .withRepeatEnabled(repeatable)
-                                .withCancellable(cancellable)
-                                .withCountsTowardsLimit(countsTowardsLimit)
-                                .withAutoStartEnabled(autostart)
-                                .inCategory(category)
-                                .build();
-
-                        if (category != null) {
-                            Category c = questManager.getCategoryById(category);
-                            if (c != null) {
-                                c.registerQuestId(id);
-                            } else {
-                                problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
-                                        ConfigProblemDescriptions.UNKNOWN_CATEGORY.getDescription(category),
-                                        ConfigProblemDescriptions.UNKNOWN_CATEGORY.getExtendedDescription(category),
-                                        "options.category"));
-                            }
-                        }
+        List<Path> reloadedFiles = new ArrayList<>(reloaded.size());
+        for (String path : reloaded) {
+            reloadedFiles.add(questFiles.get(path));
+            questFileHashes.put(path, hashes.get(path));
+        }
+        List<ParsedQuest> parsedQuests = parseQuests(questsRoot, reloadedFiles, parserThreads(reloadedFiles.size()));
 
-                        for (String taskId : config.getConfigurationSection("tasks").getKeys(false)) {
-                            String taskRoot = "tasks." + taskId;
-                            String taskType = config.getString(taskRoot + ".type");
-                            String resolvedTaskTypeName = taskTypeManager.resolveTaskTypeName(taskType);
+        Map<String, Map<String, Object>> globalTaskConfig = getGlobalTaskConfig();
+        for (ParsedQuest parsedQuest : parsedQuests) {
+            registerParsedQuest(parsedQuest, globalTaskConfig);
 
-                            Task task = new Task(taskId, resolvedTaskTypeName);
+            Quest quest = pathToQuest.get(parsedQuest.path());
+            if (quest == null) continue;
+            for (Task task : quest.getTasks()) {
+                TaskType taskType = taskTypeManager.getTaskType(task.getType());
+                if (taskType != null) modifiedTaskTypes.add(taskType);
+            }
+        }
 
-                            for (String key : config.getConfigurationSection(taskRoot).getKeys(false)) {
-                                task.addConfigValue(key, config.get(taskRoot + "." + key));
-                            }
+        // post-load checks
+        for (String path : reloaded) {
+            Quest quest = pathToQuest.get(path);
+            if (quest != null) checkRequirements(path, quest);
+        }
+        restoreFileOrder(questFiles.keySet());
+        buildRequirementGraph();
+        this.modifiedTaskTypes = modifiedTaskTypes;
+        long loadEnd = System.nanoTime();
 
-                            if (globalTaskConfig.containsKey(taskType)) {
-                                for (Map.Entry<String, Object> entry : globalTaskConfig.get(taskType).entrySet()) {
-                                    if (questsConfig.getBoolean("options.global-task-configuration-override") && task.getConfigValue(entry.getKey()) != null)
-                                        continue;
-                                    task.addConfigValue(entry.getKey(), entry.getValue());
-                                }
-                            }
+        questsLogger.info(questManager.getQuests().size() + " quests have been registered.");
+        questsLogger.info("Reloaded " + changed.size() + " changed quest files and " + dependents.size() + " dependent quests, and removed "
+                + removed.size() + " quest files in " + TimeUnit.NANOSECONDS.toMillis(loadEnd - loadStart) + "ms.");
 
-                            quest.registerTask(task);
-                        }
+        return new HashMap<>(configProblems);
+    }
 
+    /**
+     * @return the task types whose registered quests were changed by the most recent load
+     */
+    public Set<TaskType> getModifiedTaskTypes() {
+        return Collections.unmodifiableSet(modifiedTaskTypes);
+    }
 
-                        for (String line : displayItem.getLoreNormal()) {
-                            findInvalidTaskReferences(quest, line, problems, "display.lore-normal");
-                        }
-                        for (String line : displayItem.getLoreStarted()) {
-                            findInvalidTaskReferences(quest, line, problems, "display.lore-started");
-                        }
+    /**
+     * Quests registered again by a reload are added after the others, so this puts the registered quests and the
+     * quests in each category back in the order of their files, as a full load would have registered them.
+     */
+    private void restoreFileOrder(Collection<String> paths) {
+        Map<String, Integer> fileOrder = new HashMap<>();
+        for (String path : paths) {
+            Quest quest = pathToQuest.get(path);
+            if (quest != null) fileOrder.putIfAbsent(quest.getId(), fileOrder.size());
+        }
 
-                        if (config.isConfigurationSection("placeholders")) {
-                            for (String p : config.getConfigurationSection("placeholders").getKeys(false)) {
-                                placeholders.put(p, config.getString("placeholders." + p));
-                                findInvalidTaskReferences(quest, config.getString("placeholders." + p), problems, "placeholders." + p);
-                            }
-                        }
-                        questManager.registerQuest(quest);
-                        taskTypeManager.registerQuestTasksWithTaskTypes(quest);
-                        qItemStackRegistry.register(quest, displayItem);
-                        if (config.isConfigurationSection("options.started-display")) {
-                            qItemStackRegistry.registerQuestLocked(quest,
-                                    plugin.getItemGetter().getItem("options.locked-display", config));
-                        }
-                        if (config.isConfigurationSection("options.completed-display")) {
-                            qItemStackRegistry.registerQuestCompleted(quest,
-                                    plugin.getItemGetter().getItem("options.completed-display", config));
-                        }
-                        if (config.isConfigurationSection("options.cooldown-display")) {
-                            qItemStackRegistry.registerQuestCooldown(quest,
-                                    plugin.getItemGetter().getItem("options.cooldown-display", config));
-                        }
-                        if (config.isConfigurationSection("options.permission-display")) {
-                            qItemStackRegistry.registerQuestPermission(quest,
-                                    plugin.getItemGetter().getItem("options.permission-display", config));
-                        }
-                        pathToQuest.put(relativeLocation.getPath(), quest);
-                    }
-                    if (!problems.isEmpty()) {
-                        configProblems.put(relativeLocation.getPath(), problems);
-                    }
-                } catch (Exception e) {
-                    questsLogger.severe("An exception occurred when attempting to load quest '" + path + "' (will be ignored)");
-                    e.printStackTrace();
+        Comparator<String> idOrder = Comparator.comparingInt(id -> fileOrder.getOrDefault(id, Integer.MAX_VALUE));
+        questManager.sortQuests(Comparator.comparing(Quest::getId, idOrder));
+        for (Category category : questManager.getCategories()) {
+            category.sortQuestIds(idOrder);
+        }
+    }
+
+    private void unregisterPath(String path, Set<TaskType> modifiedTaskTypes) {
+        configProblems.remove(path);
+        Quest quest = pathToQuest.remove(path);
+        if (quest == null) return;
+
+        // another file may have since registered a quest with the same id
+        if (questManager.getQuestById(quest.getId()) == quest) {
+            questManager.unregisterQuest(quest.getId());
+            qItemStackRegistry.unregister(quest);
+            if (quest.getCategoryId() != null) {
+                Category category = questManager.getCategoryById(quest.getCategoryId());
+                if (category != null) category.unregisterQuestId(quest.getId());
+            }
+        }
+        modifiedTaskTypes.addAll(taskTypeManager.unregisterQuestTasksWithTaskTypes(quest));
+    }
+
+    private Map<String, Map<String, Object>> getGlobalTaskConfig() {
+        HashMap<String, Map<String, Object>> globalTaskConfig = new HashMap<>();
+
+        if (questsConfig.getConfig().isConfigurationSection("global-task-configuration.types")) {
+            for (String type : questsConfig.getConfig().getConfigurationSection("global-task-configuration.types").getKeys(false)) {
+                HashMap<String, Object> configValues = new HashMap<>();
+                for (String key : questsConfig.getConfig().getConfigurationSection("global-task-configuration.types." + type).getKeys(false)) {
+                    configValues.put(key, questsConfig.getConfig().get("global-task-configuration.types." + type + "." + key));
+                }
+                globalTaskConfig.putIfAbsent(type, configValues);
+            }
+        }
+        return globalTaskConfig;
+    }
+
+    private List<Path> findYamlFiles(File root) {
+        List<Path> files = new ArrayList<>();
+        FileVisitor<Path> fileVisitor = new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) {
+                if (path.getFileName().toString().toLowerCase().endsWith(".yml")) {
+                    files.add(path);
                 }
                 return FileVisitResult.CONTINUE;
             }
@@ -381,31 +333,323 @@ public class BukkitQuestsLoader implements QuestsLoader {
         } catch (IOException e) {
             e.printStackTrace();
         }
+        return files;
+    }
 
-        questsLogger.info(questManager.getQuests().size() + " quests have been registered.");
+    private static String relativePath(File root, Path path) {
+        return root.toURI().relativize(path.toUri()).getPath();
+    }
 
-        // post-load checks
-        for (Map.Entry<String, Quest> loadedQuest : pathToQuest.entrySet()) {
-            List<ConfigProblem> problems = new ArrayList<>();
-            for (String req : loadedQuest.getValue().getRequirements()) {
-                if (questManager.getQuestById(req) == null) {
-                    problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
-                            ConfigProblemDescriptions.UNKNOWN_REQUIREMENT.getDescription(req),
-                            ConfigProblemDescriptions.UNKNOWN_REQUIREMENT.getExtendedDescription(req),
-                            "options.requires"));
+    private static int parserThreads(int files) {
+        return Math.max(1, Math.min(files, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Parses and validates quest files in parallel, as this does not touch any shared state.
+     * Files which could not be parsed, for example because loading was interrupted, are returned
+     * with a config problem rather than being left out.
+     *
+     * @return the parsed quests, in the same order as the paths
+     */
+    private List<ParsedQuest> parseQuests(File root, List<Path> questFiles, int threads) {
+        List<ParsedQuest> parsedQuests = new ArrayList<>(questFiles.size());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Quests Loader Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Future<ParsedQuest>> futures = Collections.emptyList();
+        boolean interrupted = false;
+        try {
+            List<Callable<ParsedQuest>> parseTasks = new ArrayList<>(questFiles.size());
+            for (Path path : questFiles) {
+                parseTasks.add(() -> parseQuest(root, path));
+            }
+            futures = executor.invokeAll(parseTasks);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < questFiles.size(); i++) {
+            Path path = questFiles.get(i);
+            String reason = "Quest loading was interrupted.";
+            if (!interrupted && i < futures.size()) {
+                try {
+                    parsedQuests.add(futures.get(i).get());
+                    continue;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    reason = String.valueOf(e.getCause() == null ? e : e.getCause());
                 }
             }
+            parsedQuests.add(notLoaded(root, path, reason));
+        }
 
-            if (!problems.isEmpty()) {
-                if (configProblems.containsKey(loadedQuest.getKey())) {
-                    configProblems.get(loadedQuest.getKey()).addAll(problems);
-                } else {
-                    configProblems.put(loadedQuest.getKey(), problems);
+        if (interrupted) {
+            questsLogger.severe("Quest loading was interrupted!");
+            Thread.currentThread().interrupt();
+        }
+        return parsedQuests;
+    }
+
+    private ParsedQuest notLoaded(File root, Path path, String reason) {
+        String relativePath = relativePath(root, path);
+        questsLogger.severe("Quest file '" + relativePath + "' could not be loaded: " + reason);
+        // forget the hash so that the file is not considered unchanged by the next reload
+        questFileHashes.remove(relativePath);
+        return new ParsedQuest(new File(path.toUri()), relativePath, null, null, Collections.singletonList(new ConfigProblem(
+                ConfigProblem.ConfigProblemType.ERROR,
+                ConfigProblemDescriptions.QUEST_NOT_LOADED.getDescription(),
+                ConfigProblemDescriptions.QUEST_NOT_LOADED.getExtendedDescription(reason)
+        )), true, null);
+    }
+
+    /**
+     * Hashes the main configuration, categories and quest items, which every quest depends on.
+     */
+    private String hashGlobalInputs(File itemsRoot) {
+        MessageDigest digest = newDigest();
+        updateDigest(digest, new File(plugin.getDataFolder(), "config.yml").toPath());
+        updateDigest(digest, new File(plugin.getDataFolder(), "categories.yml").toPath());
+
+        List<Path> itemFiles = findYamlFiles(itemsRoot);
+        Collections.sort(itemFiles);
+        for (Path path : itemFiles) {
+            digest.update(relativePath(itemsRoot, path).getBytes(StandardCharsets.UTF_8));
+            updateDigest(digest, path);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String hashFile(Path path) {
+        MessageDigest digest = newDigest();
+        updateDigest(digest, path);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void updateDigest(MessageDigest digest, Path path) {
+        try {
+            digest.update(Files.readAllBytes(path));
+        } catch (NoSuchFileException ignored) {
+            digest.update((byte) 0);
+        } catch (IOException e) {
+            // an unreadable file is never considered unchanged
+            digest.update(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Builds a quest from a parsed quest file and registers it, recording any configuration issues.
+     */
+    private void registerParsedQuest(ParsedQuest parsedQuest, Map<String, Map<String, Object>> globalTaskConfig) {
+        try {
+            if (parsedQuest.exception() != null) {
+                throw parsedQuest.exception();
+            }
+            if (parsedQuest.config() == null) {
+                configProblems.put(parsedQuest.path(), parsedQuest.problems());
+                return;
+            }
+
+            String id = parsedQuest.id();
+            YamlConfiguration config = parsedQuest.config();
+            List<ConfigProblem> problems = new ArrayList<>(parsedQuest.problems());
+            boolean error = parsedQuest.error();
+
+            // END OF THE CHECKING
+            if (!error && !questsConfig.getBoolean("options.error-checking.override-errors", false)) {
+                QItemStack displayItem = getQItemStack("display", config);
+                List<String> rewards = config.getStringList("rewards");
+                List<String> requirements = config.getStringList("options.requires");
+                List<String> rewardString = config.getStringList("rewardstring");
+                List<String> startString = config.getStringList("startstring");
+                List<String> startCommands = config.getStringList("startcommands");
+                boolean repeatable = config.getBoolean("options.repeatable", false);
+                boolean cooldown = config.getBoolean("options.cooldown.enabled", false);
+                boolean timeLimit = config.getBoolean("options.time-limit.enabled", false);
+                boolean permissionRequired = config.getBoolean("options.permission-required", false);
+                boolean autostart = config.getBoolean("options.autostart", false);
+                boolean cancellable = config.getBoolean("options.cancellable", true);
+                boolean countsTowardsLimit = config.getBoolean("options.counts-towards-limit", true);
+                int cooldownTime = config.getInt("options.cooldown.time", 10);
+                int timeLimtTime = config.getInt("options.time-limit.time", 10);
+                int sortOrder = config.getInt("options.sort-order", 1);
+                String category = config.getString("options.category");
+                Map<String, String> placeholders = new HashMap<>();
+
+                if (category != null && category.equals("")) category = null;
+
+                if (plugin.getQuestController().getName().equals("daily")) {
+                    repeatable = true;
+                    cooldown = true;
+                    cooldownTime = 0;
+                    requirements = Collections.emptyList();
+                    permissionRequired = false;
+                }
+
+                Quest quest = new Quest.Builder(id)
+                        .withRewards(rewards)
+                        .withRequirements(requirements)
+                        .withRewardString(rewardString)
+                        .withStartString(startString)
+                        .withStartCommands(startCommands)
+                        .withPlaceholders(placeholders)
+                        .withCooldown(cooldownTime)
+                        .withTimeLimit(timeLimtTime)
+                        .withSortOrder(sortOrder)
+                        .withCooldownEnabled(cooldown)
+                        .withTimeLimitEnabled(timeLimit)
+                        .withPermissionRequired(permissionRequired)
+                        .withRepeatEnabled(repeatable)
+                        .withCancellable(cancellable)
+                        .withCountsTowardsLimit(countsTowardsLimit)
+                        .withAutoStartEnabled(autostart)
+                        .inCategory(category)
+                        .build();
+
+                if (category != null) {
+                    Category c = questManager.getCategoryById(category);
+                    if (c != null) {
+                        c.registerQuestId(id);
+                    } else {
+                        problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
+                                ConfigProblemDescriptions.UNKNOWN_CATEGORY.getDescription(category),
+                                ConfigProblemDescriptions.UNKNOWN_CATEGORY.getExtendedDescription(category),
+                                "options.category"));
+                    }
+                }
+
+                for (String taskId : config.getConfigurationSection("tasks").getKeys(false)) {
+                    String taskRoot = "tasks." + taskId;
+                    String taskType = config.getString(taskRoot + ".type");
+                    String resolvedTaskTypeName = taskTypeManager.resolveTaskTypeName(taskType);
+
+                    Task task = new Task(taskId, resolvedTaskTypeName);
+
+                    for (String key : config.getConfigurationSection(taskRoot).getKeys(false)) {
+                        task.addConfigValue(key, config.get(taskRoot + "." + key));
+                    }
+
+                    if (globalTaskConfig.containsKey(taskType)) {
+                        for (Map.Entry<String, Object> entry : globalTaskConfig.get(taskType).entrySet()) {
+                            if (questsConfig.getBoolean("options.global-task-configuration-override") && task.getConfigValue(entry.getKey()) != null)
+                                continue;
+                            task.addConfigValue(entry.getKey(), entry.getValue());
+                        }
+                    }
+
+                    CompiledTaskConfig.compile(task);
+                    quest.registerTask(task);
+                }
+
+
+                for (String line : displayItem.getLoreNormal()) {
+                    findInvalidTaskReferences(quest, line, problems, "display.lore-normal");
+                }
+                for (String line : displayItem.getLoreStarted()) {
+                    findInvalidTaskReferences(quest, line, problems, "display.lore-started");
+                }
+
+                if (config.isConfigurationSection("placeholders")) {
+                    for (String p : config.getConfigurationSection("placeholders").getKeys(false)) {
+                        placeholders.put(p, config.getString("placeholders." + p));
+                        findInvalidTaskReferences(quest, config.getString("placeholders." + p), problems, "placeholders." + p);
+                    }
+                }
+                questManager.registerQuest(quest);
+                taskTypeManager.registerQuestTasksWithTaskTypes(quest);
+                qItemStackRegistry.register(quest, displayItem);
+                if (config.isConfigurationSection("options.started-display")) {
+                    qItemStackRegistry.registerQuestLocked(quest,
+                            plugin.getItemGetter().getItem("options.locked-display", config));
+                }
+                if (config.isConfigurationSection("options.completed-display")) {
+                    qItemStackRegistry.registerQuestCompleted(quest,
+                            plugin.getItemGetter().getItem("options.completed-display", config));
+                }
+                if (config.isConfigurationSection("options.cooldown-display")) {
+                    qItemStackRegistry.registerQuestCooldown(quest,
+                            plugin.getItemGetter().getItem("options.cooldown-display", config));
+                }
+                if (config.isConfigurationSection("options.permission-display")) {
+                    qItemStackRegistry.registerQuestPermission(quest,
+                            plugin.getItemGetter().getItem("options.permission-display", config));
                 }
+                pathToQuest.put(parsedQuest.path(), quest);
             }
+            if (!problems.isEmpty()) {
+                configProblems.put(parsedQuest.path(), problems);
+            }
+        } catch (Exception e) {
+            questsLogger.severe("An exception occurred when attempting to load quest '" + parsedQuest.file() + "' (will be ignored)");
+            e.printStackTrace();
+        }
+    }
+
+    private void checkRequirements(String path, Quest quest) {
+        List<ConfigProblem> problems = new ArrayList<>();
+        for (String req : quest.getRequirements()) {
+            if (questManager.getQuestById(req) == null) {
+                problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
+                        ConfigProblemDescriptions.UNKNOWN_REQUIREMENT.getDescription(req),
+                        ConfigProblemDescriptions.UNKNOWN_REQUIREMENT.getExtendedDescription(req),
+                        "options.requires"));
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            if (configProblems.containsKey(path)) {
+                configProblems.get(path).addAll(problems);
+            } else {
+                configProblems.put(path, problems);
+            }
+        }
+    }
+
+    private void buildRequirementGraph() {
+        QuestRequirementGraph graph = QuestRequirementGraph.build(questManager);
+        questManager.setRequirementGraph(graph);
+
+        // cycles may involve quests which were not loaded again, so their problems are recomputed every time
+        for (Map.Entry<String, ConfigProblem> entry : requirementCycleProblems.entrySet()) {
+            List<ConfigProblem> problems = configProblems.get(entry.getKey());
+            if (problems == null) continue;
+
+            problems.remove(entry.getValue());
+            if (problems.isEmpty()) configProblems.remove(entry.getKey());
+        }
+        requirementCycleProblems.clear();
+        if (graph.getCyclicQuests().isEmpty()) {
+            return;
         }
 
-        return configProblems;
+        Map<Quest, String> questToPath = new HashMap<>();
+        for (Map.Entry<String, Quest> entry : pathToQuest.entrySet()) {
+            questToPath.put(entry.getValue(), entry.getKey());
+        }
+        for (Quest quest : graph.getCyclicQuests()) {
+            String path = questToPath.get(quest);
+            if (path == null) continue;
+
+            ConfigProblem problem = new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
+                    ConfigProblemDescriptions.REQUIREMENT_CYCLE.getDescription(quest.getId()),
+                    ConfigProblemDescriptions.REQUIREMENT_CYCLE.getExtendedDescription(quest.getId()),
+                    "options.requires");
+            configProblems.computeIfAbsent(path, k -> new ArrayList<>()).add(problem);
+            requirementCycleProblems.put(path, problem);
+        }
     }
 
     /**
@@ -481,6 +725,150 @@ public class BukkitQuestsLoader implements QuestsLoader {
         questsLogger.info(questItemRegistry.getAllItems().size() + " quest items have been registered.");
     }
 
+    /**
+     * Reads, processes macros in, parses and validates a quest file. This may be called from any thread,
+     * so it must not modify any registry.
+     */
+    private ParsedQuest parseQuest(File root, Path path) {
+        File questFile = new File(path.toUri());
+        String relativePath = root.toURI().relativize(path.toUri()).getPath();
+        try {
+            // process macros -- start
+            List<String> lines = Files.readAllLines(path);
+            String data = lines.isEmpty() ? "" : "\n" + String.join("\n", lines);
+            StringBuilder processed = new StringBuilder();
+            Matcher matcher = MACRO_PATTERN.matcher(data);
+
+            int end = 0;
+            while (matcher.find()) {
+                String macro = matcher.group(1);
+                String replacement = questsConfig.getString("global-macros." + macro, null);
+                if (replacement == null) {
+                    replacement = matcher.group(0);
+                }
+                processed.append(data, end, matcher.start()).append(replacement);
+                end = matcher.end();
+            }
+
+            if (end < data.length()) {
+                processed.append(data, end, data.length());
+            }
+            // process macros -- end
+
+            YamlConfiguration config = new YamlConfiguration();
+            // test QUEST file integrity
+            try {
+                config.loadFromString(processed.toString());
+            } catch (InvalidConfigurationException ex) {
+                return new ParsedQuest(questFile, relativePath, null, null, Collections.singletonList(new ConfigProblem(
+                        ConfigProblem.ConfigProblemType.ERROR,
+                        ConfigProblemDescriptions.MALFORMED_YAML.getDescription(),
+                        ConfigProblemDescriptions.MALFORMED_YAML.getExtendedDescription(ex.getMessage())
+                )), true, null);
+            }
+
+            String id = questFile.getName().replace(".yml", "");
+
+            List<ConfigProblem> problems = new ArrayList<>();
+
+            if (!StringUtils.isAlphanumeric(id)) {
+                problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.ERROR,
+                        ConfigProblemDescriptions.INVALID_QUEST_ID.getDescription(id),
+                        ConfigProblemDescriptions.INVALID_QUEST_ID.getExtendedDescription(id)));
+            }
+
+            // CHECK EVERYTHING WRONG WITH THE QUEST FILE BEFORE ACTUALLY LOADING THE QUEST
+
+            if (!config.isConfigurationSection("tasks")) {
+                problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.ERROR,
+                        ConfigProblemDescriptions.NO_TASKS.getDescription(),
+                        ConfigProblemDescriptions.NO_TASKS.getExtendedDescription(),
+                        "tasks"));
+            } else { //continue
+                int validTasks = 0;
+                for (String taskId : config.getConfigurationSection("tasks").getKeys(false)) {
+                    boolean isValid = true;
+                    String taskRoot = "tasks." + taskId;
+                    String taskType = config.getString(taskRoot + ".type");
+
+                    if (!config.isConfigurationSection(taskRoot)) {
+                        problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
+                                ConfigProblemDescriptions.TASK_MALFORMED_NOT_SECTION.getDescription(taskId),
+                                ConfigProblemDescriptions.TASK_MALFORMED_NOT_SECTION.getExtendedDescription(taskId),
+                                taskRoot));
+                        continue;
+                    }
+
+                    if (taskType == null) {
+                        problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
+                                ConfigProblemDescriptions.NO_TASK_TYPE.getDescription(),
+                                ConfigProblemDescriptions.NO_TASK_TYPE.getExtendedDescription(),
+                                taskRoot));
+                        continue;
+                    }
+
+                    // check the tasks
+                    String resolvedTaskTypeName = taskTypeManager.resolveTaskTypeName(taskType);
+                    if (resolvedTaskTypeName != null) {
+                        TaskType t = taskTypeManager.getTaskType(resolvedTaskTypeName);
+                        HashMap<String, Object> configValues = new HashMap<>();
+                        for (String key : config.getConfigurationSection(taskRoot).getKeys(false)) {
+                            configValues.put(key, config.get(taskRoot + "." + key));
+                        }
+
+                        List<ConfigProblem> taskProblems = new ArrayList<>();
+                        for (TaskType.ConfigValidator validator : t.getConfigValidators()) {
+                            validator.validateConfig(configValues, taskProblems);
+                        }
+
+                        // pre-pend task root to locations
+                        for (ConfigProblem problem : taskProblems) {
+                            problems.add(new ConfigProblem(problem.getType(), problem.getDescription(),
+                                    problem.getExtendedDescription(), taskRoot + "." + problem.getLocation()));
+                        }
+                    } else {
+                        problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.WARNING,
+                                ConfigProblemDescriptions.UNKNOWN_TASK_TYPE.getDescription(taskType),
+                                ConfigProblemDescriptions.UNKNOWN_TASK_TYPE.getExtendedDescription(taskType),
+                                taskRoot));
+                        isValid = false;
+                    }
+
+                    if (isValid) {
+                        validTasks++;
+                    }
+                }
+                if (validTasks == 0) {
+                    problems.add(new ConfigProblem(ConfigProblem.ConfigProblemType.ERROR,
+                            ConfigProblemDescriptions.NO_TASKS.getDescription(),
+                            ConfigProblemDescriptions.NO_TASKS.getExtendedDescription(),
+                            "tasks"));
+                }
+            }
+
+            boolean error = false;
+            for (ConfigProblem problem : problems) {
+                if (problem.getType() == ConfigProblem.ConfigProblemType.ERROR) {
+                    error = true;
+                    break;
+                }
+            }
+
+            return new ParsedQuest(questFile, relativePath, id, config, Collections.unmodifiableList(problems), error, null);
+        } catch (Exception e) {
+            return new ParsedQuest(questFile, relativePath, null, null, Collections.emptyList(), true, e);
+        }
+    }
+
+    /**
+     * The result of parsing and validating a quest file, before it has been registered.
+     *
+     * @param config the parsed configuration, or null if the file is malformed
+     * @param exception the exception thrown while parsing, or null
+     */
+    private record ParsedQuest(File file, String path, String id, YamlConfiguration config,
+                               List<ConfigProblem> problems, boolean error, Exception exception) { }
+
     private void findInvalidTaskReferences(Quest quest, String s, List<ConfigProblem> configProblems, String location) {
         Pattern pattern = Pattern.compile("\\{([^}]+)}");
 
@@ -5,36 +5,134 @@ import net.coreprotect.CoreProtect;
 import net.coreprotect.CoreProtectAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
 
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
-public class CoreProtectHook implements AbstractCoreProtectHook {
+/**
+ * Looks up blocks with CoreProtect. Lookups for the same block made while one is already running share its result,
+ * lookups made in the same tick are run together in one async task, and recent results are cached.
+ * <p>
+ * Only blocks which were not placed by a player are cached: once a placed block is broken, its break becomes the
+ * latest record for the position, so the next block there may not have been placed even without a block place event.
+ */
+public class CoreProtectHook implements AbstractCoreProtectHook, Listener {
+
+    private static final int MAX_CACHED = 1024;
+    private static final long CACHE_EXPIRY = 60_000L;
 
     private final BukkitQuestsPlugin plugin;
     private final CoreProtectAPI api;
+    // the following are only accessed on the main thread
+    private final Map<Lookup, CompletableFuture<Boolean>> inFlight = new HashMap<>();
+    private final Map<Lookup, Block> batch = new LinkedHashMap<>();
+    // keyed by position, so that placing a block only has to remove one entry; results are then keyed by time
+    private final Map<Position, Map<Integer, CachedResult>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Position, Map<Integer, CachedResult>> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
 
     public CoreProtectHook(BukkitQuestsPlugin plugin) {
         this.plugin = plugin;
         api = ((CoreProtect) Bukkit.getPluginManager().getPlugin("CoreProtect")).getAPI();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
 
     @Override
     public CompletableFuture<Boolean> checkBlock(Block block, int time) {
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        Position position = new Position(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
+        Lookup lookup = new Lookup(position, time);
+
+        Map<Integer, CachedResult> results = cache.get(position);
+        CachedResult cached = results == null ? null : results.get(time);
+        if (cached != null) {
+            if (cached.expiry() > System.currentTimeMillis()) {
+                return CompletableFuture.completedFuture(cached.value());
+            }
+            results.remove(time);
+            if (results.isEmpty()) cache.remove(position);
+        }
+
+        CompletableFuture<Boolean> future = inFlight.get(lookup);
+        if (future != null) {
+            return future;
+        }
+
+        future = new CompletableFuture<>();
+        inFlight.put(lookup, future);
+        if (batch.isEmpty()) {
+            Bukkit.getScheduler().runTask(plugin, this::runBatch);
+        }
+        batch.put(lookup, block);
+        return future;
+    }
+
+    private void runBatch() {
+        Map<Lookup, Block> lookups = new LinkedHashMap<>(batch);
+        batch.clear();
+
         plugin.getScheduler().doAsync(() -> {
-            List<String[]> lookup = api.blockLookup(block, time);
-            if (lookup.isEmpty()) {
-                plugin.getScheduler().doSync(() -> future.complete(false));
-            } else {
-                String[] result = lookup.get(0);
-                CoreProtectAPI.ParseResult parseResult = api.parseResult(result);
-                boolean value = !parseResult.getPlayer().isEmpty() && parseResult.getActionId() == 1;
-
-                plugin.getScheduler().doSync(() -> future.complete(value));
+            Map<Lookup, Object> results = new HashMap<>();
+            for (Map.Entry<Lookup, Block> entry : lookups.entrySet()) {
+                try {
+                    results.put(entry.getKey(), lookup(entry.getValue(), entry.getKey().time()));
+                } catch (Throwable t) {
+                    results.put(entry.getKey(), t);
+                }
             }
+
+            plugin.getScheduler().doSync(() -> {
+                long expiry = System.currentTimeMillis() + CACHE_EXPIRY;
+                for (Map.Entry<Lookup, Object> entry : results.entrySet()) {
+                    CompletableFuture<Boolean> future = inFlight.remove(entry.getKey());
+                    if (entry.getValue() instanceof Boolean value) {
+                        if (value) {
+                            cache.remove(entry.getKey().position());
+                        } else {
+                            cache.computeIfAbsent(entry.getKey().position(), k -> new HashMap<>(2))
+                                    .put(entry.getKey().time(), new CachedResult(false, expiry));
+                        }
+                        if (future != null) future.complete(value);
+                    } else if (future != null) {
+                        future.completeExceptionally((Throwable) entry.getValue());
+                    }
+                }
+            });
         });
-        return future;
     }
 
+    private boolean lookup(Block block, int time) {
+        List<String[]> lookup = api.blockLookup(block, time);
+        if (lookup.isEmpty()) {
+            return false;
+        }
+
+        String[] result = lookup.get(0);
+        CoreProtectAPI.ParseResult parseResult = api.parseResult(result);
+        return !parseResult.getPlayer().isEmpty() && parseResult.getActionId() == 1;
+    }
+
+    // a block placed since a result was cached makes it stale
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (cache.isEmpty()) {
+            return;
+        }
+
+        Block block = event.getBlock();
+        cache.remove(new Position(block.getWorld().getName(), block.getX(), block.getY(), block.getZ()));
+    }
+
+    private record Position(String world, int x, int y, int z) { }
+
+    private record Lookup(Position position, int time) { }
+
+    private record CachedResult(boolean value, long expiry) { }
+
 }
@@ -11,4 +11,6 @@ public interface AbstractPlaceholderAPIHook {
 
     void unregisterExpansion();
 
+    void clearCache();
+
 }
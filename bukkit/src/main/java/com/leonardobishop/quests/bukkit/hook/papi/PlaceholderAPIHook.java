@@ -2,7 +2,9 @@ package com.leonardobishop.quests.bukkit.hook.papi;
 
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import me.clip.placeholderapi.PlaceholderAPI;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
 
 public class PlaceholderAPIHook implements AbstractPlaceholderAPIHook {
 
@@ -20,12 +22,19 @@ public class PlaceholderAPIHook implements AbstractPlaceholderAPIHook {
     public void registerExpansion(BukkitQuestsPlugin plugin) {
         placeholder = new QuestsPlaceholders(plugin);
         placeholder.register();
+        Bukkit.getPluginManager().registerEvents(placeholder, plugin);
     }
 
     @Override
     public void unregisterExpansion() {
+        HandlerList.unregisterAll(placeholder);
         placeholder.unregister();
     }
 
+    @Override
+    public void clearCache() {
+        placeholder.clear();
+    }
+
 
 }
@@ -7,24 +7,34 @@ import com.leonardobishop.quests.bukkit.util.Messages;
 import com.leonardobishop.quests.bukkit.util.chat.Chat;
 import com.leonardobishop.quests.common.enums.QuestStartResult;
 import com.leonardobishop.quests.common.player.QPlayer;
+import com.leonardobishop.quests.common.player.questprogressfile.QuestProgress;
 import com.leonardobishop.quests.common.player.questprogressfile.QuestProgressFile;
 import com.leonardobishop.quests.common.quest.Category;
 import com.leonardobishop.quests.common.quest.Quest;
 import me.clip.placeholderapi.expansion.Cacheable;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
-public class QuestsPlaceholders extends PlaceholderExpansion implements Cacheable {
+public class QuestsPlaceholders extends PlaceholderExpansion implements Cacheable, Listener {
+
+    // params may come from player supplied text expanded by other plugins, so neither cache can be allowed to grow freely
+    private static final int MAX_COMPILED = 4096;
+    private static final int MAX_CACHED_PER_PLAYER = 256;
 
     private final BukkitQuestsPlugin plugin;
-    private final Map<String, Map<String, String>> cache = new HashMap<>();
-    private final Map<String, SimpleDateFormat> formats = new HashMap<>();
+    private final Map<String, CompiledPlaceholder> compiled = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<String, CachedResult>> cache = new ConcurrentHashMap<>();
 
     public QuestsPlaceholders(BukkitQuestsPlugin plugin) {
         this.plugin = plugin;
@@ -32,8 +42,8 @@ public class QuestsPlaceholders extends PlaceholderExpansion implements Cacheabl
 
     @Override
     public void clear() {
+        compiled.clear();
         cache.clear();
-        formats.clear();
     }
 
     @Override
@@ -59,264 +69,336 @@ public class QuestsPlaceholders extends PlaceholderExpansion implements Cacheabl
     @Override
     public String onPlaceholderRequest(Player p, String params) {
         if (p == null || !p.isOnline()) return null;
-        if (cache.containsKey(p.getName()) && cache.get(p.getName()).containsKey(params))
-            return cache.get(p.getName()).get(params);
 
+        CompiledPlaceholder placeholder = compiled.get(params);
+        if (placeholder == null) {
+            placeholder = compile(params);
+            if (compiled.size() < MAX_COMPILED) {
+                compiled.put(params, placeholder);
+            }
+        }
+
+        final QPlayer qPlayer = plugin.getPlayerManager().getPlayer(p.getUniqueId());
+        if (qPlayer == null) return Messages.PLACEHOLDERAPI_DATA_NOT_LOADED.getMessageLegacyColor();
+        if (!placeholder.progressOnly() && !placeholder.save()) return placeholder.resolver().apply(qPlayer);
+
+        final int progressVersion = qPlayer.getQuestProgressFile().getProgressVersion();
+        final long now = System.currentTimeMillis();
+        final Map<String, CachedResult> results = cache.computeIfAbsent(p.getUniqueId(), k -> new ConcurrentHashMap<>());
+        final CachedResult cached = results.get(params);
+        if (cached != null && now < cached.expiresAt() && (!placeholder.progressOnly() || cached.progressVersion() == progressVersion)) {
+            return cached.value();
+        }
+
+        final String result = placeholder.resolver().apply(qPlayer);
+        final long expiresAt = placeholder.progressOnly() ? Long.MAX_VALUE : now + plugin.getConfig().getInt("options.placeholder-cache-time", 10) * 1000L;
+        if (cached != null || results.size() < MAX_CACHED_PER_PLAYER) {
+            results.put(params, new CachedResult(result, progressVersion, expiresAt));
+        }
+        return result;
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        cache.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Parses placeholder params into a resolver, so that they only have to be parsed once.
+     */
+    private CompiledPlaceholder compile(String params) {
         String[] args = params.split("_", 4);
-        if (args.length < 1) return "Invalid Placeholder";
 
         final boolean save = args[args.length - 1].toLowerCase().equals("cache");
         if (save) args = Arrays.copyOf(args, args.length - 1);
+        if (args.length < 1) return new CompiledPlaceholder(constant("Invalid Placeholder"), true, save);
 
-        final QPlayer qPlayer = plugin.getPlayerManager().getPlayer(p.getUniqueId());
-        if (qPlayer == null) return Messages.PLACEHOLDERAPI_DATA_NOT_LOADED.getMessageLegacyColor();
         String split = args[args.length - 1];
 
-        String result = "null";
         if (!args[0].contains(":") && !args[0].equalsIgnoreCase("tracked")) {
             if (args.length > 1 && split.equals(args[1])) split = ",";
 
+            final Function<QPlayer, String> resolver;
+            boolean progressOnly = true;
             switch (args[0].toLowerCase()) {
                 case "all":
                 case "a":
-                    final List<Quest> listAll = new ArrayList<>(plugin.getQuestManager().getQuests().values());
-                    result = (args.length == 1 ? String.valueOf(listAll.size()) : parseList((List<Quest>) listAll, args[1], split));
+                    final Function<List<Quest>, String> listAll = compileQuestList(args, 1, split);
+                    resolver = qPlayer -> listAll.apply(new ArrayList<>(plugin.getQuestManager().getQuests().values()));
                     break;
                 case "completed":
                 case "c":
-                    final List<Quest> listCompleted = qPlayer.getQuestProgressFile().getAllQuestsFromProgress(QuestProgressFile.QuestsProgressFilter.COMPLETED);
-                    result = (args.length == 1 ? String.valueOf(listCompleted.size()) : parseList(listCompleted, args[1], split));
+                    final Function<List<Quest>, String> listCompleted = compileQuestList(args, 1, split);
+                    resolver = qPlayer -> listCompleted.apply(qPlayer.getQuestProgressFile().getAllQuestsFromProgress(QuestProgressFile.QuestsProgressFilter.COMPLETED));
                     break;
                 case "completedbefore":
                 case "cb":
-                    final List<Quest> listCompletedB = qPlayer.getQuestProgressFile().getAllQuestsFromProgress(QuestProgressFile.QuestsProgressFilter.COMPLETED_BEFORE);
-                    result = (args.length == 1 ? String.valueOf(listCompletedB.size()) : parseList(listCompletedB, args[1], split));
+                    final Function<List<Quest>, String> listCompletedB = compileQuestList(args, 1, split);
+                    resolver = qPlayer -> listCompletedB.apply(qPlayer.getQuestProgressFile().getAllQuestsFromProgress(QuestProgressFile.QuestsProgressFilter.COMPLETED_BEFORE));
                     break;
                 case "started":
                 case "s":
-                    //TODO cache started quests somewhere, or make a effective started method
-                    final List<Quest> listStarted = qPlayer.getEffectiveStartedQuests();
-                    result = (args.length == 1 ? String.valueOf(listStarted.size()) : parseList(listStarted, args[1], split));
+                    final Function<List<Quest>, String> listStarted = compileQuestList(args, 1, split);
+                    resolver = qPlayer -> listStarted.apply(qPlayer.getEffectiveStartedQuests());
+                    // autostart quests are started depending on whether they can be started, which includes permissions
+                    progressOnly = false;
                     break;
                 case "categories":
                     if (args.length == 1) {
-                        result = String.valueOf(plugin.getQuestManager().getCategories().size());
+                        resolver = qPlayer -> String.valueOf(plugin.getQuestManager().getCategories().size());
                     } else {
-                        final List<String> listCategories = new ArrayList<>();
+                        final String separator = split;
                         switch (args[1].toLowerCase()) {
                             case "list":
                             case "l":
-                                plugin.getQuestManager().getCategories().forEach(c -> {
-                                    ItemStack itemStack = plugin.getQItemStackRegistry().getCategoryItemStack(c);
-                                    listCategories.add(Chat.legacyStrip(itemStack.getItemMeta().getDisplayName()));
-                                });
+                                resolver = qPlayer -> {
+                                    final List<String> listCategories = new ArrayList<>();
+                                    plugin.getQuestManager().getCategories().forEach(c -> {
+                                        ItemStack itemStack = plugin.getQItemStackRegistry().getCategoryItemStack(c);
+                                        listCategories.add(Chat.legacyStrip(itemStack.getItemMeta().getDisplayName()));
+                                    });
+                                    return String.join(separator, listCategories);
+                                };
                                 break;
                             case "listid":
                             case "lid":
-                                plugin.getQuestManager().getCategories().forEach(c -> listCategories.add(c.getId()));
+                                resolver = qPlayer -> {
+                                    final List<String> listCategories = new ArrayList<>();
+                                    plugin.getQuestManager().getCategories().forEach(c -> listCategories.add(c.getId()));
+                                    return String.join(separator, listCategories);
+                                };
                                 break;
                             default:
-                                return args[0] + "_" + args[1] + " is not a valid placeholder";
+                                resolver = constant(args[0] + "_" + args[1] + " is not a valid placeholder");
                         }
-                        result = String.join(split, listCategories);
                     }
                     break;
                 default:
-                    return args[0] + " is not a valid placeholder";
+                    resolver = constant(args[0] + " is not a valid placeholder");
             }
-        } else {
-            final String[] key = args[0].split(":");
-            switch (key[0].toLowerCase()) {
-                case "quest":
-                case "q":
-                case "tracked":
-                    if (!key[0].equalsIgnoreCase("tracked") && key.length == 1) return "Please specify quest name";
-
-                    final Quest quest;
-                    if (!key[0].equalsIgnoreCase("tracked")) {
-                        quest = plugin.getQuestManager().getQuestById(key[1]);
-                        if (quest == null) return key[1] + " is not a quest";
-                    } else {
-                        if (qPlayer.getPlayerPreferences().getTrackedQuestId() == null ||
-                                plugin.getQuestManager().getQuestById(qPlayer.getPlayerPreferences().getTrackedQuestId()) == null) {
-                            if (args.length == 1) {
-                                return Messages.PLACEHOLDERAPI_NO_TRACKED_QUEST.getMessageLegacyColor();
-                            } else {
-                                return "";
-                            }
-                        }
-                        quest = plugin.getQuestManager().getQuestById(qPlayer.getPlayerPreferences().getTrackedQuestId());
-                    }
+            return new CompiledPlaceholder(resolver, progressOnly, save);
+        }
 
-                    if (args.length == 1) {
-                        result = getQuestDisplayNameStripped(quest);
-                    } else {
-                        switch (args[1].toLowerCase()) {
-                            case "started":
-                            case "s":
-                                result = (qPlayer.getQuestProgressFile().getQuestProgress(quest).isStarted() ? Messages.PLACEHOLDERAPI_TRUE.getMessageLegacyColor() : Messages.PLACEHOLDERAPI_FALSE.getMessageLegacyColor());
-                                break;
-                            case "starteddate":
-                            case "sd":
-                                if (qPlayer.getQuestProgressFile().getQuestProgress(quest).isStarted()) {
-                                    result = parseDate(args, qPlayer.getQuestProgressFile().getQuestProgress(quest).getStartedDate());
-                                } else {
-                                    result = "Never";
-                                }
-                                break;
-                            case "completed":
-                            case "c":
-                                result = (qPlayer.getQuestProgressFile().getQuestProgress(quest).isCompleted() ? Messages.PLACEHOLDERAPI_TRUE.getMessageLegacyColor() : Messages.PLACEHOLDERAPI_FALSE.getMessageLegacyColor());
-                                break;
-                            case "completedbefore":
-                            case "cb":
-                                result = (qPlayer.getQuestProgressFile().getQuestProgress(quest).isCompletedBefore() ? Messages.PLACEHOLDERAPI_TRUE.getMessageLegacyColor() : Messages.PLACEHOLDERAPI_FALSE.getMessageLegacyColor());
-                                break;
-                            case "completiondate":
-                            case "cd":
-                                if (qPlayer.getQuestProgressFile().getQuestProgress(quest).isCompleted()) {
-                                    result = parseDate(args, qPlayer.getQuestProgressFile().getQuestProgress(quest).getCompletionDate());
-                                } else {
-                                    result = "Never";
-                                }
-                                break;
-                            case "cooldown":
-                                if (qPlayer.getQuestProgressFile().getQuestProgress(quest).isCompleted()) {
-                                    final String time = Format.formatTime(TimeUnit.SECONDS.convert(qPlayer.getQuestProgressFile().getCooldownFor(quest), TimeUnit.MILLISECONDS));
-                                    if (!time.startsWith("-")) result = time;
-                                } else {
-                                    result = "0";
-                                }
-                                break;
-                            case "canaccept":
-                                result = (qPlayer.canStartQuest(quest) == QuestStartResult.QUEST_SUCCESS ? Messages.PLACEHOLDERAPI_TRUE.getMessageLegacyColor() : Messages.PLACEHOLDERAPI_FALSE.getMessageLegacyColor());
-                                break;
-                            case "meetsrequirements":
-                                result = (qPlayer.getQuestProgressFile().hasMetRequirements(quest) ? Messages.PLACEHOLDERAPI_TRUE.getMessageLegacyColor() : Messages.PLACEHOLDERAPI_FALSE.getMessageLegacyColor());
-                                break;
-                            default:
-                                if (!args[1].contains(":"))
-                                    return args[0] + "_" + args[1] + " is not a valid placeholder";
-
-                                final String[] t = args[1].split(":");
-                                if (t[0].equalsIgnoreCase("task") || t[0].equalsIgnoreCase("t")) {
-                                    if (t.length == 1) return "Please specify task name";
-
-                                    if (args.length == 2) {
-                                        result = qPlayer.getQuestProgressFile().getQuestProgress(quest).getTaskProgress(t[1]).getTaskId();
-                                    } else {
-                                        switch (args[2].toLowerCase()) {
-                                            case "progress":
-                                            case "p":
-                                                final Object progress = qPlayer.getQuestProgressFile().getQuestProgress(quest).getTaskProgress(t[1]).getProgress();
-                                                result = (progress == null ? "0" : String.valueOf(progress));
-                                                break;
-                                            case "completed":
-                                            case "c":
-                                                result = String.valueOf(qPlayer.getQuestProgressFile().getQuestProgress(quest).getTaskProgress(t[1]).isCompleted() ? Messages.PLACEHOLDERAPI_TRUE.getMessageLegacyColor() : Messages.PLACEHOLDERAPI_FALSE.getMessageLegacyColor());
-                                                break;
-                                            default:
-                                                return args[0] + "_" + args[1] + "_" + args[2] + " is not a valid placeholder";
-                                        }
-                                    }
-                                } else if (t[0].equalsIgnoreCase("placeholder") || t[0].equalsIgnoreCase("p")) {
-                                    if (t.length == 1) return "Please specify placeholder name";
-
-                                    String placeholder = quest.getPlaceholders().get(t[1]);
-                                    if (placeholder == null) {
-                                        return t[1] + " is not a valid placeholder within quest " + quest.getId();
-                                    }
-                                    placeholder = QItemStack.processPlaceholders(Chat.legacyColor(placeholder), qPlayer.getQuestProgressFile().getQuestProgress(quest));
-                                    return placeholder;
-                                } else {
-                                    return args[0] + "_" + args[1] + " is not a valid placeholder";
-                                }
+        final String[] key = args[0].split(":");
+        switch (key[0].toLowerCase()) {
+            case "quest":
+            case "q":
+            case "tracked":
+                if (!key[0].equalsIgnoreCase("tracked")) {
+                    if (key.length == 1) return new CompiledPlaceholder(constant("Please specify quest name"), true, save);
+
+                    final String questId = key[1];
+                    final BiFunction<QPlayer, Quest, String> questResolver = compileQuest(args);
+                    final boolean progressOnly = !isTimeDependent(args);
+                    return new CompiledPlaceholder(qPlayer -> {
+                        final Quest quest = plugin.getQuestManager().getQuestById(questId);
+                        if (quest == null) return questId + " is not a quest";
+                        return questResolver.apply(qPlayer, quest);
+                    }, progressOnly, save);
+                } else {
+                    final BiFunction<QPlayer, Quest, String> questResolver = compileQuest(args);
+                    final boolean single = args.length == 1;
+                    // the tracked quest is a preference rather than progress, so is never cached until progress changes
+                    return new CompiledPlaceholder(qPlayer -> {
+                        final String trackedQuestId = qPlayer.getPlayerPreferences().getTrackedQuestId();
+                        final Quest quest = trackedQuestId == null ? null : plugin.getQuestManager().getQuestById(trackedQuestId);
+                        if (quest == null) {
+                            return single ? Messages.PLACEHOLDERAPI_NO_TRACKED_QUEST.getMessageLegacyColor() : "";
                         }
-                    }
-                    break;
-                case "category":
-                case "c":
+                        return questResolver.apply(qPlayer, quest);
+                    }, false, save);
+                }
+            case "category":
+            case "c":
+                final Function<QPlayer, String> categoryResolver = compileCategory(key, args, split);
+                return new CompiledPlaceholder(qPlayer -> {
                     if (!plugin.getQuestsConfig().getBoolean("options.categories-enabled")) return "Categories Disabled";
-                    if (key.length == 1) return "Please specify category name";
+                    return categoryResolver.apply(qPlayer);
+                }, true, save);
+            default:
+                return new CompiledPlaceholder(constant(args[0] + " is not a valid placeholder"), true, save);
+        }
+    }
 
-                    final Category category = plugin.getQuestManager().getCategoryById(key[1]);
-                    if (category == null) return key[1] + " is not a category";
+    private BiFunction<QPlayer, Quest, String> compileQuest(String[] args) {
+        if (args.length == 1) {
+            return (qPlayer, quest) -> getQuestDisplayNameStripped(quest);
+        }
 
-                    if (args.length == 1) {
-                        ItemStack itemStack = plugin.getQItemStackRegistry().getCategoryItemStack(category);
-                        result = Chat.legacyStrip(itemStack.getItemMeta().getDisplayName());
-                    } else {
-                        if (args.length > 2 && split.equals(args[2])) split = ",";
-                        switch (args[1].toLowerCase()) {
-                            case "all":
-                            case "a":
-                                final List<Quest> listAll = getCategoryQuests(qPlayer, category, QuestProgressFile.QuestsProgressFilter.ALL);
-                                result = (args.length == 2 ? String.valueOf(listAll.size()) : parseList(listAll, args[2], split));
-                                break;
-                            case "completed":
-                            case "c":
-                                final List<Quest> listCompleted = getCategoryQuests(qPlayer, category, QuestProgressFile.QuestsProgressFilter.COMPLETED);
-                                result = (args.length == 2 ? String.valueOf(listCompleted.size()) : parseList(listCompleted, args[2], split));
-                                break;
-                            case "completedbefore":
-                            case "cb":
-                                final List<Quest> listCompletedB = getCategoryQuests(qPlayer, category, QuestProgressFile.QuestsProgressFilter.COMPLETED_BEFORE);
-                                result = (args.length == 2 ? String.valueOf(listCompletedB.size()) : parseList(listCompletedB, args[2], split));
-                                break;
-                            case "started":
-                            case "s":
-                                final List<Quest> listStarted = getCategoryQuests(qPlayer, category, QuestProgressFile.QuestsProgressFilter.STARTED);
-                                result = (args.length == 2 ? String.valueOf(listStarted.size()) : parseList(listStarted, args[2], split));
-                                break;
-                            default:
-                                return args[0] + "_" + args[1] + " is not a valid placeholder";
-                        }
+        switch (args[1].toLowerCase()) {
+            case "started":
+            case "s":
+                return (qPlayer, quest) -> parseBoolean(qPlayer.getQuestProgressFile().getQuestProgress(quest).isStarted());
+            case "starteddate":
+            case "sd":
+                final SimpleDateFormat startedFormat = compileDateFormat(args);
+                return (qPlayer, quest) -> {
+                    final QuestProgress questProgress = qPlayer.getQuestProgressFile().getQuestProgress(quest);
+                    return questProgress.isStarted() ? parseDate(startedFormat, questProgress.getStartedDate()) : "Never";
+                };
+            case "completed":
+            case "c":
+                return (qPlayer, quest) -> parseBoolean(qPlayer.getQuestProgressFile().getQuestProgress(quest).isCompleted());
+            case "completedbefore":
+            case "cb":
+                return (qPlayer, quest) -> parseBoolean(qPlayer.getQuestProgressFile().getQuestProgress(quest).isCompletedBefore());
+            case "completiondate":
+            case "cd":
+                final SimpleDateFormat completionFormat = compileDateFormat(args);
+                return (qPlayer, quest) -> {
+                    final QuestProgress questProgress = qPlayer.getQuestProgressFile().getQuestProgress(quest);
+                    return questProgress.isCompleted() ? parseDate(completionFormat, questProgress.getCompletionDate()) : "Never";
+                };
+            case "cooldown":
+                return (qPlayer, quest) -> {
+                    if (qPlayer.getQuestProgressFile().getQuestProgress(quest).isCompleted()) {
+                        final String time = Format.formatTime(TimeUnit.SECONDS.convert(qPlayer.getQuestProgressFile().getCooldownFor(quest), TimeUnit.MILLISECONDS));
+                        return time.startsWith("-") ? "null" : time;
+                    }
+                    return "0";
+                };
+            case "canaccept":
+                return (qPlayer, quest) -> parseBoolean(qPlayer.canStartQuest(quest) == QuestStartResult.QUEST_SUCCESS);
+            case "meetsrequirements":
+                return (qPlayer, quest) -> parseBoolean(qPlayer.getQuestProgressFile().hasMetRequirements(quest));
+            default:
+                final String invalid = args[0] + "_" + args[1] + " is not a valid placeholder";
+                if (!args[1].contains(":")) return (qPlayer, quest) -> invalid;
+
+                final String[] t = args[1].split(":");
+                if (t[0].equalsIgnoreCase("task") || t[0].equalsIgnoreCase("t")) {
+                    if (t.length == 1) return (qPlayer, quest) -> "Please specify task name";
+
+                    final String taskId = t[1];
+                    if (args.length == 2) {
+                        return (qPlayer, quest) -> qPlayer.getQuestProgressFile().getQuestProgress(quest).getTaskProgress(taskId).getTaskId();
                     }
+                    switch (args[2].toLowerCase()) {
+                        case "progress":
+                        case "p":
+                            return (qPlayer, quest) -> {
+                                final Object progress = qPlayer.getQuestProgressFile().getQuestProgress(quest).getTaskProgress(taskId).getProgress();
+                                return (progress == null ? "0" : String.valueOf(progress));
+                            };
+                        case "completed":
+                        case "c":
+                            return (qPlayer, quest) -> parseBoolean(qPlayer.getQuestProgressFile().getQuestProgress(quest).getTaskProgress(taskId).isCompleted());
+                        default:
+                            final String invalidTask = args[0] + "_" + args[1] + "_" + args[2] + " is not a valid placeholder";
+                            return (qPlayer, quest) -> invalidTask;
+                    }
+                } else if (t[0].equalsIgnoreCase("placeholder") || t[0].equalsIgnoreCase("p")) {
+                    if (t.length == 1) return (qPlayer, quest) -> "Please specify placeholder name";
+
+                    final String placeholderId = t[1];
+                    return (qPlayer, quest) -> {
+                        final String placeholder = quest.getPlaceholders().get(placeholderId);
+                        if (placeholder == null) {
+                            return placeholderId + " is not a valid placeholder within quest " + quest.getId();
+                        }
+                        return QItemStack.processPlaceholders(Chat.legacyColor(placeholder), qPlayer.getQuestProgressFile().getQuestProgress(quest));
+                    };
+                } else {
+                    return (qPlayer, quest) -> invalid;
+                }
+        }
+    }
+
+    private Function<QPlayer, String> compileCategory(String[] key, String[] args, String split) {
+        if (key.length == 1) return constant("Please specify category name");
+
+        final String categoryId = key[1];
+        final BiFunction<QPlayer, Category, String> categoryResolver;
+        if (args.length == 1) {
+            categoryResolver = (qPlayer, category) -> {
+                ItemStack itemStack = plugin.getQItemStackRegistry().getCategoryItemStack(category);
+                return Chat.legacyStrip(itemStack.getItemMeta().getDisplayName());
+            };
+        } else {
+            if (args.length > 2 && split.equals(args[2])) split = ",";
+            final QuestProgressFile.QuestsProgressFilter filter;
+            switch (args[1].toLowerCase()) {
+                case "all":
+                case "a":
+                    filter = QuestProgressFile.QuestsProgressFilter.ALL;
+                    break;
+                case "completed":
+                case "c":
+                    filter = QuestProgressFile.QuestsProgressFilter.COMPLETED;
+                    break;
+                case "completedbefore":
+                case "cb":
+                    filter = QuestProgressFile.QuestsProgressFilter.COMPLETED_BEFORE;
+                    break;
+                case "started":
+                case "s":
+                    filter = QuestProgressFile.QuestsProgressFilter.STARTED;
                     break;
                 default:
-                    return args[0] + " is not a valid placeholder";
+                    return constant(args[0] + "_" + args[1] + " is not a valid placeholder");
             }
+            final Function<List<Quest>, String> list = compileQuestList(args, 2, split);
+            categoryResolver = (qPlayer, category) -> list.apply(getCategoryQuests(qPlayer, category, filter));
         }
-        return (save ? cache(p.getName(), params, result) : result);
-    }
 
-    private String cache(String player, String params, String result) {
-        if (!cache.containsKey(player) || !cache.get(player).containsKey(params)) {
-            final Map<String, String> map = new HashMap<>();
-            map.put(params, result);
-            cache.put(player, map);
-            Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> cache.get(player).remove(params), plugin.getConfig().getInt("options.placeholder-cache-time", 10) * 20L);
-        }
-        return result;
+        return qPlayer -> {
+            final Category category = plugin.getQuestManager().getCategoryById(categoryId);
+            if (category == null) return categoryId + " is not a category";
+            return categoryResolver.apply(qPlayer, category);
+        };
     }
 
-    private String parseDate(String[] args, Long date) {
-        final String format = (args[args.length - 1].equals(args[1]) ? "dd/MM/yyyy" : args[args.length - 1]);
-        SimpleDateFormat sdf;
-        if (formats.containsKey(format)) {
-            sdf = formats.get(format);
-        } else {
-            sdf = new SimpleDateFormat(format);
-            formats.put(format, sdf);
+    /**
+     * @return a function giving the size of a list of quests if there is no list type at the index,
+     * otherwise a function joining their names or ids
+     */
+    private Function<List<Quest>, String> compileQuestList(String[] args, int index, String separator) {
+        if (args.length == index) {
+            return list -> String.valueOf(list.size());
         }
-        return sdf.format(date);
-    }
 
-    private String parseList(List<Quest> list, String type, String separator) {
-        final List<String> quests = new ArrayList<>();
+        final String type = args[index];
         switch (type.toLowerCase()) {
             case "list":
             case "l":
-                list.forEach(q -> quests.add(getQuestDisplayNameStripped(q)));
-                break;
+                return list -> {
+                    final List<String> quests = new ArrayList<>();
+                    list.forEach(q -> quests.add(getQuestDisplayNameStripped(q)));
+                    return String.join(separator, quests);
+                };
             case "listid":
             case "lid":
-                list.forEach(q -> quests.add(q.getId()));
-                break;
+                return list -> {
+                    final List<String> quests = new ArrayList<>();
+                    list.forEach(q -> quests.add(q.getId()));
+                    return String.join(separator, quests);
+                };
             default:
-                return type + "is not a valid placeholder";
+                return list -> type + "is not a valid placeholder";
         }
-        return String.join(separator, quests);
+    }
+
+    private static boolean isTimeDependent(String[] args) {
+        return args.length > 1 && (args[1].equalsIgnoreCase("cooldown") || args[1].equalsIgnoreCase("canaccept"));
+    }
+
+    private static Function<QPlayer, String> constant(String value) {
+        return qPlayer -> value;
+    }
+
+    private static SimpleDateFormat compileDateFormat(String[] args) {
+        return new SimpleDateFormat(args[args.length - 1].equals(args[1]) ? "dd/MM/yyyy" : args[args.length - 1]);
+    }
+
+    private static String parseDate(SimpleDateFormat format, long date) {
+        // placeholders may be requested asynchronously, and SimpleDateFormat is not thread safe
+        synchronized (format) {
+            return format.format(date);
+        }
+    }
+
+    private static String parseBoolean(boolean value) {
+        return value ? Messages.PLACEHOLDERAPI_TRUE.getMessageLegacyColor() : Messages.PLACEHOLDERAPI_FALSE.getMessageLegacyColor();
     }
 
     private String getQuestDisplayNameStripped(Quest quest) {
@@ -350,4 +432,14 @@ public class QuestsPlaceholders extends PlaceholderExpansion implements Cacheabl
         });
         return categoryQuests;
     }
+
+    /**
+     * @param resolver produces the value of the placeholder for a player
+     * @param progressOnly whether the value only changes with the quest progress of the player, so it can be
+     *                     cached until the progress changes
+     * @param save whether the value should be cached for the configured time regardless
+     */
+    private record CompiledPlaceholder(Function<QPlayer, String> resolver, boolean progressOnly, boolean save) { }
+
+    private record CachedResult(String value, int progressVersion, long expiresAt) { }
 }
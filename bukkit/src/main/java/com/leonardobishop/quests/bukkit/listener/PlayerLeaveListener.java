@@ -1,6 +1,7 @@
 package com.leonardobishop.quests.bukkit.listener;
 
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
+import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskTypeManager;
 import com.leonardobishop.quests.common.player.QPlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -22,6 +23,7 @@ public class PlayerLeaveListener implements Listener {
         Player player = event.getPlayer();
         plugin.getQuestsLogger().debug("PlayerLeaveListener: " + player.getUniqueId() + " (" + player.getName() + ")");
         plugin.getPlayerManager().removePlayer(qPlayer.getPlayerUUID());
+        ((BukkitTaskTypeManager) plugin.getTaskTypeManager()).removeDebugSubscriber(qPlayer.getPlayerUUID());
     }
 
 }
@@ -53,12 +53,16 @@ public class CancelQMenu extends QMenu {
         String title = Chat.legacyColor(config.getString("options.guinames.quest-cancel"));
         Inventory inventory = Bukkit.createInventory(null, 27, title);
 
+        resetDrawnSlots();
         for (int pointer = 0; pointer < 27; pointer++) {
-            if (menuElements.containsKey(pointer)) {
-                inventory.setItem(pointer, menuElements.get(pointer).asItemStack());
-            }
+            drawSlot(inventory, pointer, menuElements.get(pointer));
         }
 
         return inventory;
     }
+
+    @Override
+    int getInventorySize() {
+        return 27;
+    }
 }
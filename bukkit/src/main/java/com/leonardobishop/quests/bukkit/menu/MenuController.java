@@ -67,8 +67,11 @@ public class MenuController implements Listener {
             }
             SoundUtils.playSoundForPlayer(player, plugin.getQuestsConfig().getString("options.sounds.gui.interact"));
             if (result == ClickResult.REFRESH_PANE) {
-                player.openInventory(qMenu.draw());
-                tracker.put(player.getUniqueId(), qMenu);
+                // update the open inventory in place where possible, rather than sending a new window
+                if (!qMenu.refresh(event.getView().getTopInventory())) {
+                    player.openInventory(qMenu.draw());
+                    tracker.put(player.getUniqueId(), qMenu);
+                }
             } else if (result == ClickResult.CLOSE_MENU) {
                 player.closeInventory();
             }
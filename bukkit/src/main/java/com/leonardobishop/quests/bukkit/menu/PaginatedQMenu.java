@@ -169,39 +169,40 @@ public abstract class PaginatedQMenu extends QMenu {
 
     @Override
     public Inventory draw() {
+        Inventory inventory = Bukkit.createInventory(null, getInventorySize(), title);
+
+        resetDrawnSlots();
+        for (int slot = 0; slot < inventory.getSize(); slot++) {
+            drawSlot(inventory, slot, getMenuElementAt(slot));
+        }
+
+        return inventory;
+    }
+
+    @Override
+    int getInventorySize() {
+        if (!trim || currentPage != 1) {
+            return 54;
+        }
+
         int pageMin = pageSize * (currentPage - 1);
         int pageMax = pageSize * currentPage;
 
-        Inventory inventory = Bukkit.createInventory(null, 54, title);
-
         int highestOnPage = 0;
         for (int pointer = pageMin; pointer < pageMax; pointer++) {
             if (menuElements.containsKey(pointer)) {
-                inventory.setItem(pointer - ((currentPage - 1) * pageSize), menuElements.get(pointer).asItemStack());
                 if (pointer + 1 > highestOnPage) highestOnPage = pointer + 1;
             }
         }
 
-        if (trim && currentPage == 1) {
-            int inventorySize = highestOnPage + (9 - highestOnPage % 9) * Math.min(1, highestOnPage % 9);
-            inventorySize = inventorySize <= 0 ? 9 : inventorySize;
-            if (inventorySize == 54) {
-                return inventory;
-            }
-
-            Inventory trimmedInventory = Bukkit.createInventory(null, inventorySize, title);
-
-            for (int slot = 0; slot < trimmedInventory.getSize(); slot++) {
-                trimmedInventory.setItem(slot, inventory.getItem(slot));
-            }
-            return trimmedInventory;
-        }
-
-        return inventory;
+        int inventorySize = highestOnPage + (9 - highestOnPage % 9) * Math.min(1, highestOnPage % 9);
+        return inventorySize <= 0 ? 9 : inventorySize;
     }
 
     @Override
     public @Nullable MenuElement getMenuElementAt(int slot) {
+        if (slot >= pageSize) return null;
+
         int pageOffset = (currentPage - 1) * pageSize;
         return super.getMenuElementAt(slot + pageOffset);
     }
@@ -4,13 +4,23 @@ import com.carrotsearch.hppc.IntObjectHashMap;
 import com.leonardobishop.quests.bukkit.menu.element.MenuElement;
 import com.leonardobishop.quests.common.player.QPlayer;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 public abstract class QMenu {
 
+    private static final int MAX_SIZE = 54;
+
     protected final QPlayer owner;
     protected final IntObjectHashMap<MenuElement> menuElements = new IntObjectHashMap<>();
 
+    // the element and render state last drawn in each slot of the inventory
+    private final MenuElement[] drawnElements = new MenuElement[MAX_SIZE];
+    private final Object[] drawnStates = new Object[MAX_SIZE];
+
     public QMenu(QPlayer owner) {
         this.owner = owner;
     }
@@ -25,4 +35,62 @@ public abstract class QMenu {
 
     abstract Inventory draw();
 
+    /**
+     * @return the size of the inventory which would currently be drawn
+     */
+    abstract int getInventorySize();
+
+    /**
+     * Updates an inventory previously drawn by this menu in place. Only elements which have changed, or whose
+     * render state has changed, are rendered again, and only slots whose item stack differs are updated.
+     *
+     * @param inventory the inventory to update
+     * @return false if the inventory cannot be updated in place and must be drawn again
+     */
+    boolean refresh(Inventory inventory) {
+        if (inventory.getSize() != getInventorySize()) {
+            return false;
+        }
+
+        for (int slot = 0; slot < inventory.getSize(); slot++) {
+            drawSlot(inventory, slot, getMenuElementAt(slot));
+        }
+        return true;
+    }
+
+    /**
+     * Forgets what was drawn in each slot. This must be called before drawing a new inventory.
+     */
+    protected final void resetDrawnSlots() {
+        Arrays.fill(drawnElements, null);
+        Arrays.fill(drawnStates, null);
+    }
+
+    /**
+     * Renders an element into a slot of an inventory, unless the same element with the same render state
+     * was last drawn there.
+     */
+    protected final void drawSlot(Inventory inventory, int slot, @Nullable MenuElement menuElement) {
+        if (menuElement == null) {
+            if (drawnElements[slot] != null) {
+                inventory.setItem(slot, null);
+                drawnElements[slot] = null;
+                drawnStates[slot] = null;
+            }
+            return;
+        }
+
+        Object renderState = menuElement.getRenderState();
+        if (menuElement == drawnElements[slot] && renderState != null && renderState.equals(drawnStates[slot])) {
+            return;
+        }
+
+        ItemStack itemStack = menuElement.asItemStack();
+        if (!Objects.equals(itemStack, inventory.getItem(slot))) {
+            inventory.setItem(slot, itemStack);
+        }
+        drawnElements[slot] = menuElement;
+        drawnStates[slot] = renderState;
+    }
+
 }
@@ -3,11 +3,22 @@ package com.leonardobishop.quests.bukkit.menu.element;
 import com.leonardobishop.quests.bukkit.menu.ClickResult;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class MenuElement {
 
     public abstract ItemStack asItemStack();
 
+    /**
+     * Get a value which changes whenever the item stack of this element may change, so that a menu
+     * being refreshed can skip rendering this element again if it is unchanged.
+     *
+     * @return the render state, or null if this element should always be rendered again
+     */
+    public @Nullable Object getRenderState() {
+        return null;
+    }
+
     /**
      * Handle a click.
      *
@@ -122,11 +122,30 @@ public class QuestMenuElement extends MenuElement {
                 display = config.getItem("gui.quest-cooldown-display");
             }
         } else {
-            return MenuUtils.applyPlaceholders(plugin, owner.getPlayerUUID(), qItemStack.toItemStack(quest, owner, questProgress));
+            // placeholders, including PlaceholderAPI placeholders, have already been applied
+            return qItemStack.toItemStack(quest, owner, questProgress);
         }
         return MenuUtils.applyPlaceholders(plugin, owner.getPlayerUUID(), display, placeholders);
     }
 
+    /**
+     * The display of a quest depends on the progress of the player, which tracked quest they have, whether
+     * they can start it (which includes their permissions), and the remaining cooldown. If PlaceholderAPI is
+     * used, it may depend on anything.
+     */
+    @Override
+    public Object getRenderState() {
+        if (config.getBoolean("options.gui-use-placeholderapi")) {
+            return null;
+        }
+
+        long cooldown = owner.getQuestProgressFile().getCooldownFor(quest);
+        return new RenderState(owner.getQuestProgressFile().getProgressVersion(), owner.getPlayerPreferences().getTrackedQuestId(),
+                owner.canStartQuest(quest), cooldown > 0 ? TimeUnit.SECONDS.convert(cooldown, TimeUnit.MILLISECONDS) : 0);
+    }
+
+    private record RenderState(int progressVersion, String trackedQuestId, QuestStartResult startResult, long cooldownSeconds) { }
+
     @Override
     public ClickResult handleClick(ClickType clickType) {
         if (dummy) {
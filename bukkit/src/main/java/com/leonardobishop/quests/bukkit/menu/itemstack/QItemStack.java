@@ -1,10 +1,12 @@
 package com.leonardobishop.quests.bukkit.menu.itemstack;
 
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
+import com.leonardobishop.quests.bukkit.util.CompiledText;
 import com.leonardobishop.quests.bukkit.util.Messages;
 import com.leonardobishop.quests.bukkit.util.chat.Chat;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.QuestProgress;
+import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
 import org.bukkit.Bukkit;
 import org.bukkit.enchantments.Enchantment;
@@ -16,8 +18,6 @@ import org.bukkit.inventory.meta.ItemMeta;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class QItemStack {
 
@@ -26,23 +26,27 @@ public class QItemStack {
     private String name;
     private List<String> loreNormal;
     private List<String> loreStarted;
-    private final List<String> globalLoreAppendNormal;
-    private final List<String> globalLoreAppendNotStarted;
-    private final List<String> globalLoreAppendStarted;
-    private final List<String> globalLoreAppendTracked;
+    // lore is tokenized when it is set, so that placeholders do not have to be found on every render
+    private CompiledText compiledName;
+    private List<CompiledText> compiledLoreNormal;
+    private List<CompiledText> compiledLoreStarted;
+    private final List<CompiledText> globalLoreAppendNormal;
+    private final List<CompiledText> globalLoreAppendNotStarted;
+    private final List<CompiledText> globalLoreAppendStarted;
+    private final List<CompiledText> globalLoreAppendTracked;
     private ItemStack startingItemStack;
 
     public QItemStack(BukkitQuestsPlugin plugin, String name, List<String> loreNormal, List<String> loreStarted, ItemStack startingItemStack) {
         this.plugin = plugin;
-        this.name = name;
-        this.loreNormal = loreNormal;
-        this.loreStarted = loreStarted;
+        this.setName(name);
+        this.setLoreNormal(loreNormal);
+        this.setLoreStarted(loreStarted);
         this.startingItemStack = startingItemStack;
 
-        this.globalLoreAppendNormal = Chat.legacyColor(plugin.getQuestsConfig().getStringList("global-quest-display.lore.append-normal"));
-        this.globalLoreAppendNotStarted = Chat.legacyColor(plugin.getQuestsConfig().getStringList("global-quest-display.lore.append-not-started"));
-        this.globalLoreAppendStarted = Chat.legacyColor(plugin.getQuestsConfig().getStringList("global-quest-display.lore.append-started"));
-        this.globalLoreAppendTracked = Chat.legacyColor(plugin.getQuestsConfig().getStringList("global-quest-display.lore.append-tracked"));
+        this.globalLoreAppendNormal = CompiledText.compile(Chat.legacyColor(plugin.getQuestsConfig().getStringList("global-quest-display.lore.append-normal")));
+        this.globalLoreAppendNotStarted = CompiledText.compile(Chat.legacyColor(plugin.getQuestsConfig().getStringList("global-quest-display.lore.append-not-started")));
+        this.globalLoreAppendStarted = CompiledText.compile(Chat.legacyColor(plugin.getQuestsConfig().getStringList("global-quest-display.lore.append-started")));
+        this.globalLoreAppendTracked = CompiledText.compile(Chat.legacyColor(plugin.getQuestsConfig().getStringList("global-quest-display.lore.append-tracked")));
     }
 
     public String getName() {
@@ -51,6 +55,7 @@ public class QItemStack {
 
     public void setName(String name) {
         this.name = name;
+        this.compiledName = CompiledText.compile(name);
     }
 
     public List<String> getLoreNormal() {
@@ -59,6 +64,7 @@ public class QItemStack {
 
     public void setLoreNormal(List<String> loreNormal) {
         this.loreNormal = loreNormal;
+        this.compiledLoreNormal = CompiledText.compile(loreNormal);
     }
 
     public List<String> getLoreStarted() {
@@ -67,6 +73,7 @@ public class QItemStack {
 
     public void setLoreStarted(List<String> loreStarted) {
         this.loreStarted = loreStarted;
+        this.compiledLoreStarted = CompiledText.compile(loreStarted);
     }
 
     public ItemStack getStartingItemStack() {
@@ -83,10 +90,10 @@ public class QItemStack {
         ItemMeta ism = is.getItemMeta();
         ism.setDisplayName(name);
         List<String> formattedLore = new ArrayList<>();
-        List<String> tempLore = new ArrayList<>();
+        List<CompiledText> tempLore = new ArrayList<>();
 
         if (!plugin.getQuestsConfig().getBoolean("options.global-task-configuration-override") || globalLoreAppendNormal.isEmpty()) {
-            tempLore.addAll(loreNormal);
+            tempLore.addAll(compiledLoreNormal);
         }
         tempLore.addAll(globalLoreAppendNormal);
 
@@ -94,7 +101,7 @@ public class QItemStack {
         if (qPlayer.hasStartedQuest(quest)) {
             boolean tracked = quest.getId().equals(qPlayer.getPlayerPreferences().getTrackedQuestId());
             if (!plugin.getQuestsConfig().getBoolean("options.global-task-configuration-override")|| globalLoreAppendStarted.isEmpty()) {
-                tempLore.addAll(loreStarted);
+                tempLore.addAll(compiledLoreStarted);
             }
             if (tracked) {
                 tempLore.addAll(globalLoreAppendTracked);
@@ -109,13 +116,14 @@ public class QItemStack {
         } else {
             tempLore.addAll(globalLoreAppendNotStarted);
         }
-        if (plugin.getQuestsConfig().getBoolean("options.gui-use-placeholderapi")) {
+        boolean usePlaceholderAPI = plugin.getQuestsConfig().getBoolean("options.gui-use-placeholderapi");
+        if (usePlaceholderAPI && compiledName.hasPlaceholderAPIPlaceholders()) {
             ism.setDisplayName(plugin.getPlaceholderAPIProcessor().apply(player, ism.getDisplayName()));
         }
         if (questProgress != null) {
-            for (String s : tempLore) {
-                s = processPlaceholders(s, questProgress);
-                if (plugin.getQuestsConfig().getBoolean("options.gui-use-placeholderapi")) {
+            for (CompiledText line : tempLore) {
+                String s = processPlaceholders(line, questProgress);
+                if (usePlaceholderAPI && s.indexOf('%') != -1) {
                     s = plugin.getPlaceholderAPIProcessor().apply(player, s);
                 }
                 formattedLore.add(s);
@@ -127,35 +135,36 @@ public class QItemStack {
     }
 
     public static String processPlaceholders(String s, QuestProgress questProgress) {
-        Matcher m = Pattern.compile("\\{([^}]+)}").matcher(s);
-        while (m.find()) {
-            String[] parts = m.group(1).split(":");
+        return processPlaceholders(CompiledText.of(s), questProgress);
+    }
+
+    public static String processPlaceholders(CompiledText text, QuestProgress questProgress) {
+        return text.render(key -> {
+            String[] parts = key.split(":");
             if (parts.length > 1) {
-                if (questProgress.getTaskProgress(parts[0]) == null) {
-                    continue;
+                TaskProgress taskProgress = questProgress.getTaskProgress(parts[0]);
+                if (taskProgress == null) {
+                    return null;
                 }
                 if (parts[1].equals("progress")) {
-                    Object progress = questProgress.getTaskProgress(parts[0]).getProgress();
-                    String str;
-                    if (progress instanceof Float || progress instanceof Double || progress instanceof BigDecimal) {
-                        str = String.format("%.2f", progress);
+                    Object progress = taskProgress.getProgress();
+                    if (progress == null) {
+                        return String.valueOf(0);
+                    } else if (progress instanceof Float || progress instanceof Double || progress instanceof BigDecimal) {
+                        return String.format("%.2f", progress);
                     } else {
-                        str = String.valueOf(progress);
+                        return String.valueOf(progress);
                     }
-
-                    s = s.replace("{" + m.group(1) + "}", (progress == null ? String.valueOf(0) : str));
                 }
                 if (parts[1].equals("complete")) {
-                    String str;
-                    if (questProgress.getTaskProgress(parts[0]).isCompleted()) {
-                        str = Chat.legacyColor(Messages.UI_PLACEHOLDERS_TRUE.getMessageLegacyColor());
+                    if (taskProgress.isCompleted()) {
+                        return Chat.legacyColor(Messages.UI_PLACEHOLDERS_TRUE.getMessageLegacyColor());
                     } else {
-                        str = Chat.legacyColor(Messages.UI_PLACEHOLDERS_FALSE.getMessageLegacyColor());
+                        return Chat.legacyColor(Messages.UI_PLACEHOLDERS_FALSE.getMessageLegacyColor());
                     }
-                    s = s.replace("{" + m.group(1) + "}", str);
                 }
             }
-        }
-        return s;
+            return null;
+        });
     }
 }
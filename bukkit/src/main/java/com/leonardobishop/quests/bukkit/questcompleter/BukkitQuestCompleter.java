@@ -14,25 +14,49 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 //TODO move complete effects here ?
 public class BukkitQuestCompleter implements QuestCompleter, Runnable {
 
-    private final LinkedList<QuestProgress> completionQueue = new LinkedList<>();
-    private final LinkedList<QuestProgressFile> fullCheckQueue = new LinkedList<>();
-    private final LinkedList<UUID> expiredCheckQueue = new LinkedList<>();
+    // set-backed queues, so that progress queued again before it has been processed is only checked once
+    private final Set<QuestProgress> completionQueue = new LinkedHashSet<>();
+    private final Set<QuestProgressFile> fullCheckQueue = new LinkedHashSet<>();
+    // ordered by deadline, entries for quests which have since been completed, cancelled or restarted are discarded when polled
+    private final PriorityQueue<TimeLimitEntry> timeLimitQueue = new PriorityQueue<>(Comparator.comparingLong(TimeLimitEntry::deadline));
+    // entries in the time limit queue, so that quests checked again on rejoin are not queued twice
+    private final Set<TimeLimitEntry> queuedTimeLimits = new HashSet<>();
     private final BukkitQuestsPlugin plugin;
     private int expiredQuestsCheckCountdown;
+    private long lastDrainTime;
+    private int lastDrainCount;
 
     public BukkitQuestCompleter(BukkitQuestsPlugin plugin) {
         this.plugin = plugin;
     }
 
+    /**
+     * Expires the quests whose time limit has run out, then processes as many entries from the completion
+     * and full check queues as fit in the configured time budget. At least one entry of each is processed per run.
+     */
     @Override
     public void run() {
-        this.processExpiredCheckQueue();
-        this.processCompletionQueue();
-        this.processFullCheckQueue();
+        long start = System.nanoTime();
+        long deadline = start + plugin.getQuestsConfig().getInt("options.performance-tweaking.quest-queue-executor-budget", 2) * 1_000_000L;
+        int drained = 0;
+
+        this.processTimeLimitQueue();
+        do {
+            if (!this.processCompletionQueue()) break;
+            drained++;
+        } while (System.nanoTime() - deadline < 0);
+        do {
+            if (!this.processFullCheckQueue()) break;
+            drained++;
+        } while (System.nanoTime() - deadline < 0);
+
+        lastDrainTime = System.nanoTime() - start;
+        lastDrainCount = drained;
     }
 
     private void checkExpiredQuests(QPlayer qPlayer) {
@@ -53,58 +77,75 @@ public class BukkitQuestCompleter implements QuestCompleter, Runnable {
         }
     }
 
-    private void processExpiredCheckQueue() {
-        UUID who = expiredCheckQueue.poll();
-        if (who == null) {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                expiredCheckQueue.add(player.getUniqueId());
-            }
-            return;
-        }
+    private void processTimeLimitQueue() {
+        long now = System.currentTimeMillis();
+        TimeLimitEntry entry;
+        while ((entry = timeLimitQueue.peek()) != null && entry.deadline() <= now) {
+            timeLimitQueue.poll();
+            queuedTimeLimits.remove(entry);
+
+            Player player = Bukkit.getPlayer(entry.player());
+            if (player == null || !player.isOnline()) continue;
 
-        Player player = Bukkit.getPlayer(who);
-        if (player == null || !player.isOnline()) return;
+            QPlayer qPlayer = plugin.getPlayerManager().getPlayer(entry.player());
+            Quest quest = plugin.getQuestManager().getQuestById(entry.questId());
+            if (qPlayer == null || quest == null) continue;
 
-        QPlayer qPlayer = plugin.getPlayerManager().getPlayer(player.getUniqueId());
-        if (qPlayer == null) return;
+            QuestProgressFile questProgressFile = qPlayer.getQuestProgressFile();
+            if (!questProgressFile.hasQuestStarted(quest)) continue;
+            if (questProgressFile.getQuestProgress(quest).getStartedDate() != entry.startedDate()) continue;
 
-        checkExpiredQuests(qPlayer);
+            if (questProgressFile.getTimeRemainingFor(quest) == 0) {
+                qPlayer.expireQuest(quest);
+            }
+        }
     }
 
-    private void processCompletionQueue() {
-        QuestProgress questProgress = completionQueue.poll();
-        if (questProgress == null) return;
+    /**
+     * @return false if the queue was empty
+     */
+    private boolean processCompletionQueue() {
+        QuestProgress questProgress = poll(completionQueue);
+        if (questProgress == null) return false;
 
         Player player = Bukkit.getPlayer(questProgress.getPlayer());
         if (player != null && player.isOnline()) {
             QPlayer qPlayer = plugin.getPlayerManager().getPlayer(player.getUniqueId());
-            if (qPlayer == null) return;
+            if (qPlayer == null) return true;
 
             plugin.getQuestsLogger().debug("Processing player (singular: " + questProgress.getQuestId() + ") " + qPlayer.getPlayerUUID());
 
-            checkExpiredQuests(qPlayer);
-
             Quest quest = plugin.getQuestManager().getQuestById(questProgress.getQuestId());
 
-            if (!qPlayer.hasStartedQuest(quest)) return;
+            if (!qPlayer.hasStartedQuest(quest)) return true;
+
+            if (qPlayer.getQuestProgressFile().getTimeRemainingFor(quest) == 0) {
+                qPlayer.expireQuest(quest);
+                return true;
+            }
 
             if (checkComplete(quest, questProgress)) {
                 qPlayer.completeQuest(quest);
             }
         }
+        return true;
     }
 
-    private void processFullCheckQueue() {
-        QuestProgressFile questProgressFile = fullCheckQueue.poll();
-        if (questProgressFile == null) return;
+    /**
+     * @return false if the queue was empty
+     */
+    private boolean processFullCheckQueue() {
+        QuestProgressFile questProgressFile = poll(fullCheckQueue);
+        if (questProgressFile == null) return false;
 
         Player player = Bukkit.getPlayer(questProgressFile.getPlayerUUID());
         if (player != null && player.isOnline()) {
             QPlayer qPlayer = plugin.getPlayerManager().getPlayer(player.getUniqueId());
-            if (qPlayer == null) return;
+            if (qPlayer == null) return true;
             plugin.getQuestsLogger().debug("Processing player (full check) " + qPlayer.getPlayerUUID());
 
             checkExpiredQuests(qPlayer);
+            queueTimeLimits(qPlayer);
 
             for (QuestProgress questProgress : questProgressFile.getAllQuestProgress()) {
                 Quest quest = plugin.getQuestManager().getQuestById(questProgress.getQuestId());
@@ -116,13 +157,23 @@ public class BukkitQuestCompleter implements QuestCompleter, Runnable {
                 }
             }
         }
+        return true;
+    }
+
+    private static <E> E poll(Set<E> queue) {
+        Iterator<E> iterator = queue.iterator();
+        if (!iterator.hasNext()) return null;
+
+        E element = iterator.next();
+        iterator.remove();
+        return element;
     }
 
     private boolean checkComplete(Quest quest, QuestProgress questProgress) {
         boolean complete = true;
         for (Task task : quest.getTasks()) {
             TaskProgress taskProgress;
-            if ((taskProgress = questProgress.getTaskProgress(task.getId())) == null || !taskProgress.isCompleted()) {
+            if ((taskProgress = questProgress.getTaskProgress(task)) == null || !taskProgress.isCompleted()) {
                 complete = false;
                 break;
             }
@@ -145,15 +196,70 @@ public class BukkitQuestCompleter implements QuestCompleter, Runnable {
         fullCheckQueue.add(questProgressFile);
     }
 
-    public List<QuestProgress> getCompletionQueue() {
-        return Collections.unmodifiableList(completionQueue);
+    @Override
+    public void queueTimeLimit(@NotNull QuestProgress questProgress) {
+        Objects.requireNonNull(questProgress, "questProgress cannot be null");
+
+        if (!questProgress.isStarted()) return;
+        Quest quest = plugin.getQuestManager().getQuestById(questProgress.getQuestId());
+        if (quest == null || !quest.isTimeLimitEnabled()) return;
+
+        long deadline = questProgress.getStartedDate() + TimeUnit.MILLISECONDS.convert(quest.getTimeLimit(), TimeUnit.MINUTES);
+        TimeLimitEntry entry = new TimeLimitEntry(deadline, questProgress.getPlayer(), quest.getId(), questProgress.getStartedDate());
+        if (queuedTimeLimits.add(entry)) {
+            timeLimitQueue.add(entry);
+        }
+    }
+
+    /**
+     * Queues a check for the time limit of each quest a player has started.
+     *
+     * @param qPlayer the player
+     */
+    public void queueTimeLimits(@NotNull QPlayer qPlayer) {
+        Objects.requireNonNull(qPlayer, "qPlayer cannot be null");
+
+        for (QuestProgress questProgress : qPlayer.getQuestProgressFile().getAllQuestProgress()) {
+            queueTimeLimit(questProgress);
+        }
+    }
+
+    /**
+     * Clears all queued time limit checks, for example when the time limits of quests may have changed.
+     */
+    public void clearTimeLimits() {
+        timeLimitQueue.clear();
+        queuedTimeLimits.clear();
+    }
+
+    public Collection<QuestProgress> getCompletionQueue() {
+        return Collections.unmodifiableCollection(completionQueue);
+    }
+
+    public Collection<QuestProgressFile> getFullCheckQueue() {
+        return Collections.unmodifiableCollection(fullCheckQueue);
+    }
+
+    public Collection<TimeLimitEntry> getTimeLimitQueue() {
+        return Collections.unmodifiableCollection(timeLimitQueue);
     }
 
-    public List<QuestProgressFile> getFullCheckQueue() {
-        return Collections.unmodifiableList(fullCheckQueue);
+    /**
+     * @return the time taken by the most recent run, in nanoseconds
+     */
+    public long getLastDrainTime() {
+        return lastDrainTime;
     }
 
-    public List<UUID> getExpiredCheckQueue() {
-        return Collections.unmodifiableList(expiredCheckQueue);
+    /**
+     * @return the number of completion and full check queue entries processed by the most recent run
+     */
+    public int getLastDrainCount() {
+        return lastDrainCount;
     }
+
+    /**
+     * A queued check for the time limit of a quest, which is only valid while the quest has the same started date.
+     */
+    public record TimeLimitEntry(long deadline, UUID player, String questId, long startedDate) { }
 }
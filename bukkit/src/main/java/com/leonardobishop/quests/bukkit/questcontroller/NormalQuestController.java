@@ -96,6 +96,7 @@ public class NormalQuestController implements QuestController {
             QuestProgress questProgress = qPlayer.getQuestProgressFile().getQuestProgress(quest);
             questProgress.setStarted(true);
             questProgress.setStartedDate(System.currentTimeMillis());
+            plugin.getQuestCompleter().queueTimeLimit(questProgress);
             for (TaskProgress taskProgress : questProgress.getTaskProgress()) {
                 taskProgress.setCompleted(false);
                 taskProgress.setProgress(null);
@@ -104,6 +105,7 @@ public class NormalQuestController implements QuestController {
                 qPlayer.trackQuest(quest);
             }
             questProgress.setCompleted(false);
+            qPlayer.updatePendingTasks(quest);
             if (player != null) {
                 QItemStack qItemStack = plugin.getQItemStackRegistry().getQuestItemStack(quest);
                 String displayName = Chat.legacyStrip(qItemStack.getName());
@@ -146,21 +148,12 @@ public class NormalQuestController implements QuestController {
 
     @Override
     public QuestStartResult canPlayerStartQuest(QPlayer qPlayer, Quest quest) {
+        QuestStartResult progressResult = getProgressStartResult(qPlayer, quest);
+        if (progressResult != QuestStartResult.QUEST_SUCCESS) {
+            return progressResult;
+        }
         Player p = Bukkit.getPlayer(qPlayer.getPlayerUUID());
         QuestProgress questProgress = qPlayer.getQuestProgressFile().getQuestProgress(quest);
-        if (!quest.isRepeatable() && questProgress.isCompletedBefore()) {
-            //if (playerUUID != null) {
-            // ???
-            //}
-            return QuestStartResult.QUEST_ALREADY_COMPLETED;
-        }
-        long cooldown = qPlayer.getQuestProgressFile().getCooldownFor(quest);
-        if (cooldown > 0) {
-            return QuestStartResult.QUEST_COOLDOWN;
-        }
-        if (!qPlayer.getQuestProgressFile().hasMetRequirements(quest)) {
-            return QuestStartResult.QUEST_LOCKED;
-        }
         if (quest.isPermissionRequired()) {
             if (p != null) {
                 if (!p.hasPermission("quests.quest." + quest.getId())) {
@@ -198,9 +191,43 @@ public class NormalQuestController implements QuestController {
         return QuestStartResult.QUEST_SUCCESS;
     }
 
+    /**
+     * Gets the part of the start result which depends only on the players progress file, which is
+     * cached until the progress file changes or the cooldown ends. Permissions are not cached, as they
+     * may change at any time without notice.
+     *
+     * @return the start result, or {@code QuestStartResult.QUEST_SUCCESS} if the player may proceed
+     */
+    private QuestStartResult getProgressStartResult(QPlayer qPlayer, Quest quest) {
+        QuestStartResult cachedResult = qPlayer.getCachedStartResult(quest);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
+        QuestStartResult result = QuestStartResult.QUEST_SUCCESS;
+        long expiry = Long.MAX_VALUE;
+        QuestProgress questProgress = qPlayer.getQuestProgressFile().getQuestProgress(quest);
+        long cooldown;
+        if (!quest.isRepeatable() && questProgress.isCompletedBefore()) {
+            //if (playerUUID != null) {
+            // ???
+            //}
+            result = QuestStartResult.QUEST_ALREADY_COMPLETED;
+        } else if ((cooldown = qPlayer.getQuestProgressFile().getCooldownFor(quest)) > 0) {
+            result = QuestStartResult.QUEST_COOLDOWN;
+            expiry = System.currentTimeMillis() + cooldown;
+        } else if (!qPlayer.getQuestProgressFile().hasMetRequirements(quest)) {
+            result = QuestStartResult.QUEST_LOCKED;
+        }
+        qPlayer.cacheStartResult(quest, result, expiry);
+        return result;
+    }
+
     @Override
     public boolean completeQuestForPlayer(QPlayer qPlayer, Quest quest) {
         QuestProgress questProgress = qPlayer.getQuestProgressFile().getQuestProgress(quest);
+        // begins tracking which quests are unlocked, if it has not already, so that completing this quest is noticed
+        qPlayer.getQuestProgressFile().hasMetRequirements(quest);
         questProgress.setStarted(false);
         questProgress.setStartedDate(System.currentTimeMillis());
         for (TaskProgress taskProgress : questProgress.getTaskProgress()) {
@@ -210,6 +237,11 @@ public class NormalQuestController implements QuestController {
         questProgress.setCompleted(true);
         questProgress.setCompletedBefore(true);
         questProgress.setCompletionDate(System.currentTimeMillis());
+        qPlayer.updatePendingTasks(quest);
+        List<Quest> unlockedQuests = qPlayer.getQuestProgressFile().pollNewlyUnlockedQuests();
+        for (Quest unlockedQuest : unlockedQuests) {
+            plugin.getQuestsLogger().debug("Quest '" + unlockedQuest.getId() + "' unlocked for player " + qPlayer.getPlayerUUID() + " by completing '" + quest.getId() + "'");
+        }
         if (config.getBoolean("options.allow-quest-track")) {
             trackNextQuest(qPlayer, quest);
         }
@@ -222,6 +254,11 @@ public class NormalQuestController implements QuestController {
             PlayerFinishQuestEvent questFinishEvent = new PlayerFinishQuestEvent(player, qPlayer, questProgress, questFinishMessage);
             Bukkit.getPluginManager().callEvent(questFinishEvent);
             // PlayerFinishQuestEvent -- end
+            // PlayerUnlockQuestEvent -- start
+            for (Quest unlockedQuest : unlockedQuests) {
+                Bukkit.getPluginManager().callEvent(new PlayerUnlockQuestEvent(player, qPlayer, unlockedQuest, quest));
+            }
+            // PlayerUnlockQuestEvent -- end
             Bukkit.getServer().getScheduler().runTask(plugin, () -> {
                 for (String s : quest.getRewards()) {
                     s = s.replace("{player}", player.getName());
@@ -250,11 +287,16 @@ public class NormalQuestController implements QuestController {
 
     @Override
     public boolean hasPlayerStartedQuest(QPlayer qPlayer, Quest quest) {
-        return config.getBoolean("options.quest-autostart") || quest.isAutoStartEnabled()
+        return isQuestAutoStarted(quest)
                 ? canPlayerStartQuest(qPlayer, quest).hasPlayerStartedQuest()
                 : qPlayer.getQuestProgressFile().hasQuestStarted(quest);
     }
 
+    @Override
+    public boolean isQuestAutoStarted(Quest quest) {
+        return config.getBoolean("options.quest-autostart") || quest.isAutoStartEnabled();
+    }
+
     private void resetQuest(QuestProgress questProgress) {
         questProgress.setStarted(false);
         questProgress.setStartedDate(System.currentTimeMillis());
@@ -278,7 +320,8 @@ public class NormalQuestController implements QuestController {
             Messages.QUEST_CANCEL_NOTCANCELLABLE.send(player);
             return false;
         }
-       resetQuest(questProgress);
+        resetQuest(questProgress);
+        qPlayer.updatePendingTasks(quest);
         if (player != null) {
             QItemStack qItemStack = plugin.getQItemStackRegistry().getQuestItemStack(quest);
             String displayName = Chat.legacyStrip(qItemStack.getName());
@@ -306,6 +349,7 @@ public class NormalQuestController implements QuestController {
             return false;
         }
         resetQuest(questProgress);
+        qPlayer.updatePendingTasks(quest);
         if (player != null) {
             QItemStack qItemStack = plugin.getQItemStackRegistry().getQuestItemStack(quest);
             String displayName = Chat.legacyStrip(qItemStack.getName());
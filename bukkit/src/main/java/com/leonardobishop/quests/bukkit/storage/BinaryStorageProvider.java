@@ -0,0 +1,488 @@
+package com.leonardobishop.quests.bukkit.storage;
+
+import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
+import com.leonardobishop.quests.common.player.questprogressfile.QuestProgress;
+import com.leonardobishop.quests.common.player.questprogressfile.QuestProgressFile;
+import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
+import com.leonardobishop.quests.common.quest.Quest;
+import com.leonardobishop.quests.common.storage.StorageProvider;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Stores each player in a compact binary file in the playerdata directory.
+ * <p>
+ * A file consists of a header (magic and format version), a table of the quest and task ids used in the file,
+ * and then each quest progress with its task progress, referring to ids by their index in the table.
+ * Progress values are stored with a type tag so they are read back as the same type they were written as.
+ * <p>
+ * Players who only have a YAML file are imported the first time they are loaded. The records of loaded players are
+ * kept in memory until they are unloaded, so that saving only has to write the file.
+ */
+public class BinaryStorageProvider implements StorageProvider {
+
+    private static final int MAGIC = 0x51505246; // "QPRF"
+    private static final int FORMAT_VERSION = 1;
+    private static final String EXTENSION = ".dat";
+
+    private static final int FLAG_STARTED = 1;
+    private static final int FLAG_COMPLETED = 1 << 1;
+    private static final int FLAG_COMPLETED_BEFORE = 1 << 2;
+    private static final int FLAG_TASK_COMPLETED = 1;
+
+    private static final int TYPE_NULL = 0;
+    private static final int TYPE_INT = 1;
+    private static final int TYPE_LONG = 2;
+    private static final int TYPE_FLOAT = 3;
+    private static final int TYPE_DOUBLE = 4;
+    private static final int TYPE_BIG_DECIMAL = 5;
+
+    private final Map<UUID, ReentrantLock> locks = new ConcurrentHashMap<>();
+    // records of loaded players, kept so that saves do not have to read the file again
+    private final Map<UUID, Map<String, QuestRecord>> records = new ConcurrentHashMap<>();
+    private final BukkitQuestsPlugin plugin;
+
+    public BinaryStorageProvider(BukkitQuestsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    private ReentrantLock lock(UUID uuid) {
+        locks.putIfAbsent(uuid, new ReentrantLock());
+        ReentrantLock lock = locks.get(uuid);
+        lock.lock();
+        return lock;
+    }
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public void init() {
+        getDirectory().mkdirs();
+    }
+
+    @Override
+    public void shutdown() {
+        // no impl
+    }
+
+    @Override
+    public @Nullable QuestProgressFile loadProgressFile(@NotNull UUID uuid) {
+        Objects.requireNonNull(uuid, "uuid cannot be null");
+
+        return loadProgressFile(uuid, true);
+    }
+
+    private @Nullable QuestProgressFile loadProgressFile(UUID uuid, boolean cacheRecords) {
+        ReentrantLock lock = lock(uuid);
+        Map<String, Quest> presentQuests = new HashMap<>(plugin.getQuestManager().getQuests());
+        boolean validateQuests = plugin.getQuestsConfig().getBoolean("options.verify-quest-exists-on-load", true);
+
+        QuestProgressFile questProgressFile = new QuestProgressFile(uuid, plugin);
+        try {
+            Map<String, QuestRecord> records = readRecords(uuid);
+            if (records == null) {
+                records = importYaml(uuid);
+            }
+            if (records == null) {
+                plugin.getQuestsLogger().debug("Player " + uuid + " does not have a quest progress file.");
+                if (cacheRecords) {
+                    this.records.put(uuid, new LinkedHashMap<>());
+                }
+                return questProgressFile;
+            }
+            if (cacheRecords) {
+                this.records.put(uuid, records);
+            }
+
+            for (QuestRecord record : records.values()) {
+                if (validateQuests && !presentQuests.containsKey(record.questId)) continue;
+
+                QuestProgress questProgress = new QuestProgress(plugin, record.questId, record.completed, record.completedBefore,
+                        record.completionDate, uuid, record.started, record.startedDate);
+                for (TaskRecord taskRecord : record.tasks.values()) {
+                    if (validateQuests && presentQuests.get(record.questId).getTaskById(taskRecord.taskId()) == null) continue;
+
+                    questProgress.addTaskProgress(new TaskProgress(questProgress, taskRecord.taskId(), taskRecord.progress(), uuid, taskRecord.completed()));
+                }
+                questProgressFile.addQuestProgress(questProgress);
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+
+        return questProgressFile;
+    }
+
+    /**
+     * Saves the modified quest progress in the file, merging it with the quest progress already stored for the player.
+     */
+    @Override
+    public boolean saveProgressFile(@NotNull UUID uuid, @NotNull QuestProgressFile questProgressFile) {
+        Objects.requireNonNull(uuid, "uuid cannot be null");
+        Objects.requireNonNull(questProgressFile, "questProgressFile cannot be null");
+
+        ReentrantLock lock = lock(uuid);
+        try {
+            // players who are not loaded, such as when migrating, have to be read from the file
+            Map<String, QuestRecord> records = this.records.get(uuid);
+            if (records == null) {
+                records = readRecords(uuid);
+            }
+            if (records == null) {
+                records = new LinkedHashMap<>();
+            }
+
+            boolean changed = false;
+            for (QuestProgress questProgress : new ArrayList<>(questProgressFile.getAllQuestProgress())) {
+                if (!questProgress.isModified()) continue;
+
+                QuestRecord record = records.computeIfAbsent(questProgress.getQuestId(), QuestRecord::new);
+                record.started = questProgress.isStarted();
+                record.startedDate = questProgress.getStartedDate();
+                record.completed = questProgress.isCompleted();
+                record.completedBefore = questProgress.isCompletedBefore();
+                record.completionDate = questProgress.getCompletionDate();
+                for (TaskProgress taskProgress : questProgress.getTaskProgress()) {
+                    Object progress = taskProgress.getProgress();
+                    if (getType(progress) < 0) {
+                        plugin.getQuestsLogger().warning("Cannot store progress for task '"
+                                + taskProgress.getTaskId() + "' in quest '" + questProgress.getQuestId() + "' for player " + uuid
+                                + " since type " + progress.getClass().getName() + " cannot be encoded!");
+                        continue;
+                    }
+                    record.tasks.put(taskProgress.getTaskId(), new TaskRecord(taskProgress.getTaskId(), taskProgress.isCompleted(), progress));
+                }
+                changed = true;
+            }
+            if (!changed) {
+                return true;
+            }
+
+            plugin.getQuestsLogger().debug("Writing player " + uuid + " to disk.");
+            writeRecords(uuid, records);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void unloadProgressFile(@NotNull UUID uuid) {
+        Objects.requireNonNull(uuid, "uuid cannot be null");
+
+        ReentrantLock lock = lock(uuid);
+        try {
+            records.remove(uuid);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public @NotNull List<QuestProgressFile> loadAllProgressFiles() {
+        List<QuestProgressFile> files = new ArrayList<>();
+        loadAllProgressFiles(files::add);
+        return files;
+    }
+
+    @Override
+    public void loadAllProgressFiles(@NotNull Consumer<QuestProgressFile> consumer) {
+        Objects.requireNonNull(consumer, "consumer cannot be null");
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(getDirectory().toPath(), "*" + EXTENSION)) {
+            for (Path path : stream) {
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(path.getFileName().toString().replace(EXTENSION, ""));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+
+                QuestProgressFile file = loadProgressFile(uuid, false);
+                if (file != null) {
+                    consumer.accept(file);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void saveAllProgressFiles(List<QuestProgressFile> files) {
+        for (QuestProgressFile file : files) {
+            saveProgressFile(file.getPlayerUUID(), file);
+        }
+    }
+
+    @Override
+    public boolean isSimilar(StorageProvider provider) {
+        return provider instanceof BinaryStorageProvider;
+    }
+
+    private File getDirectory() {
+        return new File(plugin.getDataFolder() + File.separator + "playerdata");
+    }
+
+    private Path getPath(UUID uuid) {
+        return getDirectory().toPath().resolve(uuid + EXTENSION);
+    }
+
+    /**
+     * Reads every record stored for a player, without validating them against the loaded quests.
+     *
+     * @return the records by quest id, or null if the player does not have a file
+     */
+    private @Nullable Map<String, QuestRecord> readRecords(UUID uuid) throws IOException {
+        Path path = getPath(uuid);
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("File for player " + uuid + " is not a quest progress file");
+            }
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("File for player " + uuid + " has unsupported format version " + version);
+            }
+
+            String[] ids = new String[readVarInt(in)];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = in.readUTF();
+            }
+
+            int questCount = readVarInt(in);
+            Map<String, QuestRecord> records = new LinkedHashMap<>(questCount * 2);
+            for (int i = 0; i < questCount; i++) {
+                QuestRecord record = new QuestRecord(ids[readVarInt(in)]);
+                int flags = in.readUnsignedByte();
+                record.started = (flags & FLAG_STARTED) != 0;
+                record.completed = (flags & FLAG_COMPLETED) != 0;
+                record.completedBefore = (flags & FLAG_COMPLETED_BEFORE) != 0;
+                record.startedDate = in.readLong();
+                record.completionDate = in.readLong();
+
+                int taskCount = readVarInt(in);
+                for (int j = 0; j < taskCount; j++) {
+                    String taskId = ids[readVarInt(in)];
+                    boolean completed = (in.readUnsignedByte() & FLAG_TASK_COMPLETED) != 0;
+                    Object progress = readProgress(in);
+                    record.tasks.put(taskId, new TaskRecord(taskId, completed, progress));
+                }
+                records.put(record.questId, record);
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Writes the records of a player to a temporary file and moves it over the existing file, so that
+     * the existing file is left intact if writing fails.
+     */
+    private void writeRecords(UUID uuid, Map<String, QuestRecord> records) throws IOException {
+        Map<String, Integer> idIndexes = new LinkedHashMap<>();
+        for (QuestRecord record : records.values()) {
+            idIndexes.putIfAbsent(record.questId, idIndexes.size());
+            for (String taskId : record.tasks.keySet()) {
+                idIndexes.putIfAbsent(taskId, idIndexes.size());
+            }
+        }
+
+        File directory = getDirectory();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        Path path = getPath(uuid);
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+
+            writeVarInt(out, idIndexes.size());
+            for (String id : idIndexes.keySet()) {
+                out.writeUTF(id);
+            }
+
+            writeVarInt(out, records.size());
+            for (QuestRecord record : records.values()) {
+                writeVarInt(out, idIndexes.get(record.questId));
+                int flags = 0;
+                if (record.started) flags |= FLAG_STARTED;
+                if (record.completed) flags |= FLAG_COMPLETED;
+                if (record.completedBefore) flags |= FLAG_COMPLETED_BEFORE;
+                out.writeByte(flags);
+                out.writeLong(record.startedDate);
+                out.writeLong(record.completionDate);
+
+                writeVarInt(out, record.tasks.size());
+                for (TaskRecord taskRecord : record.tasks.values()) {
+                    writeVarInt(out, idIndexes.get(taskRecord.taskId()));
+                    out.writeByte(taskRecord.completed() ? FLAG_TASK_COMPLETED : 0);
+                    writeProgress(out, taskRecord.progress());
+                }
+            }
+        }
+
+        try {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads the YAML file of a player, if they have one, and writes it in the binary format.
+     *
+     * @return the imported records by quest id, or null if the player does not have a YAML file
+     */
+    private @Nullable Map<String, QuestRecord> importYaml(UUID uuid) throws IOException {
+        File file = new File(getDirectory(), uuid + ".yml");
+        if (!file.exists()) {
+            return null;
+        }
+
+        YamlConfiguration data = YamlConfiguration.loadConfiguration(file);
+        Map<String, QuestRecord> records = new LinkedHashMap<>();
+        ConfigurationSection questSection = data.getConfigurationSection("quest-progress");
+        if (questSection != null) {
+            for (String questId : questSection.getKeys(false)) {
+                QuestRecord record = new QuestRecord(questId);
+                record.started = questSection.getBoolean(questId + ".started");
+                record.startedDate = questSection.getLong(questId + ".started-date");
+                record.completed = questSection.getBoolean(questId + ".completed");
+                record.completedBefore = questSection.getBoolean(questId + ".completed-before");
+                record.completionDate = questSection.getLong(questId + ".completion-date");
+
+                ConfigurationSection taskSection = questSection.getConfigurationSection(questId + ".task-progress");
+                if (taskSection != null) {
+                    for (String taskId : taskSection.getKeys(false)) {
+                        boolean completed = taskSection.getBoolean(taskId + ".completed");
+                        Object progress = taskSection.get(taskId + ".progress");
+                        if (getType(progress) < 0) {
+                            plugin.getQuestsLogger().warning("Cannot import progress for task '"
+                                    + taskId + "' in quest '" + questId + "' for player " + uuid
+                                    + " since type " + progress.getClass().getName() + " cannot be encoded!");
+                            continue;
+                        }
+                        record.tasks.put(taskId, new TaskRecord(taskId, completed, progress));
+                    }
+                }
+                records.put(questId, record);
+            }
+        }
+
+        writeRecords(uuid, records);
+        plugin.getQuestsLogger().debug("Imported YAML quest progress file for player " + uuid + ".");
+        return records;
+    }
+
+    private static int getType(Object progress) {
+        if (progress == null) {
+            return TYPE_NULL;
+        } else if (progress instanceof Integer) {
+            return TYPE_INT;
+        } else if (progress instanceof Long) {
+            return TYPE_LONG;
+        } else if (progress instanceof Float) {
+            return TYPE_FLOAT;
+        } else if (progress instanceof Double) {
+            return TYPE_DOUBLE;
+        } else if (progress instanceof BigDecimal) {
+            return TYPE_BIG_DECIMAL;
+        }
+        return -1;
+    }
+
+    private static void writeProgress(DataOutputStream out, Object progress) throws IOException {
+        int type = getType(progress);
+        out.writeByte(type);
+        switch (type) {
+            case TYPE_INT -> out.writeInt((Integer) progress);
+            case TYPE_LONG -> out.writeLong((Long) progress);
+            case TYPE_FLOAT -> out.writeFloat((Float) progress);
+            case TYPE_DOUBLE -> out.writeDouble((Double) progress);
+            case TYPE_BIG_DECIMAL -> {
+                BigDecimal bigDecimal = (BigDecimal) progress;
+                byte[] unscaledValue = bigDecimal.unscaledValue().toByteArray();
+                writeVarInt(out, unscaledValue.length);
+                out.write(unscaledValue);
+                out.writeInt(bigDecimal.scale());
+            }
+        }
+    }
+
+    private static Object readProgress(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        return switch (type) {
+            case TYPE_NULL -> null;
+            case TYPE_INT -> in.readInt();
+            case TYPE_LONG -> in.readLong();
+            case TYPE_FLOAT -> in.readFloat();
+            case TYPE_DOUBLE -> in.readDouble();
+            case TYPE_BIG_DECIMAL -> {
+                byte[] unscaledValue = new byte[readVarInt(in)];
+                in.readFully(unscaledValue);
+                yield new BigDecimal(new BigInteger(unscaledValue), in.readInt());
+            }
+            default -> throw new IOException("Unknown progress type " + type);
+        };
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+
+    private static class QuestRecord {
+        private final String questId;
+        private final Map<String, TaskRecord> tasks = new LinkedHashMap<>();
+        private boolean started;
+        private long startedDate;
+        private boolean completed;
+        private boolean completedBefore;
+        private long completionDate;
+
+        private QuestRecord(String questId) {
+            this.questId = questId;
+        }
+    }
+
+    private record TaskRecord(String taskId, boolean completed, Object progress) { }
+}
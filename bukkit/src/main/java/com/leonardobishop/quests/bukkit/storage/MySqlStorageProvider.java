@@ -16,6 +16,7 @@ import org.jetbrains.annotations.Nullable;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class MySqlStorageProvider implements StorageProvider {
@@ -48,16 +49,19 @@ public class MySqlStorageProvider implements StorageProvider {
             "SELECT quest_id, started, started_date, completed, completed_before, completion_date FROM `{prefix}quest_progress` WHERE uuid=?;";
     private static final String SELECT_PLAYER_TASK_PROGRESS =
             "SELECT quest_id, task_id, completed, progress, data_type FROM `{prefix}task_progress` WHERE uuid=?;";
-    private static final String SELECT_UUID_LIST =
-            "SELECT DISTINCT uuid FROM `{prefix}quest_progress`;";
+    private static final String SELECT_ALL_QUEST_PROGRESS =
+            "SELECT uuid, quest_id, started, started_date, completed, completed_before, completion_date FROM `{prefix}quest_progress` ORDER BY uuid;";
+    private static final String SELECT_ALL_TASK_PROGRESS =
+            "SELECT uuid, quest_id, task_id, completed, progress, data_type FROM `{prefix}task_progress` ORDER BY uuid;";
     private static final String SELECT_KNOWN_PLAYER_QUEST_PROGRESS =
             "SELECT quest_id FROM `{prefix}quest_progress` WHERE uuid=?;";
     private static final String SELECT_KNOWN_PLAYER_TASK_PROGRESS =
             "SELECT quest_id, task_id FROM `{prefix}task_progress` WHERE uuid=?;";
+    // the update clauses refer to VALUES() rather than parameters so that batches can be rewritten into multi-row inserts
     private static final String WRITE_PLAYER_QUEST_PROGRESS =
-            "INSERT INTO `{prefix}quest_progress` (uuid, quest_id, started, started_date, completed, completed_before, completion_date) VALUES (?,?,?,?,?,?,?) ON DUPLICATE KEY UPDATE started=?, started_date=?, completed=?, completed_before=?, completion_date=?";
+            "INSERT INTO `{prefix}quest_progress` (uuid, quest_id, started, started_date, completed, completed_before, completion_date) VALUES (?,?,?,?,?,?,?) ON DUPLICATE KEY UPDATE started=VALUES(started), started_date=VALUES(started_date), completed=VALUES(completed), completed_before=VALUES(completed_before), completion_date=VALUES(completion_date)";
     private static final String WRITE_PLAYER_TASK_PROGRESS =
-            "INSERT INTO `{prefix}task_progress` (uuid, quest_id, task_id, completed, progress, data_type) VALUES (?,?,?,?,?,?) ON DUPLICATE KEY UPDATE completed=?, progress=?, data_type=?";
+            "INSERT INTO `{prefix}task_progress` (uuid, quest_id, task_id, completed, progress, data_type) VALUES (?,?,?,?,?,?) ON DUPLICATE KEY UPDATE completed=VALUES(completed), progress=VALUES(progress), data_type=VALUES(data_type)";
 
     private final ConfigurationSection configuration;
     private final BukkitQuestsPlugin plugin;
@@ -162,16 +166,7 @@ public class MySqlStorageProvider implements StorageProvider {
 
                 try (ResultSet rs = ps.executeQuery()) {
                     while (rs.next()) {
-                        String questId = rs.getString(1);
-                        boolean started = rs.getBoolean(2);
-                        long startedDate = rs.getLong(3);
-                        boolean completed = rs.getBoolean(4);
-                        boolean completedBefore = rs.getBoolean(5);
-                        long completionDate = rs.getLong(6);
-
-                        if (validateQuests && !presentQuests.containsKey(questId)) continue;
-                        QuestProgress questProgress = new QuestProgress(plugin, questId, completed, completedBefore, completionDate, uuid, started, startedDate);
-                        questProgressMap.put(questId, questProgress);
+                        readQuestProgress(rs, 1, uuid, questProgressMap, presentQuests, validateQuests);
                     }
                 }
             }
@@ -180,50 +175,7 @@ public class MySqlStorageProvider implements StorageProvider {
 
                 try (ResultSet rs = ps.executeQuery()) {
                     while (rs.next()) {
-                        String questId = rs.getString(1);
-                        String taskId = rs.getString(2);
-                        boolean completed = rs.getBoolean(3);
-                        String encodedProgress = rs.getString(4);
-                        String type = rs.getString(5);
-                        Object progress;
-                        try {
-                            if (type == null) {
-                                progress = null;
-                            } else if (type.equals("double")) {
-                                progress = Double.valueOf(encodedProgress);
-                            } else if (type.equals("float")) {
-                                progress = Float.valueOf(encodedProgress);
-                            } else if (type.equals("int")) {
-                                progress = Integer.valueOf(encodedProgress);
-                            } else if (type.equals("BigDecimal")) {
-                                progress = new BigDecimal(encodedProgress);
-                            } else {
-                                throw new RuntimeException("unknown data type '" + type + "'");
-                            }
-                        } catch (NumberFormatException ex) {
-                            plugin.getQuestsLogger().warning("Cannot retrieve progress for task '"
-                                    + taskId + "' in quest '" + questId + "' for player " + uuid
-                                    + " since data is malformed!");
-                            continue;
-                        } catch (RuntimeException ex) {
-                            if (ex.getMessage().startsWith("unknown data type ")) {
-                                plugin.getQuestsLogger().warning("Cannot retrieve progress for task '"
-                                        + taskId + "' in quest '" + questId + "' for player " + uuid
-                                        + ": " + ex.getMessage());
-                                continue;
-                            } else {
-                                throw ex;
-                            }
-                        }
-
-                        QuestProgress linkedQuestProgress = questProgressMap.get(questId);
-                        if (linkedQuestProgress == null) continue;
-                        if (validateQuests) {
-                            if (!presentQuests.containsKey(questId)) continue;
-                            if (presentQuests.get(questId).getTaskById(taskId) == null) continue;
-                        }
-                        TaskProgress questProgress = new TaskProgress(linkedQuestProgress, taskId, progress, uuid, completed);
-                        linkedQuestProgress.addTaskProgress(questProgress);
+                        readTaskProgress(rs, 1, uuid, questProgressMap, presentQuests, validateQuests);
                     }
                 }
             }
@@ -237,6 +189,70 @@ public class MySqlStorageProvider implements StorageProvider {
         return questProgressFile;
     }
 
+    /**
+     * Reads a row of quest progress, starting at the quest_id column.
+     */
+    private void readQuestProgress(ResultSet rs, int column, UUID uuid, Map<String, QuestProgress> questProgressMap,
+                                   Map<String, Quest> presentQuests, boolean validateQuests) throws SQLException {
+        String questId = rs.getString(column);
+        boolean started = rs.getBoolean(column + 1);
+        long startedDate = rs.getLong(column + 2);
+        boolean completed = rs.getBoolean(column + 3);
+        boolean completedBefore = rs.getBoolean(column + 4);
+        long completionDate = rs.getLong(column + 5);
+
+        if (validateQuests && !presentQuests.containsKey(questId)) return;
+        QuestProgress questProgress = new QuestProgress(plugin, questId, completed, completedBefore, completionDate, uuid, started, startedDate);
+        questProgressMap.put(questId, questProgress);
+    }
+
+    /**
+     * Reads a row of task progress, starting at the quest_id column, and adds it to its quest progress.
+     */
+    private void readTaskProgress(ResultSet rs, int column, UUID uuid, Map<String, QuestProgress> questProgressMap,
+                                  Map<String, Quest> presentQuests, boolean validateQuests) throws SQLException {
+        String questId = rs.getString(column);
+        String taskId = rs.getString(column + 1);
+        boolean completed = rs.getBoolean(column + 2);
+        String encodedProgress = rs.getString(column + 3);
+        String type = rs.getString(column + 4);
+        Object progress;
+        try {
+            if (type == null) {
+                progress = null;
+            } else if (type.equals("double")) {
+                progress = Double.valueOf(encodedProgress);
+            } else if (type.equals("float")) {
+                progress = Float.valueOf(encodedProgress);
+            } else if (type.equals("int")) {
+                progress = Integer.valueOf(encodedProgress);
+            } else if (type.equals("long")) {
+                progress = Long.valueOf(encodedProgress);
+            } else if (type.equals("BigDecimal")) {
+                progress = new BigDecimal(encodedProgress);
+            } else {
+                plugin.getQuestsLogger().warning("Cannot retrieve progress for task '"
+                        + taskId + "' in quest '" + questId + "' for player " + uuid
+                        + ": unknown data type '" + type + "'");
+                return;
+            }
+        } catch (NumberFormatException ex) {
+            plugin.getQuestsLogger().warning("Cannot retrieve progress for task '"
+                    + taskId + "' in quest '" + questId + "' for player " + uuid
+                    + " since data is malformed!");
+            return;
+        }
+
+        QuestProgress linkedQuestProgress = questProgressMap.get(questId);
+        if (linkedQuestProgress == null) return;
+        if (validateQuests) {
+            if (!presentQuests.containsKey(questId)) return;
+            if (presentQuests.get(questId).getTaskById(taskId) == null) return;
+        }
+        TaskProgress questProgress = new TaskProgress(linkedQuestProgress, taskId, progress, uuid, completed);
+        linkedQuestProgress.addTaskProgress(questProgress);
+    }
+
     @Override
     public boolean saveProgressFile(@NotNull UUID uuid, @NotNull QuestProgressFile questProgressFile) {
         Objects.requireNonNull(uuid, "uuid cannot be null");
@@ -247,64 +263,7 @@ public class MySqlStorageProvider implements StorageProvider {
             try (PreparedStatement writeQuestProgress = connection.prepareStatement(this.statementProcessor.apply(WRITE_PLAYER_QUEST_PROGRESS));
                  PreparedStatement writeTaskProgress = connection.prepareStatement(this.statementProcessor.apply(WRITE_PLAYER_TASK_PROGRESS))) {
 
-                List<QuestProgress> questProgressValues = new ArrayList<>(questProgressFile.getAllQuestProgress());
-                for (QuestProgress questProgress : questProgressValues) {
-                    if (!questProgress.isModified()) continue;
-                    
-                    String questId = questProgress.getQuestId();
-                    writeQuestProgress.setString(1, uuid.toString());
-                    writeQuestProgress.setString(2, questProgress.getQuestId());
-                    writeQuestProgress.setBoolean(3, questProgress.isStarted());
-                    writeQuestProgress.setLong(4, questProgress.getStartedDate());
-                    writeQuestProgress.setBoolean(5, questProgress.isCompleted());
-                    writeQuestProgress.setBoolean(6, questProgress.isCompletedBefore());
-                    writeQuestProgress.setLong(7, questProgress.getCompletionDate());
-                    writeQuestProgress.setBoolean(8, questProgress.isStarted());
-                    writeQuestProgress.setLong(9, questProgress.getStartedDate());
-                    writeQuestProgress.setBoolean(10, questProgress.isCompleted());
-                    writeQuestProgress.setBoolean(11, questProgress.isCompletedBefore());
-                    writeQuestProgress.setLong(12, questProgress.getCompletionDate());
-                    writeQuestProgress.addBatch();
-
-                    for (TaskProgress taskProgress : questProgress.getTaskProgress()) {
-                        String taskId = taskProgress.getTaskId();
-
-                        String encodedProgress;
-                        Object progress = taskProgress.getProgress();
-                        String type;
-                        if (progress == null) {
-                            type = null;
-                            encodedProgress = null;
-                        } else if (progress instanceof Double) {
-                            type = "double";
-                            encodedProgress = String.valueOf(progress);
-                        } else if (progress instanceof Integer) {
-                            type = "int";
-                            encodedProgress = String.valueOf(progress);
-                        } else if (progress instanceof Float) {
-                            type = "float";
-                            encodedProgress = String.valueOf(progress);
-                        } else if (progress instanceof BigDecimal) {
-                            type = "BigDecimal";
-                            encodedProgress = String.valueOf(progress);
-                        } else {
-                            plugin.getQuestsLogger().warning("Cannot store progress for task '"
-                                    + taskId + "' in quest '" + questId + "' for player " + uuid
-                                    + " since type " + progress.getClass().getName() + " cannot be encoded!");
-                            continue;
-                        }
-                        writeTaskProgress.setString(1, uuid.toString());
-                        writeTaskProgress.setString(2, questId);
-                        writeTaskProgress.setString(3, taskProgress.getTaskId());
-                        writeTaskProgress.setBoolean(4, taskProgress.isCompleted());
-                        writeTaskProgress.setString(5, encodedProgress);
-                        writeTaskProgress.setString(6, type);
-                        writeTaskProgress.setBoolean(7, taskProgress.isCompleted());
-                        writeTaskProgress.setString(8, encodedProgress);
-                        writeTaskProgress.setString(9, type);
-                        writeTaskProgress.addBatch();
-                    }
-                }
+                addProgressFileToBatch(uuid, questProgressFile, writeQuestProgress, writeTaskProgress);
 
                 writeQuestProgress.executeBatch();
                 writeTaskProgress.executeBatch();
@@ -316,46 +275,224 @@ public class MySqlStorageProvider implements StorageProvider {
         }
     }
 
+    /**
+     * Adds the modified quest progress of a file to the write batches.
+     *
+     * @return the number of rows added
+     */
+    private int addProgressFileToBatch(UUID uuid, QuestProgressFile questProgressFile, PreparedStatement writeQuestProgress, PreparedStatement writeTaskProgress) throws SQLException {
+        int rows = 0;
+        List<QuestProgress> questProgressValues = new ArrayList<>(questProgressFile.getAllQuestProgress());
+        for (QuestProgress questProgress : questProgressValues) {
+            if (!questProgress.isModified()) continue;
+
+            String questId = questProgress.getQuestId();
+            writeQuestProgress.setString(1, uuid.toString());
+            writeQuestProgress.setString(2, questProgress.getQuestId());
+            writeQuestProgress.setBoolean(3, questProgress.isStarted());
+            writeQuestProgress.setLong(4, questProgress.getStartedDate());
+            writeQuestProgress.setBoolean(5, questProgress.isCompleted());
+            writeQuestProgress.setBoolean(6, questProgress.isCompletedBefore());
+            writeQuestProgress.setLong(7, questProgress.getCompletionDate());
+            writeQuestProgress.addBatch();
+            rows++;
+
+            for (TaskProgress taskProgress : questProgress.getTaskProgress()) {
+                String taskId = taskProgress.getTaskId();
+
+                String encodedProgress;
+                Object progress = taskProgress.getProgress();
+                String type;
+                if (progress == null) {
+                    type = null;
+                    encodedProgress = null;
+                } else if (progress instanceof Double) {
+                    type = "double";
+                    encodedProgress = String.valueOf(progress);
+                } else if (progress instanceof Integer) {
+                    type = "int";
+                    encodedProgress = String.valueOf(progress);
+                } else if (progress instanceof Long) {
+                    type = "long";
+                    encodedProgress = String.valueOf(progress);
+                } else if (progress instanceof Float) {
+                    type = "float";
+                    encodedProgress = String.valueOf(progress);
+                } else if (progress instanceof BigDecimal) {
+                    type = "BigDecimal";
+                    encodedProgress = String.valueOf(progress);
+                } else {
+                    plugin.getQuestsLogger().warning("Cannot store progress for task '"
+                            + taskId + "' in quest '" + questId + "' for player " + uuid
+                            + " since type " + progress.getClass().getName() + " cannot be encoded!");
+                    continue;
+                }
+                writeTaskProgress.setString(1, uuid.toString());
+                writeTaskProgress.setString(2, questId);
+                writeTaskProgress.setString(3, taskProgress.getTaskId());
+                writeTaskProgress.setBoolean(4, taskProgress.isCompleted());
+                writeTaskProgress.setString(5, encodedProgress);
+                writeTaskProgress.setString(6, type);
+                writeTaskProgress.addBatch();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
     @Override
     public @NotNull List<QuestProgressFile> loadAllProgressFiles() {
-        if (fault) return Collections.emptyList();
+        List<QuestProgressFile> files = new ArrayList<>();
+        loadAllProgressFiles(files::add);
+        return files;
+    }
 
-        Set<UUID> uuids = new HashSet<>();
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The quest and task progress tables are each read in a single pass ordered by uuid, and the
+     * two scans are merged so that a file is passed to the consumer as soon as all of its rows are read.
+     */
+    @Override
+    public void loadAllProgressFiles(@NotNull Consumer<QuestProgressFile> consumer) {
+        Objects.requireNonNull(consumer, "consumer cannot be null");
 
-        try (Connection connection = hikari.getConnection()) {
-            try (PreparedStatement ps = connection.prepareStatement(this.statementProcessor.apply(SELECT_UUID_LIST))) {
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
-                        String uuidString = rs.getString(1);
-                        try {
-                            UUID uuid = UUID.fromString(uuidString);
-                            uuids.add(uuid);
-                        } catch (IllegalArgumentException ignored) { }
+        if (fault) return;
+        Map<String, Quest> presentQuests = new HashMap<>(plugin.getQuestManager().getQuests());
+        boolean validateQuests = plugin.getQuestsConfig().getBoolean("options.verify-quest-exists-on-load", true);
+
+        // a streamed result set occupies its connection until it has been read, so each scan needs its own
+        try (Connection questConnection = hikari.getConnection();
+             Connection taskConnection = hikari.getConnection();
+             PreparedStatement questPs = prepareStreamingStatement(questConnection, SELECT_ALL_QUEST_PROGRESS);
+             PreparedStatement taskPs = prepareStreamingStatement(taskConnection, SELECT_ALL_TASK_PROGRESS);
+             ResultSet questRs = questPs.executeQuery();
+             ResultSet taskRs = taskPs.executeQuery()) {
+
+            boolean hasQuestRow = questRs.next();
+            boolean hasTaskRow = taskRs.next();
+            while (hasQuestRow) {
+                String uuidString = questRs.getString(1);
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(uuidString);
+                } catch (IllegalArgumentException ignored) {
+                    uuid = null;
+                }
+
+                Map<String, QuestProgress> questProgressMap = new HashMap<>();
+                do {
+                    if (uuid != null) {
+                        readQuestProgress(questRs, 2, uuid, questProgressMap, presentQuests, validateQuests);
+                    }
+                    hasQuestRow = questRs.next();
+                } while (hasQuestRow && questRs.getString(1).equalsIgnoreCase(uuidString));
+
+                // skip task progress belonging to players without any quest progress
+                while (hasTaskRow && taskRs.getString(1).compareToIgnoreCase(uuidString) < 0) {
+                    hasTaskRow = taskRs.next();
+                }
+                while (hasTaskRow && taskRs.getString(1).equalsIgnoreCase(uuidString)) {
+                    if (uuid != null) {
+                        readTaskProgress(taskRs, 2, uuid, questProgressMap, presentQuests, validateQuests);
                     }
+                    hasTaskRow = taskRs.next();
+                }
+
+                if (uuid == null) continue;
+                QuestProgressFile questProgressFile = new QuestProgressFile(uuid, plugin);
+                for (QuestProgress questProgress : questProgressMap.values()) {
+                    questProgressFile.addQuestProgress(questProgress);
                 }
+                consumer.accept(questProgressFile);
             }
         } catch (SQLException e) {
             e.printStackTrace();
-            return Collections.emptyList();
-        }
-
-        List<QuestProgressFile> files = new ArrayList<>();
-        for (UUID uuid : uuids) {
-            QuestProgressFile file = loadProgressFile(uuid);
-            if (file != null) {
-                files.add(file);
-            }
         }
+    }
 
-        return files;
+    private PreparedStatement prepareStreamingStatement(Connection connection, String statement) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(this.statementProcessor.apply(statement), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // instructs the driver to stream rows one at a time rather than reading the whole result into memory
+        ps.setFetchSize(Integer.MIN_VALUE);
+        return ps;
     }
 
     @Override
     public void saveAllProgressFiles(List<QuestProgressFile> files) {
-        if (fault) return;
+        List<QuestProgressFile> failed = trySaveAllProgressFiles(files);
+        if (!failed.isEmpty()) {
+            plugin.getQuestsLogger().severe("Failed to save " + failed.size() + " of " + files.size() + " players!");
+        }
+    }
 
-        for (QuestProgressFile file : files) {
-            saveProgressFile(file.getPlayerUUID(), file);
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Files are written in batches of up to <code>batch-size</code> rows, each in its own transaction. If a batch
+     * fails, the files in it are saved one at a time instead, so that one bad file does not fail the rest.
+     */
+    @Override
+    public @NotNull List<QuestProgressFile> trySaveAllProgressFiles(@NotNull List<QuestProgressFile> files) {
+        if (fault) return new ArrayList<>(files);
+
+        List<QuestProgressFile> failed = new ArrayList<>();
+        List<QuestProgressFile> batchedFiles = new ArrayList<>();
+        int done = 0;
+        int batchSize = Math.max(1, configuration.getInt("batch-size", 1000));
+        try (Connection connection = hikari.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement writeQuestProgress = connection.prepareStatement(this.statementProcessor.apply(WRITE_PLAYER_QUEST_PROGRESS));
+                 PreparedStatement writeTaskProgress = connection.prepareStatement(this.statementProcessor.apply(WRITE_PLAYER_TASK_PROGRESS))) {
+
+                int rows = 0;
+                for (QuestProgressFile file : files) {
+                    rows += addProgressFileToBatch(file.getPlayerUUID(), file, writeQuestProgress, writeTaskProgress);
+                    batchedFiles.add(file);
+                    if (rows >= batchSize) {
+                        commitBatch(connection, writeQuestProgress, writeTaskProgress, batchedFiles, failed);
+                        done += batchedFiles.size();
+                        batchedFiles.clear();
+                        rows = 0;
+                    }
+                }
+                if (!batchedFiles.isEmpty()) {
+                    commitBatch(connection, writeQuestProgress, writeTaskProgress, batchedFiles, failed);
+                    done += batchedFiles.size();
+                    batchedFiles.clear();
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            // anything not yet committed has not been saved
+            failed.addAll(files.subList(done, files.size()));
+        }
+        return failed;
+    }
+
+    private void commitBatch(Connection connection, PreparedStatement writeQuestProgress, PreparedStatement writeTaskProgress,
+                             List<QuestProgressFile> batchedFiles, List<QuestProgressFile> failed) throws SQLException {
+        try {
+            writeQuestProgress.executeBatch();
+            writeTaskProgress.executeBatch();
+            connection.commit();
+            plugin.getQuestsLogger().debug("Committed batch of " + batchedFiles.size() + " players.");
+            return;
+        } catch (SQLException e) {
+            connection.rollback();
+            writeQuestProgress.clearBatch();
+            writeTaskProgress.clearBatch();
+            plugin.getQuestsLogger().severe("Failed to save batch of " + batchedFiles.size() + " players, saving them individually: " + e.getMessage());
+        }
+
+        for (QuestProgressFile file : batchedFiles) {
+            if (!saveProgressFile(file.getPlayerUUID(), file)) {
+                plugin.getQuestsLogger().severe("Failed to save player " + file.getPlayerUUID() + "!");
+                failed.add(file);
+            }
         }
     }
 
@@ -12,15 +12,19 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 public class YamlStorageProvider implements StorageProvider {
 
     private final Map<UUID, ReentrantLock> locks = new ConcurrentHashMap<>();
+    // documents of loaded players, kept so that saves do not have to read the file again
+    private final Map<UUID, YamlConfiguration> documents = new ConcurrentHashMap<>();
     private final BukkitQuestsPlugin plugin;
 
     public YamlStorageProvider(BukkitQuestsPlugin plugin) {
@@ -53,6 +57,10 @@ public class YamlStorageProvider implements StorageProvider {
     public @Nullable QuestProgressFile loadProgressFile(@NotNull UUID uuid) {
         Objects.requireNonNull(uuid, "uuid cannot be null");
 
+        return loadProgressFile(uuid, true);
+    }
+
+    private @Nullable QuestProgressFile loadProgressFile(UUID uuid, boolean cacheDocument) {
         ReentrantLock lock = lock(uuid);
         Map<String, Quest> presentQuests = new HashMap<>(plugin.getQuestManager().getQuests());
         boolean validateQuests = plugin.getQuestsConfig().getBoolean("options.verify-quest-exists-on-load", true);
@@ -64,6 +72,9 @@ public class YamlStorageProvider implements StorageProvider {
                 File file = new File(plugin.getDataFolder() + File.separator + "playerdata" + File.separator + uuid.toString() + ".yml");
                 if (file.exists()) {
                     YamlConfiguration data = YamlConfiguration.loadConfiguration(file);
+                    if (cacheDocument) {
+                        documents.put(uuid, data);
+                    }
                     plugin.getQuestsLogger().debug("Player " + uuid + " has a valid quest progress file.");
                     if (data.isConfigurationSection("quest-progress")) { //Same job as "isSet" + it checks if is CfgSection
                         for (String id : data.getConfigurationSection("quest-progress").getKeys(false)) {
@@ -93,6 +104,9 @@ public class YamlStorageProvider implements StorageProvider {
                         }
                     }
                 } else {
+                    if (cacheDocument) {
+                        documents.put(uuid, new YamlConfiguration());
+                    }
                     plugin.getQuestsLogger().debug("Player " + uuid + " does not have a quest progress file.");
                 }
             }
@@ -119,15 +133,11 @@ public class YamlStorageProvider implements StorageProvider {
             }
 
             File file = new File(plugin.getDataFolder() + File.separator + "playerdata" + File.separator + uuid.toString() + ".yml");
-            if (!file.exists()) {
-                try {
-                    file.createNewFile();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+            YamlConfiguration data = documents.get(uuid);
+            if (data == null) {
+                data = file.exists() ? YamlConfiguration.loadConfiguration(file) : new YamlConfiguration();
             }
 
-            YamlConfiguration data = YamlConfiguration.loadConfiguration(file);
             for (QuestProgress questProgress : questProgressValues) {
                 if (!questProgress.isModified()) continue;
                 data.set("quest-progress." + questProgress.getQuestId() + ".started", questProgress.isStarted());
@@ -145,7 +155,15 @@ public class YamlStorageProvider implements StorageProvider {
 
             plugin.getQuestsLogger().debug("Writing player " + uuid + " to disk.");
             try {
-                data.save(file);
+                // write to a temporary file first so that the existing file is left intact if writing fails
+                Path path = file.toPath();
+                Path temporaryPath = path.resolveSibling(file.getName() + ".tmp");
+                Files.writeString(temporaryPath, data.saveToString(), StandardCharsets.UTF_8);
+                try {
+                    Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+                }
                 return true;
             } catch (IOException e) {
                 e.printStackTrace();
@@ -156,8 +174,27 @@ public class YamlStorageProvider implements StorageProvider {
         }
     }
 
+    @Override
+    public void unloadProgressFile(@NotNull UUID uuid) {
+        Objects.requireNonNull(uuid, "uuid cannot be null");
+
+        ReentrantLock lock = lock(uuid);
+        try {
+            documents.remove(uuid);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public @NotNull List<QuestProgressFile> loadAllProgressFiles() {
         List<QuestProgressFile> files = new ArrayList<>();
+        loadAllProgressFiles(files::add);
+        return files;
+    }
+
+    @Override
+    public void loadAllProgressFiles(@NotNull Consumer<QuestProgressFile> consumer) {
+        Objects.requireNonNull(consumer, "consumer cannot be null");
 
         File directory = new File(plugin.getDataFolder() + File.separator + "playerdata");
         FileVisitor<Path> fileVisitor = new SimpleFileVisitor<Path>() {
@@ -171,9 +208,9 @@ public class YamlStorageProvider implements StorageProvider {
                         return FileVisitResult.CONTINUE;
                     }
 
-                    QuestProgressFile file = loadProgressFile(uuid);
+                    QuestProgressFile file = loadProgressFile(uuid, false);
                     if (file != null) {
-                        files.add(file);
+                        consumer.accept(file);
                     }
                 }
                 return FileVisitResult.CONTINUE;
@@ -185,8 +222,6 @@ public class YamlStorageProvider implements StorageProvider {
         } catch (IOException e) {
             e.printStackTrace();
         }
-
-        return files;
     }
 
     @Override
@@ -5,6 +5,7 @@ import org.bukkit.event.Listener;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
+import java.util.function.Supplier;
 
 public abstract class BukkitTaskType extends TaskType implements Listener {
 
@@ -22,8 +23,27 @@ public abstract class BukkitTaskType extends TaskType implements Listener {
         super(type);
     }
 
+    /**
+     * Sends a debug message to any players debugging the quest. Does nothing if nobody is debugging it.
+     *
+     * @param message the message to send
+     */
     public final void debug(@NotNull String message, String questId, String taskId, @NotNull UUID player) {
-        taskTypeManager.sendDebug(message, super.getType(), questId, taskId, player);
+        if (taskTypeManager.isDebugging(questId)) {
+            taskTypeManager.sendDebug(message, super.getType(), questId, taskId, player);
+        }
+    }
+
+    /**
+     * Sends a debug message to any players debugging the quest. The message is only built
+     * if somebody is debugging it, so this should be preferred for messages which are not constant.
+     *
+     * @param message supplier of the message to send
+     */
+    public final void debug(@NotNull Supplier<String> message, String questId, String taskId, @NotNull UUID player) {
+        if (taskTypeManager.isDebugging(questId)) {
+            taskTypeManager.sendDebug(message.get(), super.getType(), questId, taskId, player);
+        }
     }
 
 }
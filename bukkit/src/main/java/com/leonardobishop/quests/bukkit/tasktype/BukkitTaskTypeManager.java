@@ -11,11 +11,16 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BukkitTaskTypeManager extends TaskTypeManager {
 
     private final BukkitQuestsPlugin plugin;
+    private final Map<String, Set<UUID>> debugSubscribers = new ConcurrentHashMap<>();
+    private volatile boolean debuggerActive;
 
     public BukkitTaskTypeManager(BukkitQuestsPlugin plugin) {
         this.plugin = plugin;
@@ -38,38 +43,105 @@ public class BukkitTaskTypeManager extends TaskTypeManager {
         return false;
     }
 
+    /**
+     * Gets whether any player is debugging a specific quest, either directly or through the wildcard.
+     *
+     * @param questId the quest to check
+     * @return true if debug messages for the quest should be sent
+     */
+    public boolean isDebugging(String questId) {
+        if (!debuggerActive) {
+            return false;
+        }
+        return debugSubscribers.containsKey("*") || (questId != null && debugSubscribers.containsKey(questId));
+    }
+
+    /**
+     * Updates the debug subscriptions of a player to match their preferences. This must be called
+     * whenever their debug preferences change.
+     *
+     * @param qPlayer the player to update
+     */
+    public void updateDebugSubscriber(@NotNull QPlayer qPlayer) {
+        UUID uuid = qPlayer.getPlayerUUID();
+        removeSubscriptions(uuid);
+        for (Map.Entry<String, QPlayerPreferences.DebugType> entry : qPlayer.getPlayerPreferences().getDebugTypes().entrySet()) {
+            if (entry.getValue() != null) {
+                debugSubscribers.computeIfAbsent(entry.getKey(), k -> ConcurrentHashMap.newKeySet()).add(uuid);
+            }
+        }
+        debuggerActive = !debugSubscribers.isEmpty();
+    }
+
+    /**
+     * Removes all debug subscriptions of a player, such as when they leave.
+     *
+     * @param uuid the uuid of the player
+     */
+    public void removeDebugSubscriber(@NotNull UUID uuid) {
+        removeSubscriptions(uuid);
+        debuggerActive = !debugSubscribers.isEmpty();
+    }
+
+    private void removeSubscriptions(UUID uuid) {
+        debugSubscribers.values().removeIf(subscribers -> subscribers.remove(uuid) && subscribers.isEmpty());
+    }
+
     public void sendDebug(@NotNull String message, @NotNull String taskType, @NotNull String questId, @NotNull String taskId, @NotNull UUID associatedPlayer) {
+        Set<UUID> questSubscribers = debugSubscribers.get(questId);
+        Set<UUID> wildcardSubscribers = debugSubscribers.get("*");
+
         String chatHeader = null;
-        for (QPlayer qPlayer : plugin.getPlayerManager().getQPlayers()) {
-            QPlayerPreferences.DebugType debugType = qPlayer.getPlayerPreferences().getDebug(questId);
-            if (debugType == null) {
-                continue;
+        if (questSubscribers != null) {
+            for (UUID uuid : questSubscribers) {
+                chatHeader = sendDebug(uuid, chatHeader, message, taskType, questId, taskId, associatedPlayer);
             }
-
-            Player player = Bukkit.getPlayer(qPlayer.getPlayerUUID());
-            if (player == null) {
-                continue;
+        }
+        if (wildcardSubscribers != null) {
+            for (UUID uuid : wildcardSubscribers) {
+                if (questSubscribers != null && questSubscribers.contains(uuid)) {
+                    continue;
+                }
+                chatHeader = sendDebug(uuid, chatHeader, message, taskType, questId, taskId, associatedPlayer);
             }
+        }
+    }
 
-            if (chatHeader == null) {
-                Player otherPlayer = Bukkit.getPlayer(associatedPlayer);
-                String associatedName = otherPlayer != null ? otherPlayer.getName() : associatedPlayer.toString();
-                chatHeader = ChatColor.GRAY + "[" + associatedName + " - " + questId + "/" + taskId + " - type '" + taskType + "']";
-            }
+    private String sendDebug(UUID uuid, String chatHeader, String message, String taskType, String questId, String taskId, UUID associatedPlayer) {
+        QPlayer qPlayer = plugin.getPlayerManager().getPlayer(uuid);
+        if (qPlayer == null) {
+            return chatHeader;
+        }
+
+        QPlayerPreferences.DebugType debugType = qPlayer.getPlayerPreferences().getDebug(questId);
+        if (debugType == null) {
+            return chatHeader;
+        }
 
-            switch (debugType) {
-                case ALL -> {
+        Player player = Bukkit.getPlayer(uuid);
+        if (player == null) {
+            return chatHeader;
+        }
+
+        if (chatHeader == null) {
+            Player otherPlayer = Bukkit.getPlayer(associatedPlayer);
+            String associatedName = otherPlayer != null ? otherPlayer.getName() : associatedPlayer.toString();
+            chatHeader = ChatColor.GRAY + "[" + associatedName + " - " + questId + "/" + taskId + " - type '" + taskType + "']";
+        }
+
+        switch (debugType) {
+            case ALL -> {
+                player.sendMessage(chatHeader);
+                player.sendMessage(message);
+            }
+            case SELF -> {
+                if (player.getUniqueId().equals(associatedPlayer)) {
                     player.sendMessage(chatHeader);
                     player.sendMessage(message);
                 }
-                case SELF -> {
-                    if (player.getUniqueId().equals(associatedPlayer)) {
-                        player.sendMessage(chatHeader);
-                        player.sendMessage(message);
-                    }
-                }
             }
         }
+        return chatHeader;
     }
 
 }
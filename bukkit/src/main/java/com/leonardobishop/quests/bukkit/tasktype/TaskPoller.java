@@ -0,0 +1,148 @@
+package com.leonardobishop.quests.bukkit.tasktype;
+
+import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
+import com.leonardobishop.quests.common.player.QPlayer;
+import com.leonardobishop.quests.common.tasktype.TaskType;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Shared scheduler for task types which have to poll online players, rather than listen for events.
+ * Runs every tick, and spreads the players polled for each task type evenly across its interval,
+ * so that each player is polled about once per interval without polling every player in the same tick.
+ */
+public class TaskPoller implements Runnable {
+
+    private final BukkitQuestsPlugin plugin;
+    private final Map<String, Poll> polls = new LinkedHashMap<>();
+    private int lastTickPlayersChecked;
+
+    public TaskPoller(BukkitQuestsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Registers a task type to be polled, replacing any previous registration of the same task type.
+     * Only players with pending tasks of the task type are polled.
+     *
+     * @param taskType the task type
+     * @param interval how often each player should be polled, in ticks
+     * @param handler the handler to poll players with
+     */
+    public void register(@NotNull TaskType taskType, int interval, @NotNull PollHandler handler) {
+        Objects.requireNonNull(taskType, "taskType cannot be null");
+        Objects.requireNonNull(handler, "handler cannot be null");
+
+        polls.put(taskType.getType(), new Poll(taskType, Math.max(1, interval), handler));
+    }
+
+    /**
+     * Stops polling for a task type.
+     *
+     * @param taskType the task type
+     */
+    public void unregister(@NotNull TaskType taskType) {
+        Objects.requireNonNull(taskType, "taskType cannot be null");
+
+        polls.remove(taskType.getType());
+    }
+
+    @Override
+    public void run() {
+        int maxPerTick = plugin.getQuestsConfig().getInt("options.performance-tweaking.quest-task-poll-max-players", 50);
+        int checked = 0;
+        for (Poll poll : polls.values()) {
+            checked += poll.tick(maxPerTick);
+        }
+        lastTickPlayersChecked = checked;
+    }
+
+    /**
+     * @return the number of players polled by the most recent tick, across all task types
+     */
+    public int getLastTickPlayersChecked() {
+        return lastTickPlayersChecked;
+    }
+
+    /**
+     * @return the number of players polled by the most recent tick, by task type
+     */
+    public Map<String, Integer> getLastTickPlayersCheckedByType() {
+        Map<String, Integer> checked = new LinkedHashMap<>();
+        for (Map.Entry<String, Poll> entry : polls.entrySet()) {
+            checked.put(entry.getKey(), entry.getValue().lastChecked);
+        }
+        return checked;
+    }
+
+    @FunctionalInterface
+    public interface PollHandler {
+        void poll(@NotNull Player player, @NotNull QPlayer qPlayer);
+    }
+
+    private final class Poll {
+
+        private final TaskType taskType;
+        private final int interval;
+        private final PollHandler handler;
+        private final Queue<UUID> queue = new ArrayDeque<>();
+        // the first cycle begins once a full interval has passed, as a standalone timer would have
+        private int ticksLeft;
+        private int lastChecked;
+
+        private Poll(TaskType taskType, int interval, PollHandler handler) {
+            this.taskType = taskType;
+            this.interval = interval;
+            this.handler = handler;
+            this.ticksLeft = interval;
+        }
+
+        private int tick(int maxPerTick) {
+            if (ticksLeft == 0 && queue.isEmpty()) {
+                fill();
+                ticksLeft = interval;
+            }
+
+            // spread what is left over the rest of the cycle; if the cycle has overrun, drain at the cap
+            int batch;
+            if (ticksLeft > 0) {
+                batch = (queue.size() + ticksLeft - 1) / ticksLeft;
+                ticksLeft--;
+            } else {
+                batch = queue.size();
+            }
+            if (maxPerTick > 0) {
+                batch = Math.min(batch, maxPerTick);
+            }
+
+            int checked = 0;
+            for (int i = 0; i < batch; i++) {
+                UUID uuid = queue.poll();
+                if (uuid == null) break;
+
+                Player player = Bukkit.getPlayer(uuid);
+                if (player == null || !player.isOnline()) continue;
+
+                QPlayer qPlayer = plugin.getPlayerManager().getPlayer(uuid);
+                if (qPlayer == null || qPlayer.getPendingTasks(taskType.getType()).isEmpty()) continue;
+
+                handler.poll(player, qPlayer);
+                checked++;
+            }
+            lastChecked = checked;
+            return checked;
+        }
+
+        private void fill() {
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                QPlayer qPlayer = plugin.getPlayerManager().getPlayer(player.getUniqueId());
+                if (qPlayer == null || qPlayer.getPendingTasks(taskType.getType()).isEmpty()) continue;
+
+                queue.add(player.getUniqueId());
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -75,7 +76,7 @@ public final class BreedingTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
@@ -84,11 +85,11 @@ public final class BreedingTaskType extends BukkitTaskType {
 
             List<String> configEntities = TaskUtils.getConfigStringList(task, task.getConfigValues().containsKey("mob") ? "mob" : "mobs");
             if (!configEntities.isEmpty()) {
-                super.debug("List of required entities exists; mob type is " + entityType.name(), quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> "List of required entities exists; mob type is " + entityType.name(), quest.getId(), task.getId(), player.getUniqueId());
 
                 boolean validMob = false;
                 for (String configEntity : configEntities) {
-                    super.debug("Checking against mob '" + configEntity + "'", quest.getId(), task.getId(), player.getUniqueId());
+                    super.debug(() -> "Checking against mob '" + configEntity + "'", quest.getId(), task.getId(), player.getUniqueId());
                     try {
                         EntityType configEntityType = EntityType.valueOf(configEntity);
                         if (configEntityType == entityType) {
@@ -106,7 +107,7 @@ public final class BreedingTaskType extends BukkitTaskType {
             }
 
             int progress = TaskUtils.incrementIntegerTaskProgress(taskProgress);
-            super.debug("Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
 
             int amount = (int) task.getConfigValue("amount");
             if (progress >= amount) {
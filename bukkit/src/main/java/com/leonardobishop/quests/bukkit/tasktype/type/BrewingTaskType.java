@@ -6,6 +6,7 @@ import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.item.QuestItem;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -82,7 +83,7 @@ public final class BrewingTaskType extends BukkitTaskType {
             }
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
@@ -106,12 +107,12 @@ public final class BrewingTaskType extends BukkitTaskType {
             int amount = (int) task.getConfigValue("amount");
 
             int progress = TaskUtils.getIntegerTaskProgress(taskProgress);
-            taskProgress.setProgress(progress + eventAmount);
+            taskProgress.setIntProgress(progress + eventAmount);
             super.debug("Updating task progress (now " + (progress + eventAmount) + ")", quest.getId(), task.getId(), player.getUniqueId());
 
-            if ((int) taskProgress.getProgress() >= amount) {
+            if (taskProgress.hasReached(amount)) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
-                taskProgress.setProgress(amount);
+                taskProgress.setIntProgress(amount);
                 taskProgress.setCompleted(true);
             }
         }
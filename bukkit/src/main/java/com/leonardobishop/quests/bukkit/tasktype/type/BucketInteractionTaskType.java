@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -29,7 +30,7 @@ public abstract class BucketInteractionTaskType extends BukkitTaskType {
 
         if (qPlayer == null) return;
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player.getPlayer(), qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player.getPlayer(), qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
@@ -38,17 +39,17 @@ public abstract class BucketInteractionTaskType extends BukkitTaskType {
             Object configBucket = task.getConfigValue("bucket");
             Material material = Material.getMaterial((String) configBucket);
 
-            super.debug("Player used bucket of type " + bucket, quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Player used bucket of type " + bucket, quest.getId(), task.getId(), player.getUniqueId());
 
             if (bucket != material) {
-                super.debug("Player bucket does not match required bucket '" + material + "', continuing...", quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> "Player bucket does not match required bucket '" + material + "', continuing...", quest.getId(), task.getId(), player.getUniqueId());
                 continue;
             }
 
             int progress = TaskUtils.incrementIntegerTaskProgress(taskProgress);
-            super.debug("Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
 
-            if ((int) taskProgress.getProgress() >= amount) {
+            if (progress >= amount) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
                 taskProgress.setCompleted(true);
             }
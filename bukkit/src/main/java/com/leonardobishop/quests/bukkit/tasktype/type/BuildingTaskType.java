@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -40,16 +41,16 @@ public final class BuildingTaskType extends BukkitTaskType {
 
         Player player = event.getPlayer();
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(event.getPlayer(), qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(event.getPlayer(), qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
-            super.debug("Player placed block " + event.getBlock().getType(), quest.getId(), task.getId(), event.getPlayer().getUniqueId());
+            super.debug(() -> "Player placed block " + event.getBlock().getType(), quest.getId(), task.getId(), event.getPlayer().getUniqueId());
 
             if (TaskUtils.matchBlock(this, pendingTask, event.getBlock(), player.getUniqueId())) {
                 int progress = TaskUtils.incrementIntegerTaskProgress(taskProgress);
-                super.debug("Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> "Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
 
                 int blocksNeeded = (int) task.getConfigValue("amount");
 
@@ -73,20 +74,19 @@ public final class BuildingTaskType extends BukkitTaskType {
 
         Player player = event.getPlayer();
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(event.getPlayer(), qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(event.getPlayer(), qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
-            super.debug("Player mined block " + event.getBlock().getType(), quest.getId(), task.getId(), event.getPlayer().getUniqueId());
+            super.debug(() -> "Player mined block " + event.getBlock().getType(), quest.getId(), task.getId(), event.getPlayer().getUniqueId());
 
 
             if (task.getConfigValue("reverse-if-broken") != null && ((boolean) task.getConfigValue("reverse-if-broken"))) {
                 super.debug("reverse-if-broken is enabled, checking block", quest.getId(), task.getId(), event.getPlayer().getUniqueId());
                 if (TaskUtils.matchBlock(this, pendingTask, event.getBlock(), player.getUniqueId())) {
-                    int progress = TaskUtils.getIntegerTaskProgress(taskProgress);
-                    taskProgress.setProgress(--progress);
-                    super.debug("Decrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
+                    int progress = TaskUtils.decrementIntegerTaskProgress(taskProgress);
+                    super.debug(() -> "Decrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
                 }
             }
         }
@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -44,28 +45,28 @@ public final class DealDamageTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
-            super.debug("Player damaged " + entity.getType() + " for " + damage, quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Player damaged " + entity.getType() + " for " + damage, quest.getId(), task.getId(), player.getUniqueId());
 
             boolean allowOnlyCreatures = TaskUtils.getConfigBoolean(task, "allow-only-creatures", true);
             if (allowOnlyCreatures && !(event.getEntity() instanceof Creature)) {
-                super.debug(entity.getType() + " is not a creature but allow-only-creatures is true, continuing...", quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> entity.getType() + " is not a creature but allow-only-creatures is true, continuing...", quest.getId(), task.getId(), player.getUniqueId());
                 continue;
             }
 
             double progressDamage = TaskUtils.getDecimalTaskProgress(taskProgress);
             int damageNeeded = (int) task.getConfigValue("amount");
 
-            taskProgress.setProgress(progressDamage + damage);
-            super.debug("Updating task progress (now " + (progressDamage + damage) + ")", quest.getId(), task.getId(), player.getUniqueId());
+            taskProgress.setDoubleProgress(progressDamage + damage);
+            super.debug(() -> "Updating task progress (now " + (progressDamage + damage) + ")", quest.getId(), task.getId(), player.getUniqueId());
 
-            if (((double) taskProgress.getProgress()) >= (double) damageNeeded) {
+            if (taskProgress.hasReached(damageNeeded)) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
-                taskProgress.setProgress(damageNeeded);
+                taskProgress.setIntProgress(damageNeeded);
                 taskProgress.setCompleted(true);
             }
         }
@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -62,7 +63,7 @@ public final class DistancefromTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
@@ -72,7 +73,7 @@ public final class DistancefromTaskType extends BukkitTaskType {
             String worldString = (String) task.getConfigValue("world");
             World world = Bukkit.getWorld(worldString);
             if (!player.getWorld().equals(world)) {
-                super.debug("World " + worldString + " does not exist or isn't the player world, continuing...", quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> "World " + worldString + " does not exist or isn't the player world, continuing...", quest.getId(), task.getId(), player.getUniqueId());
                 continue;
             }
 
@@ -85,7 +86,7 @@ public final class DistancefromTaskType extends BukkitTaskType {
             Location location = new Location(world, x, y, z);
             double playerDistanceSquared = player.getLocation().distanceSquared(location);
 
-            super.debug("Player is " + playerDistanceSquared + "m squared away", quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Player is " + playerDistanceSquared + "m squared away", quest.getId(), task.getId(), player.getUniqueId());
 
             if (playerDistanceSquared > distanceSquared) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
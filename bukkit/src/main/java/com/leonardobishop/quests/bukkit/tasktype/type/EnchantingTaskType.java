@@ -4,6 +4,7 @@ import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.item.QuestItem;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -42,7 +43,7 @@ public final class EnchantingTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
@@ -65,27 +66,27 @@ public final class EnchantingTaskType extends BukkitTaskType {
                 for (String enchantment : enchantments) {
                     Enchantment enchantmentObject = Enchantment.getByName(enchantment);
                     if (enchantmentObject == null) {
-                        super.debug("Enchantment '" + enchantment + "' does not exist, skipping...", quest.getId(), task.getId(), player.getUniqueId());
+                        super.debug(() -> "Enchantment '" + enchantment + "' does not exist, skipping...", quest.getId(), task.getId(), player.getUniqueId());
                         continue;
                     }
                     if (e.getEnchantsToAdd().containsKey(enchantmentObject)) {
-                        super.debug("Enchantments to add contains enchantment '" + enchantment + "'", quest.getId(), task.getId(), player.getUniqueId());
+                        super.debug(() -> "Enchantments to add contains enchantment '" + enchantment + "'", quest.getId(), task.getId(), player.getUniqueId());
                         if (task.hasConfigKey("min-level")) {
                             int level = (int) task.getConfigValue("min-level");
-                            super.debug("Minimum level of " + level + " is specified", quest.getId(), task.getId(), player.getUniqueId());
+                            super.debug(() -> "Minimum level of " + level + " is specified", quest.getId(), task.getId(), player.getUniqueId());
                             if (e.getEnchantsToAdd().get(enchantmentObject) >= level) {
                                 hasEnchantment = true;
                                 super.debug("Item has minimum required level", quest.getId(), task.getId(), player.getUniqueId());
                                 break;
                             } else {
-                                super.debug("Item does not have minimum level (level = " + e.getEnchantsToAdd().get(enchantmentObject) + ")", quest.getId(), task.getId(), player.getUniqueId());
+                                super.debug(() -> "Item does not have minimum level (level = " + e.getEnchantsToAdd().get(enchantmentObject) + ")", quest.getId(), task.getId(), player.getUniqueId());
                             }
                         } else {
                             hasEnchantment = true;
                             break;
                         }
                     } else {
-                        super.debug("Enchantments to add does not contains enchantment '" + enchantment + "'", quest.getId(), task.getId(), player.getUniqueId());
+                        super.debug(() -> "Enchantments to add does not contains enchantment '" + enchantment + "'", quest.getId(), task.getId(), player.getUniqueId());
                     }
                 }
             }
@@ -98,7 +99,7 @@ public final class EnchantingTaskType extends BukkitTaskType {
             int enchantsNeeded = (int) task.getConfigValue("amount");
 
             int progress = TaskUtils.incrementIntegerTaskProgress(taskProgress);
-            super.debug("Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
 
             if (progress >= enchantsNeeded) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -35,25 +36,25 @@ public final class ExpEarnTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
             int amountEarned = e.getAmount();
 
-            super.debug("Player earned " + amountEarned + " XP", quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Player earned " + amountEarned + " XP", quest.getId(), task.getId(), player.getUniqueId());
 
             int expNeeded = (int) task.getConfigValue("amount");
 
             int progress = TaskUtils.getIntegerTaskProgress(taskProgress);
             int newProgress = progress + amountEarned;
-            taskProgress.setProgress(newProgress);
-            super.debug("Updating task progress (now " + (newProgress) + ")", quest.getId(), task.getId(), player.getUniqueId());
+            taskProgress.setIntProgress(newProgress);
+            super.debug(() -> "Updating task progress (now " + (newProgress) + ")", quest.getId(), task.getId(), player.getUniqueId());
 
             if (newProgress >= expNeeded) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
-                taskProgress.setProgress(newProgress);
+                taskProgress.setIntProgress(newProgress);
                 taskProgress.setCompleted(true);
             }
         }
@@ -6,6 +6,7 @@ import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.item.QuestItem;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -19,11 +20,16 @@ import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.player.PlayerBucketEmptyEvent;
 import org.bukkit.event.player.PlayerBucketFillEvent;
 import org.bukkit.event.player.PlayerPickupItemEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
 
 public final class InventoryTaskType extends BukkitTaskType {
 
     private final BukkitQuestsPlugin plugin;
     private final Table<String, String, QuestItem> fixedQuestItemCache = HashBasedTable.create();
+    private final Set<UUID> pendingChecks = new LinkedHashSet<>();
+    private BukkitTask pendingChecksTask;
 
     public InventoryTaskType(BukkitQuestsPlugin plugin) {
         super("inventory", TaskUtils.TASK_ATTRIBUTION_STRING, "Obtain a set of items.");
@@ -53,28 +59,54 @@ public final class InventoryTaskType extends BukkitTaskType {
     public void onItemPickup(PlayerPickupItemEvent event) {
         if (event.getPlayer().hasMetadata("NPC")) return;
 
-        Bukkit.getScheduler().runTaskLater(plugin, () -> this.checkInventory(event.getPlayer()), 1L);
+        queueInventoryCheck(event.getPlayer());
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onInventoryClose(InventoryCloseEvent event) {
-        Bukkit.getScheduler().runTaskLater(plugin, () -> checkInventory((Player) event.getPlayer()), 1L); //Still some work to do as it doesn't really work
+        queueInventoryCheck((Player) event.getPlayer()); //Still some work to do as it doesn't really work
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBucketEmpty(PlayerBucketEmptyEvent event) {
-        Bukkit.getScheduler().runTaskLater(plugin, () -> checkInventory(event.getPlayer()), 1L);
+        queueInventoryCheck(event.getPlayer());
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBucketFill(PlayerBucketFillEvent event) {
-        Bukkit.getScheduler().runTaskLater(plugin, () -> checkInventory(event.getPlayer()), 1L);
+        queueInventoryCheck(event.getPlayer());
     }
 
     private final class BucketEntityListener implements Listener {
         @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
         public void onBucketEntity(org.bukkit.event.player.PlayerBucketEntityEvent event) {
-            Bukkit.getScheduler().runTaskLater(plugin, () -> checkInventory(event.getPlayer()), 1L);
+            queueInventoryCheck(event.getPlayer());
+        }
+    }
+
+    /**
+     * Marks the inventory of a player to be checked on the next tick. Players marked several times
+     * before then, such as when picking up a stream of items, are only checked once.
+     */
+    private void queueInventoryCheck(Player player) {
+        QPlayer qPlayer = plugin.getPlayerManager().getPlayer(player.getUniqueId());
+        if (qPlayer == null || qPlayer.getPendingTasks(getType()).isEmpty()) {
+            return;
+        }
+
+        pendingChecks.add(player.getUniqueId());
+        if (pendingChecksTask == null) {
+            pendingChecksTask = Bukkit.getScheduler().runTaskLater(plugin, this::drainInventoryChecks, 1L);
+        }
+    }
+
+    private void drainInventoryChecks() {
+        pendingChecksTask = null;
+        List<UUID> players = new ArrayList<>(pendingChecks);
+        pendingChecks.clear();
+
+        for (UUID uuid : players) {
+            checkInventory(Bukkit.getPlayer(uuid));
         }
     }
 
@@ -89,16 +121,15 @@ public final class InventoryTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        List<PendingTask> pendingTasks = TaskUtils.getApplicablePendingTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD);
+        if (pendingTasks.isEmpty()) {
+            return;
+        }
+
+        List<QuestItem> questItems = new ArrayList<>(pendingTasks.size());
+        for (PendingTask pendingTask : pendingTasks) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
-            TaskProgress taskProgress = pendingTask.taskProgress();
-
-            super.debug("Inventory check triggered", quest.getId(), task.getId(), player.getUniqueId());
-
-            int itemsNeeded = (int) task.getConfigValue("amount");
-            boolean remove = TaskUtils.getConfigBoolean(task, "remove-items-when-complete");
-            boolean allowPartial = TaskUtils.getConfigBoolean(task, "allow-partial-completion");
 
             QuestItem qi;
             if ((qi = fixedQuestItemCache.get(quest.getId(), task.getId())) == null) {
@@ -106,12 +137,31 @@ public final class InventoryTaskType extends BukkitTaskType {
                 fixedQuestItemCache.put(quest.getId(), task.getId(), fetchedItem);
                 qi = fetchedItem;
             }
+            questItems.add(qi);
+        }
+
+        // scanned once for all tasks, and again only if a task removes items from the inventory
+        int[][] amountsPerSlot = null;
+        for (int i = 0; i < pendingTasks.size(); i++) {
+            PendingTask pendingTask = pendingTasks.get(i);
+            Quest quest = pendingTask.quest();
+            Task task = pendingTask.task();
+            TaskProgress taskProgress = pendingTask.taskProgress();
+
+            super.debug("Inventory check triggered", quest.getId(), task.getId(), player.getUniqueId());
+
+            int itemsNeeded = (int) task.getConfigValue("amount");
+            boolean remove = TaskUtils.getConfigBoolean(task, "remove-items-when-complete");
+            boolean allowPartial = TaskUtils.getConfigBoolean(task, "allow-partial-completion");
 
             int progress = TaskUtils.getIntegerTaskProgress(taskProgress);
 
             int total;
-            int[] amountPerSlot = TaskUtils.getAmountsPerSlot(player, qi);
-            super.debug("Player has " + amountPerSlot[36] + " of the required item", quest.getId(), task.getId(), player.getUniqueId());
+            if (amountsPerSlot == null) {
+                amountsPerSlot = TaskUtils.getAmountsPerSlot(player, questItems);
+            }
+            int[] amountPerSlot = amountsPerSlot[i];
+            super.debug(() -> "Player has " + amountPerSlot[36] + " of the required item", quest.getId(), task.getId(), player.getUniqueId());
 
             if (allowPartial) {
                 total = Math.min(amountPerSlot[36], itemsNeeded - progress);
@@ -123,10 +173,11 @@ public final class InventoryTaskType extends BukkitTaskType {
                 // We must ALWAYS remove items if partial completion is allowed
                 // https://github.com/LMBishop/Quests/issues/375
                 TaskUtils.removeItemsInSlots(player, amountPerSlot, total);
+                amountsPerSlot = null;
                 super.debug("Removing items from inventory", quest.getId(), task.getId(), player.getUniqueId());
 
                 progress += total;
-                taskProgress.setProgress(progress);
+                taskProgress.setIntProgress(progress);
                 super.debug("Updating task progress (now " + (progress) + ")", quest.getId(), task.getId(), player.getUniqueId());
 
                 if (progress >= itemsNeeded) {
@@ -136,13 +187,14 @@ public final class InventoryTaskType extends BukkitTaskType {
             } else {
                 total = Math.min(amountPerSlot[36], itemsNeeded);
 
-                taskProgress.setProgress(total);
+                taskProgress.setIntProgress(total);
                 if (total >= itemsNeeded) {
                     taskProgress.setCompleted(true);
                     super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
 
                     if (remove) {
                         TaskUtils.removeItemsInSlots(player, amountPerSlot, total);
+                        amountsPerSlot = null;
                         super.debug("Removing items from inventory", quest.getId(), task.getId(), player.getUniqueId());
                     }
                 }
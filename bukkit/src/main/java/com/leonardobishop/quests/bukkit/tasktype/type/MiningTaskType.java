@@ -5,6 +5,7 @@ import com.leonardobishop.quests.bukkit.hook.coreprotect.AbstractCoreProtectHook
 import com.leonardobishop.quests.bukkit.hook.playerblocktracker.AbstractPlayerBlockTrackerHook;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -55,12 +56,12 @@ public final class MiningTaskType extends BukkitTaskType {
         ItemStack item = plugin.getVersionSpecificHandler().getItemInMainHand(player);
         boolean silkTouchPresent = item != null && item.getEnchantmentLevel(Enchantment.SILK_TOUCH) > 0;
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
-            super.debug("Player mined block " + material.name(), quest.getId(), task.getId(), event.getPlayer().getUniqueId());
+            super.debug(() -> "Player mined block " + material.name(), quest.getId(), task.getId(), event.getPlayer().getUniqueId());
 
             boolean allowSilkTouch = (boolean) task.getConfigValue("allow-silk-touch", true);
             if (!allowSilkTouch && silkTouchPresent) {
@@ -91,7 +92,7 @@ public final class MiningTaskType extends BukkitTaskType {
 
                 Runnable increment = () -> {
                     int progress = TaskUtils.incrementIntegerTaskProgress(taskProgress);
-                    super.debug("Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
+                    super.debug(() -> "Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
 
                     int amount = (int) task.getConfigValue("amount");
                     if (progress >= amount) {
@@ -117,7 +118,7 @@ public final class MiningTaskType extends BukkitTaskType {
                                 increment.run();
                             }
                         }).exceptionally(throwable -> {
-                            super.debug("CoreProtect lookup failed: " + throwable.getMessage(), quest.getId(), task.getId(), player.getUniqueId());
+                            super.debug(() -> "CoreProtect lookup failed: " + throwable.getMessage(), quest.getId(), task.getId(), player.getUniqueId());
                             throwable.printStackTrace();
                             return null;
                         });
@@ -149,12 +150,12 @@ public final class MiningTaskType extends BukkitTaskType {
         Block block = event.getBlock();
         Material material = block.getType();
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
-            super.debug("Player placed block " + material.name(), quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Player placed block " + material.name(), quest.getId(), task.getId(), player.getUniqueId());
 
             boolean reverseIfPlaced = (boolean) task.getConfigValue("reverse-if-placed", false);
             if (!reverseIfPlaced) {
@@ -165,7 +166,7 @@ public final class MiningTaskType extends BukkitTaskType {
 
             if (TaskUtils.matchBlock(this, pendingTask, block, player.getUniqueId())) {
                 int progress = TaskUtils.decrementIntegerTaskProgress(taskProgress);
-                super.debug("Decrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> "Decrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
             }
         }
     }
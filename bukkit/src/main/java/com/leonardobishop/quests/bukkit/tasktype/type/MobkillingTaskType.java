@@ -7,6 +7,7 @@ import com.leonardobishop.quests.bukkit.item.QuestItem;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
 import com.leonardobishop.quests.bukkit.util.chat.Chat;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -60,12 +61,12 @@ public final class MobkillingTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(killer, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(killer, qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
-            super.debug("Player killed " + mob.getType(), quest.getId(), task.getId(), killer.getUniqueId());
+            super.debug(() -> "Player killed " + mob.getType(), quest.getId(), task.getId(), killer.getUniqueId());
 
             List<String> configEntities = TaskUtils.getConfigStringList(task, task.getConfigValues().containsKey("mob") ? "mob" : "mobs");
 
@@ -83,11 +84,11 @@ public final class MobkillingTaskType extends BukkitTaskType {
             }
 
             if (!configEntities.isEmpty()) {
-                super.debug("List of required names entities; mob type is " + mob.getType(), quest.getId(), task.getId(), killer.getUniqueId());
+                super.debug(() -> "List of required names entities; mob type is " + mob.getType(), quest.getId(), task.getId(), killer.getUniqueId());
 
                 boolean validMob = false;
                 for (String entry : configEntities) {
-                    super.debug("Checking against mob '" + entry + "'", quest.getId(), task.getId(), killer.getUniqueId());
+                    super.debug(() -> "Checking against mob '" + entry + "'", quest.getId(), task.getId(), killer.getUniqueId());
                     try {
                         EntityType entity = EntityType.valueOf(entry);
                         if (mob.getType() == entity) {
@@ -108,7 +109,7 @@ public final class MobkillingTaskType extends BukkitTaskType {
             List<String> configNames = TaskUtils.getConfigStringList(task, task.getConfigValues().containsKey("name") ? "name" : "names");
 
             if (!configNames.isEmpty()) {
-                super.debug("List of required names exists; mob name is '" + Chat.legacyStrip(mob.getCustomName()) + "'", quest.getId(), task.getId(), killer.getUniqueId());
+                super.debug(() -> "List of required names exists; mob name is '" + Chat.legacyStrip(mob.getCustomName()) + "'", quest.getId(), task.getId(), killer.getUniqueId());
 
                 boolean validName = false;
                 for (String name : configNames) {
@@ -134,7 +135,7 @@ public final class MobkillingTaskType extends BukkitTaskType {
                     continue;
                 }
 
-                super.debug("Specific item is required; player held item is of type '" + item.getType() + "'", quest.getId(), task.getId(), killer.getUniqueId());
+                super.debug(() -> "Specific item is required; player held item is of type '" + item.getType() + "'", quest.getId(), task.getId(), killer.getUniqueId());
 
                 QuestItem qi;
                 if ((qi = fixedQuestItemCache.get(quest.getId(), task.getId())) == null) {
@@ -154,7 +155,7 @@ public final class MobkillingTaskType extends BukkitTaskType {
             int mobKillsNeeded = (int) task.getConfigValue("amount");
 
             int progress = TaskUtils.incrementIntegerTaskProgress(taskProgress);
-            super.debug("Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), killer.getUniqueId());
+            super.debug(() -> "Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), killer.getUniqueId());
 
             if (progress >= mobKillsNeeded) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), killer.getUniqueId());
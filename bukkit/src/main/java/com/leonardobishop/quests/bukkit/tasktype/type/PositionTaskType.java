@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -47,7 +48,7 @@ public final class PositionTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
@@ -65,7 +66,7 @@ public final class PositionTaskType extends BukkitTaskType {
             int paddingSquared = padding * padding;
             World world = Bukkit.getWorld(worldString);
             if (world == null) {
-                super.debug("World " + worldString + " does not exist, continuing...", quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> "World " + worldString + " does not exist, continuing...", quest.getId(), task.getId(), player.getUniqueId());
                 continue;
             }
 
@@ -77,7 +78,7 @@ public final class PositionTaskType extends BukkitTaskType {
             } else if (padding != 0 && player.getWorld().equals(world)) {
                 double playerDistanceSquared = player.getLocation().distanceSquared(location);
 
-                super.debug("Player is " + playerDistanceSquared + "m squared away (padding squared = " + paddingSquared + ")", quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> "Player is " + playerDistanceSquared + "m squared away (padding squared = " + paddingSquared + ")", quest.getId(), task.getId(), player.getUniqueId());
 
                 if (playerDistanceSquared <= paddingSquared) {
                     super.debug("Player is within distance padding", quest.getId(), task.getId(), player.getUniqueId());
@@ -3,10 +3,12 @@ package com.leonardobishop.quests.bukkit.tasktype.type;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
 import com.leonardobishop.quests.common.quest.Task;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Boat;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Minecart;
@@ -15,14 +17,22 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.vehicle.VehicleMoveEvent;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 public final class WalkingTaskType extends BukkitTaskType {
 
+    private static final long FLUSH_INTERVAL = 20L;
+    private static final Mode[] MODES = Mode.values();
+    private static final int ANY_MODE = MODES.length;
+
     private final BukkitQuestsPlugin plugin;
+    private final Map<UUID, Distances> distances = new HashMap<>();
+    private BukkitTask flushTask;
 
     public WalkingTaskType(BukkitQuestsPlugin plugin) {
         super("walking", TaskUtils.TASK_ATTRIBUTION_STRING, "Walk a set distance.");
@@ -45,6 +55,18 @@ public final class WalkingTaskType extends BukkitTaskType {
         ), "mode"));
     }
 
+    @Override
+    public void onReady() {
+        if (this.flushTask == null) {
+            this.flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushAll, FLUSH_INTERVAL, FLUSH_INTERVAL);
+        }
+    }
+
+    @Override
+    public void onDisable() {
+        flushAll();
+    }
+
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
         if (event.getFrom().getBlockX() == event.getTo().getBlockX() && event.getFrom().getBlockZ() == event.getTo().getBlockZ()) {
@@ -73,6 +95,24 @@ public final class WalkingTaskType extends BukkitTaskType {
         }
     }
 
+    // before the player is removed from the player manager, so that the distance is saved with the player
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Distances distances = this.distances.remove(event.getPlayer().getUniqueId());
+        if (distances == null) {
+            return;
+        }
+
+        QPlayer qPlayer = plugin.getPlayerManager().getPlayer(event.getPlayer().getUniqueId());
+        if (qPlayer != null) {
+            flush(event.getPlayer(), qPlayer, distances);
+        }
+    }
+
+    /**
+     * Adds a block moved to the distances of a player, for each mode their pending tasks need which the player is moving in.
+     * Task progress is only written when the distances are flushed.
+     */
     private void handle(Player player) {
         if (player.hasMetadata("NPC")) {
             return;
@@ -83,54 +123,172 @@ public final class WalkingTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player.getPlayer(), qPlayer, this, TaskUtils.TaskConstraint.WORLD)) {
+        List<PendingTask> pendingTasks = qPlayer.getPendingTasks(getType());
+        if (pendingTasks.isEmpty()) {
+            return;
+        }
+
+        Distances distances = this.distances.computeIfAbsent(player.getUniqueId(), uuid -> new Distances());
+        String world = player.getWorld().getName();
+        // the distance is attributed to the world and the tasks it was moved in
+        if (distances.dirty && (!world.equals(distances.world) || pendingTasks != distances.pendingTasks)) {
+            flush(player, qPlayer, distances);
+        }
+        if (pendingTasks != distances.pendingTasks) {
+            distances.pendingTasks = pendingTasks;
+            distances.modeMask = getModeMask(pendingTasks);
+        }
+        distances.world = world;
+
+        distances.moved[ANY_MODE]++;
+        int modeMask = distances.modeMask;
+        for (Mode mode : MODES) {
+            if ((modeMask & (1 << mode.ordinal())) != 0 && validateMode(player, mode)) {
+                distances.moved[mode.ordinal()]++;
+            }
+        }
+        distances.dirty = true;
+    }
+
+    private void flushAll() {
+        for (Map.Entry<UUID, Distances> entry : distances.entrySet()) {
+            Distances distances = entry.getValue();
+            if (!distances.dirty) {
+                continue;
+            }
+
+            Player player = Bukkit.getPlayer(entry.getKey());
+            QPlayer qPlayer = plugin.getPlayerManager().getPlayer(entry.getKey());
+            if (player == null || qPlayer == null) {
+                distances.reset();
+                continue;
+            }
+            flush(player, qPlayer, distances);
+        }
+    }
+
+    private void flush(Player player, QPlayer qPlayer, Distances distances) {
+        if (!distances.dirty) {
+            return;
+        }
+
+        // credit the tasks the distance was counted for, rather than whatever is pending now
+        for (PendingTask pendingTask : distances.pendingTasks) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
-            super.debug("Player moved", quest.getId(), task.getId(), player.getUniqueId());
+            if (taskProgress.isCompleted() || !qPlayer.hasStartedQuest(quest)) {
+                continue;
+            }
 
-            final String mode = (String) task.getConfigValue("mode");
-            if (mode != null && !validateMode(player, mode)) {
-                super.debug("Player's mode does not match required mode, continuing...", quest.getId(), task.getId(), player.getUniqueId());
+            if (!TaskUtils.validateWorld(distances.world, task)) {
                 continue;
             }
 
-            int progress = TaskUtils.incrementIntegerTaskProgress(taskProgress);
-            super.debug("Incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
+            final String configMode = (String) task.getConfigValue("mode");
+            int moved;
+            if (configMode == null) {
+                moved = distances.moved[ANY_MODE];
+            } else {
+                Mode mode = Mode.fromConfig(configMode);
+                moved = mode == null ? 0 : distances.moved[mode.ordinal()];
+            }
+            if (moved == 0) {
+                super.debug("Player has not moved in the required mode, continuing...", quest.getId(), task.getId(), player.getUniqueId());
+                continue;
+            }
 
             int distanceNeeded = (int) task.getConfigValue("distance");
+            // several blocks are credited at once, so do not go past the distance as moving block by block would not
+            int current = TaskUtils.getIntegerTaskProgress(taskProgress);
+            int progress = Math.max(current, Math.min(current + moved, distanceNeeded));
+            taskProgress.setIntProgress(progress);
+            super.debug(() -> "Player moved " + moved + " blocks, incrementing task progress (now " + progress + ")", quest.getId(), task.getId(), player.getUniqueId());
 
             if (progress >= distanceNeeded) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
                 taskProgress.setCompleted(true);
             }
         }
+        distances.reset();
+    }
+
+    private int getModeMask(List<PendingTask> pendingTasks) {
+        int modeMask = 0;
+        for (PendingTask pendingTask : pendingTasks) {
+            Mode mode = Mode.fromConfig((String) pendingTask.task().getConfigValue("mode"));
+            if (mode != null) {
+                modeMask |= 1 << mode.ordinal();
+            }
+        }
+        return modeMask;
     }
 
-    private boolean validateMode(Player player, String mode) {
+    private boolean validateMode(Player player, Mode mode) {
         return switch (mode) {
-            case "boat" -> player.getVehicle() instanceof Boat;
-            case "horse" -> plugin.getVersionSpecificHandler().isPlayerOnHorse(player);
-            case "pig" -> player.getVehicle() instanceof Pig;
-            case "minecart" -> player.getVehicle() instanceof Minecart;
-            case "strider" -> plugin.getVersionSpecificHandler().isPlayerOnStrider(player);
-            case "sneaking" -> // sprinting does not matter
+            case BOAT -> player.getVehicle() instanceof Boat;
+            case HORSE -> plugin.getVersionSpecificHandler().isPlayerOnHorse(player);
+            case PIG -> player.getVehicle() instanceof Pig;
+            case MINECART -> player.getVehicle() instanceof Minecart;
+            case STRIDER -> plugin.getVersionSpecificHandler().isPlayerOnStrider(player);
+            case SNEAKING -> // sprinting does not matter
                     player.isSneaking() && !player.isSwimming() && !player.isFlying()
                             && !plugin.getVersionSpecificHandler().isPlayerGliding(player);
-            case "walking" ->
+            case WALKING ->
                     !player.isSneaking() && !player.isSwimming() && !player.isSprinting() && !player.isFlying()
                             && !plugin.getVersionSpecificHandler().isPlayerGliding(player);
-            case "running" -> !player.isSneaking() && !player.isSwimming() && player.isSprinting() && !player.isFlying()
+            case RUNNING -> !player.isSneaking() && !player.isSwimming() && player.isSprinting() && !player.isFlying()
                     && !plugin.getVersionSpecificHandler().isPlayerGliding(player);
-            case "swimming" -> // sprinting and sneaking do not matter, flying is not possible
+            case SWIMMING -> // sprinting and sneaking do not matter, flying is not possible
                     player.isSwimming() && !plugin.getVersionSpecificHandler().isPlayerGliding(player);
-            case "flying" -> // if the player is flying then the player is flying
+            case FLYING -> // if the player is flying then the player is flying
                     player.isFlying();
-            case "elytra" -> // if the player is gliding then the player is gliding
+            case ELYTRA -> // if the player is gliding then the player is gliding
                     plugin.getVersionSpecificHandler().isPlayerGliding(player);
-            default -> false;
         };
     }
 
+    private enum Mode {
+        BOAT,
+        HORSE,
+        PIG,
+        MINECART,
+        STRIDER,
+        SNEAKING,
+        WALKING,
+        RUNNING,
+        SWIMMING,
+        FLYING,
+        ELYTRA;
+
+        private static @Nullable Mode fromConfig(@Nullable String mode) {
+            if (mode == null) {
+                return null;
+            }
+            for (Mode value : MODES) {
+                if (value.name().equalsIgnoreCase(mode)) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Blocks a player has moved since the last flush, in each mode and in any mode.
+     */
+    private static final class Distances {
+        private final int[] moved = new int[ANY_MODE + 1];
+        private List<PendingTask> pendingTasks;
+        private int modeMask;
+        private String world;
+        private boolean dirty;
+
+        private void reset() {
+            Arrays.fill(moved, 0);
+            dirty = false;
+        }
+    }
+
 }
@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type.dependent;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -34,17 +35,17 @@ public final class ASkyBlockLevelTaskType extends BukkitTaskType {
 
         Player player = Bukkit.getPlayer(event.getPlayer());
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
-            super.debug("Player island level updated to " + event.getLongLevel(), quest.getId(), task.getId(), event.getPlayer());
+            super.debug(() -> "Player island level updated to " + event.getLongLevel(), quest.getId(), task.getId(), event.getPlayer());
 
             long islandLevelNeeded = (long) (int) task.getConfigValue("level");
 
             taskProgress.setProgress(event.getLongLevel());
-            super.debug("Updating task progress (now " + event.getLongLevel() + ")", quest.getId(), task.getId(), event.getPlayer());
+            super.debug(() -> "Updating task progress (now " + event.getLongLevel() + ")", quest.getId(), task.getId(), event.getPlayer());
 
             if ((int) taskProgress.getProgress() >= islandLevelNeeded) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
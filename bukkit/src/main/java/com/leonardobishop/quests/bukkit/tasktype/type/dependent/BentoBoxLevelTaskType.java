@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type.dependent;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -54,7 +55,7 @@ public final class BentoBoxLevelTaskType extends BukkitTaskType {
                     continue;
                 }
 
-                for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+                for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
                     Quest quest = pendingTask.quest();
                     Task task = pendingTask.task();
                     TaskProgress taskProgress = pendingTask.taskProgress();
@@ -62,10 +63,10 @@ public final class BentoBoxLevelTaskType extends BukkitTaskType {
                     long islandLevelNeeded = (long) (int) task.getConfigValue("level");
                     long newLevel = (long) event.getKeyValues().get("level");
 
-                    super.debug("Player island level updated to " + newLevel, quest.getId(), task.getId(), member);
+                    super.debug(() -> "Player island level updated to " + newLevel, quest.getId(), task.getId(), member);
 
                     taskProgress.setProgress(newLevel);
-                    super.debug("Updating task progress (now " + newLevel + ")", quest.getId(), task.getId(), player.getUniqueId());
+                    super.debug(() -> "Updating task progress (now " + newLevel + ")", quest.getId(), task.getId(), player.getUniqueId());
 
                     if (newLevel >= islandLevelNeeded) {
                         super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
@@ -8,6 +8,7 @@ import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
 import com.leonardobishop.quests.bukkit.util.chat.Chat;
 import com.leonardobishop.quests.common.config.ConfigProblem;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -63,7 +64,7 @@ public final class CitizensDeliverTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
@@ -72,12 +73,12 @@ public final class CitizensDeliverTaskType extends BukkitTaskType {
 
             if (task.getConfigValue("npc-id") != null) {
                 if (!task.getConfigValue("npc-id").equals(npc.getId())) {
-                    super.debug("NPC id ('" + npc.getId() + "') does not match required id, continuing...", quest.getId(), task.getId(), player.getUniqueId());
+                    super.debug(() -> "NPC id ('" + npc.getId() + "') does not match required id, continuing...", quest.getId(), task.getId(), player.getUniqueId());
                     continue;
                 }
             } else if (task.getConfigValue("npc-name") != null) {
                 String npcName = Chat.legacyStrip(Chat.legacyColor(npc.getName()));
-                super.debug("NPC name is required, current name = '" + npcName + "'", quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> "NPC name is required, current name = '" + npcName + "'", quest.getId(), task.getId(), player.getUniqueId());
                 if (!Chat.legacyStrip(Chat.legacyColor(String.valueOf(task.getConfigValue("npc-name"))))
                         .equals(npcName)) {
                     super.debug("NPC name does not match required name, continuing...", quest.getId(), task.getId(), player.getUniqueId());
@@ -99,7 +100,7 @@ public final class CitizensDeliverTaskType extends BukkitTaskType {
 
             int total;
             int[] amountPerSlot = TaskUtils.getAmountsPerSlot(player, qi);
-            super.debug("Player has " + amountPerSlot[36] + " of the required item", quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Player has " + amountPerSlot[36] + " of the required item", quest.getId(), task.getId(), player.getUniqueId());
 
             if (allowPartial) {
                 total = Math.min(amountPerSlot[36], itemsNeeded - progress);
@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type.dependent;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.QuestProgress;
 import com.leonardobishop.quests.common.player.questprogressfile.QuestProgressFile;
@@ -50,13 +51,13 @@ public final class EssentialsBalanceTaskType extends BukkitTaskType {
 
         QuestProgressFile questProgressFile = qPlayer.getQuestProgressFile();
         QuestProgress questProgress = questProgressFile.getQuestProgress(quest);
-        TaskProgress taskProgress = questProgress.getTaskProgress(task.getId());
+        TaskProgress taskProgress = questProgress.getTaskProgress(task);
 
         BigDecimal balance = ess.getUser(player).getMoney();
-        super.debug("Player balance updated to " + balance, quest.getId(), task.getId(), player.getUniqueId());
+        super.debug(() -> "Player balance updated to " + balance, quest.getId(), task.getId(), player.getUniqueId());
 
         taskProgress.setProgress(balance);
-        super.debug("Updating task progress (now " + balance + ")", quest.getId(), task.getId(), player.getUniqueId());
+        super.debug(() -> "Updating task progress (now " + balance + ")", quest.getId(), task.getId(), player.getUniqueId());
 
         int earningsNeeded = (int) task.getConfigValue("amount");
         BigDecimal amount = BigDecimal.valueOf(earningsNeeded);
@@ -78,16 +79,16 @@ public final class EssentialsBalanceTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
             BigDecimal balance = event.getNewBalance();
-            super.debug("Player balance updated to " + balance, quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Player balance updated to " + balance, quest.getId(), task.getId(), player.getUniqueId());
 
             taskProgress.setProgress(balance);
-            super.debug("Updating task progress (now " + balance + ")", quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Updating task progress (now " + balance + ")", quest.getId(), task.getId(), player.getUniqueId());
 
             int earningsNeeded = (int) task.getConfigValue("amount");
             BigDecimal amount = BigDecimal.valueOf(earningsNeeded);
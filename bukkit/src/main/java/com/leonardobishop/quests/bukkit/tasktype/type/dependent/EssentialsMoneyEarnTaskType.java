@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type.dependent;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -38,13 +39,13 @@ public final class EssentialsMoneyEarnTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
             BigDecimal balance = event.getNewBalance();
-            super.debug("Player balance updated to " + balance, quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Player balance updated to " + balance, quest.getId(), task.getId(), player.getUniqueId());
 
             Object progress = taskProgress.getProgress();
             BigDecimal current;
@@ -61,7 +62,7 @@ public final class EssentialsMoneyEarnTaskType extends BukkitTaskType {
             BigDecimal newProgress = current.add(difference);
 
             taskProgress.setProgress(newProgress);
-            super.debug("Updating task progress (now " + newProgress + ")", quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Updating task progress (now " + newProgress + ")", quest.getId(), task.getId(), player.getUniqueId());
 
             int earningsNeeded = (int) task.getConfigValue("amount");
             BigDecimal amount = BigDecimal.valueOf(earningsNeeded);
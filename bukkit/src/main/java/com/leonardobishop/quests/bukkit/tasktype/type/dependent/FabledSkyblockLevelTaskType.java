@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type.dependent;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -47,17 +48,17 @@ public final class FabledSkyblockLevelTaskType extends BukkitTaskType {
                 continue;
             }
 
-            for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+            for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
                 Quest quest = pendingTask.quest();
                 Task task = pendingTask.task();
                 TaskProgress taskProgress = pendingTask.taskProgress();
 
                 int islandLevelNeeded = (int) task.getConfigValue("level");
 
-                super.debug("Player island level updated to " + event.getLevel().getLevel(), quest.getId(), task.getId(), member);
+                super.debug(() -> "Player island level updated to " + event.getLevel().getLevel(), quest.getId(), task.getId(), member);
 
                 taskProgress.setProgress(event.getLevel().getLevel());
-                super.debug("Updating task progress (now " + event.getLevel().getLevel() + ")", quest.getId(), task.getId(), member);
+                super.debug(() -> "Updating task progress (now " + event.getLevel().getLevel() + ")", quest.getId(), task.getId(), member);
 
                 if (event.getLevel().getLevel() >= islandLevelNeeded) {
                     super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
@@ -5,6 +5,7 @@ import com.iridium.iridiumskyblock.api.IslandWorthCalculatedEvent;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -50,17 +51,17 @@ public final class IridiumSkyblockValueTaskType extends BukkitTaskType {
                 continue;
             }
 
-            for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+            for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
                 Quest quest = pendingTask.quest();
                 Task task = pendingTask.task();
                 TaskProgress taskProgress = pendingTask.taskProgress();
 
                 int islandValueNeeded = (int) task.getConfigValue("value");
 
-                super.debug("Player island level updated to " + event.getIslandWorth(), quest.getId(), task.getId(), uuid);
+                super.debug(() -> "Player island level updated to " + event.getIslandWorth(), quest.getId(), task.getId(), uuid);
 
                 taskProgress.setProgress(event.getIslandWorth());
-                super.debug("Updating task progress (now " + event.getIslandWorth() + ")", quest.getId(), task.getId(), uuid);
+                super.debug(() -> "Updating task progress (now " + event.getIslandWorth() + ")", quest.getId(), task.getId(), uuid);
 
                 if (((double) taskProgress.getProgress()) >= islandValueNeeded) {
                     super.debug("Marking task as complete", quest.getId(), task.getId(), uuid);
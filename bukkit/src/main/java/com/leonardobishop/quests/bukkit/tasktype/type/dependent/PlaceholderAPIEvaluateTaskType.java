@@ -4,22 +4,22 @@ import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
 import com.leonardobishop.quests.common.config.ConfigProblem;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
 import com.leonardobishop.quests.common.quest.Task;
 import me.clip.placeholderapi.PlaceholderAPI;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 public final class PlaceholderAPIEvaluateTaskType extends BukkitTaskType {
 
     private final BukkitQuestsPlugin plugin;
-    private BukkitTask poll;
+    private final Map<Task, Evaluation> evaluations = new HashMap<>();
 
     public PlaceholderAPIEvaluateTaskType(BukkitQuestsPlugin plugin) {
         super("placeholderapi_evaluate", TaskUtils.TASK_ATTRIBUTION_STRING, "Evaluate the result of a placeholder");
@@ -52,97 +52,79 @@ public final class PlaceholderAPIEvaluateTaskType extends BukkitTaskType {
 
     @Override
     public void onReady() {
-        this.poll = new BukkitRunnable() {
-            @Override
-            public void run() {
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    QPlayer qPlayer = plugin.getPlayerManager().getPlayer(player.getUniqueId());
-                    if (qPlayer == null) {
-                        continue;
-                    }
-
-                    for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, PlaceholderAPIEvaluateTaskType.this)) {
-                        Quest quest = pendingTask.quest();
-                        Task task = pendingTask.task();
-                        TaskProgress taskProgress = pendingTask.taskProgress();
-
-                        PlaceholderAPIEvaluateTaskType.super.debug("Polling PAPI for player", quest.getId(), task.getId(), player.getUniqueId());
-
-                        String placeholder = (String) task.getConfigValue("placeholder");
-                        String evaluates = String.valueOf(task.getConfigValue("evaluates"));
-                        String configOperator = (String) task.getConfigValue("operator");
-                        Operator operator = null;
-                        if (configOperator != null) {
-                            try {
-                                operator = Operator.valueOf(configOperator);
-                            } catch (IllegalArgumentException ignored) { }
-                        }
-                        if (placeholder != null && evaluates != null) {
-                            double numericEvaluates = 0;
-                            if (operator != null) {
-                                try {
-                                    numericEvaluates = Double.parseDouble(evaluates);
-                                } catch (NumberFormatException ex) {
-                                    PlaceholderAPIEvaluateTaskType.super.debug("Numeric operator was specified but configured string to evaluate to cannot be parsed into a double, continuing...", quest.getId(), task.getId(), player.getUniqueId());
-                                    continue;
-                                }
-                            }
-
-
-                            String evaluated = PlaceholderAPI.setPlaceholders(player, placeholder);
-                            PlaceholderAPIEvaluateTaskType.super.debug("Evaluation = '" + evaluated + "'", quest.getId(), task.getId(), player.getUniqueId());
-                            if (operator == null && evaluated.equals(evaluates)) {
-                                PlaceholderAPIEvaluateTaskType.super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
-                                taskProgress.setCompleted(true);
-                            } else if (operator != null) {
-                                double numericEvaluated;
-                                try {
-                                    numericEvaluated = Double.parseDouble(evaluated);
-                                } catch (NumberFormatException ex) {
-                                    PlaceholderAPIEvaluateTaskType.super.debug("Numeric operator was specified but evaluated string cannot be parsed into a double, continuing...", quest.getId(), task.getId(), player.getUniqueId());
-                                    continue;
-                                }
-                                PlaceholderAPIEvaluateTaskType.super.debug("Operator = " + operator, quest.getId(), task.getId(), player.getUniqueId());
-                                taskProgress.setProgress(numericEvaluated);
-                                switch (operator) {
-                                    case GREATER_THAN -> {
-                                        if (numericEvaluated > numericEvaluates) {
-                                            PlaceholderAPIEvaluateTaskType.super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
-                                            taskProgress.setCompleted(true);
-                                        }
-                                    }
-                                    case LESS_THAN -> {
-                                        if (numericEvaluated < numericEvaluates) {
-                                            PlaceholderAPIEvaluateTaskType.super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
-                                            taskProgress.setCompleted(true);
-                                        }
-                                    }
-                                    case GREATER_THAN_OR_EQUAL_TO -> {
-                                        if (numericEvaluated >= numericEvaluates) {
-                                            PlaceholderAPIEvaluateTaskType.super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
-                                            taskProgress.setCompleted(true);
-                                        }
-                                    }
-                                    case LESS_THAN_OR_EQUAL_TO -> {
-                                        if (numericEvaluated <= numericEvaluates) {
-                                            PlaceholderAPIEvaluateTaskType.super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
-                                            taskProgress.setCompleted(true);
-                                        }
-                                    }
-                                }
-
-                            }
-                        }
-                    }
+        evaluations.clear();
+        plugin.getTaskPoller().register(this, 30, this::poll);
+    }
+
+    private void poll(Player player, QPlayer qPlayer) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
+            Quest quest = pendingTask.quest();
+            Task task = pendingTask.task();
+            TaskProgress taskProgress = pendingTask.taskProgress();
+
+            super.debug("Polling PAPI for player", quest.getId(), task.getId(), player.getUniqueId());
+
+            Evaluation evaluation = evaluations.computeIfAbsent(task, Evaluation::of);
+            if (evaluation.placeholder() == null) {
+                continue;
+            }
+            Operator operator = evaluation.operator();
+            if (operator != null && Double.isNaN(evaluation.numericEvaluates())) {
+                super.debug("Numeric operator was specified but configured string to evaluate to cannot be parsed into a double, continuing...", quest.getId(), task.getId(), player.getUniqueId());
+                continue;
+            }
+
+            String evaluated = PlaceholderAPI.setPlaceholders(player, evaluation.placeholder());
+            super.debug(() -> "Evaluation = '" + evaluated + "'", quest.getId(), task.getId(), player.getUniqueId());
+            if (operator == null && evaluated.equals(evaluation.evaluates())) {
+                super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
+                taskProgress.setCompleted(true);
+            } else if (operator != null) {
+                double numericEvaluated;
+                try {
+                    numericEvaluated = Double.parseDouble(evaluated);
+                } catch (NumberFormatException ex) {
+                    super.debug("Numeric operator was specified but evaluated string cannot be parsed into a double, continuing...", quest.getId(), task.getId(), player.getUniqueId());
+                    continue;
+                }
+                super.debug("Operator = " + operator, quest.getId(), task.getId(), player.getUniqueId());
+                taskProgress.setProgress(numericEvaluated);
+                if (operator.test(numericEvaluated, evaluation.numericEvaluates())) {
+                    super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
+                    taskProgress.setCompleted(true);
                 }
             }
-        }.runTaskTimer(plugin, 30L, 30L);
+        }
     }
 
     @Override
     public void onDisable() {
-        if (this.poll != null) {
-            this.poll.cancel();
+        plugin.getTaskPoller().unregister(this);
+    }
+
+    /**
+     * The configuration of a task, parsed once rather than every time it is polled.
+     * The numeric value is NaN if it is not numeric.
+     */
+    private record Evaluation(String placeholder, String evaluates, Operator operator, double numericEvaluates) {
+
+        private static Evaluation of(Task task) {
+            String placeholder = (String) task.getConfigValue("placeholder");
+            String evaluates = String.valueOf(task.getConfigValue("evaluates"));
+            String configOperator = (String) task.getConfigValue("operator");
+            Operator operator = null;
+            if (configOperator != null) {
+                try {
+                    operator = Operator.valueOf(configOperator);
+                } catch (IllegalArgumentException ignored) { }
+            }
+            double numericEvaluates = Double.NaN;
+            if (operator != null) {
+                try {
+                    numericEvaluates = Double.parseDouble(evaluates);
+                } catch (NumberFormatException ignored) { }
+            }
+            return new Evaluation(placeholder, evaluates, operator, numericEvaluates);
         }
     }
 
@@ -151,5 +133,14 @@ public final class PlaceholderAPIEvaluateTaskType extends BukkitTaskType {
         LESS_THAN,
         GREATER_THAN_OR_EQUAL_TO,
         LESS_THAN_OR_EQUAL_TO;
+
+        boolean test(double evaluated, double evaluates) {
+            return switch (this) {
+                case GREATER_THAN -> evaluated > evaluates;
+                case LESS_THAN -> evaluated < evaluates;
+                case GREATER_THAN_OR_EQUAL_TO -> evaluated >= evaluates;
+                case LESS_THAN_OR_EQUAL_TO -> evaluated <= evaluates;
+            };
+        }
     }
 }
@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type.dependent;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -42,19 +43,19 @@ public final class PlayerPointsEarnTaskType extends BukkitTaskType {
             return;
         }
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
 
-            super.debug("Player points changed: " + change, quest.getId(), task.getId(), playerId);
+            super.debug(() -> "Player points changed: " + change, quest.getId(), task.getId(), playerId);
 
             int amount = (int) task.getConfigValue("amount");
 
             int progress = TaskUtils.getIntegerTaskProgress(taskProgress);
             int newProgress = change != 0 ? progress + change : 0;
             taskProgress.setProgress(newProgress);
-            super.debug("Updating task progress (now " + newProgress + ")", quest.getId(), task.getId(), playerId);
+            super.debug(() -> "Updating task progress (now " + newProgress + ")", quest.getId(), task.getId(), playerId);
 
             if (newProgress >= amount) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), playerId);
@@ -3,6 +3,7 @@ package com.leonardobishop.quests.bukkit.tasktype.type.dependent;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -83,7 +84,7 @@ public final class ShopGUIPlusSellTaskType extends BukkitTaskType {
 
         int amountBought = result.getAmount();
 
-        for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+        for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
             Quest quest = pendingTask.quest();
             Task task = pendingTask.task();
             TaskProgress taskProgress = pendingTask.taskProgress();
@@ -108,7 +109,7 @@ public final class ShopGUIPlusSellTaskType extends BukkitTaskType {
             int newProgress = progress + amountBought;
             taskProgress.setProgress(newProgress);
 
-            super.debug("Updating task progress (now " + newProgress + ")", quest.getId(), task.getId(), player.getUniqueId());
+            super.debug(() -> "Updating task progress (now " + newProgress + ")", quest.getId(), task.getId(), player.getUniqueId());
 
             if (newProgress >= amountNeeded) {
                 super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
@@ -5,6 +5,7 @@ import com.bgsoftware.superiorskyblock.api.wrappers.SuperiorPlayer;
 import com.leonardobishop.quests.bukkit.BukkitQuestsPlugin;
 import com.leonardobishop.quests.bukkit.tasktype.BukkitTaskType;
 import com.leonardobishop.quests.bukkit.util.TaskUtils;
+import com.leonardobishop.quests.common.player.PendingTask;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.quest.Quest;
@@ -42,7 +43,7 @@ public final class SuperiorSkyblockWorthType extends BukkitTaskType {
                 continue;
             }
 
-            for (TaskUtils.PendingTask pendingTask : TaskUtils.getApplicableTasks(player, qPlayer, this)) {
+            for (PendingTask pendingTask : TaskUtils.getApplicablePendingTasks(player, qPlayer, this)) {
                 Quest quest = pendingTask.quest();
                 Task task = pendingTask.task();
                 TaskProgress taskProgress = pendingTask.taskProgress();
@@ -53,7 +54,7 @@ public final class SuperiorSkyblockWorthType extends BukkitTaskType {
                 BigDecimal bd = new BigDecimal(islandLevelNeeded);
 
                 taskProgress.setProgress(event.getNewLevel().doubleValue());
-                super.debug("Updating task progress (now " + event.getNewLevel().doubleValue() + ")", quest.getId(), task.getId(), player.getUniqueId());
+                super.debug(() -> "Updating task progress (now " + event.getNewLevel().doubleValue() + ")", quest.getId(), task.getId(), player.getUniqueId());
 
                 if (event.getNewLevel().compareTo(bd) > 0) {
                     super.debug("Marking task as complete", quest.getId(), task.getId(), player.getUniqueId());
@@ -0,0 +1,211 @@
+package com.leonardobishop.quests.bukkit.util;
+
+import com.leonardobishop.quests.common.quest.Task;
+import org.bukkit.DyeColor;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An immutable, pre-parsed view of the config values of a {@link Task} which are commonly
+ * read in event handlers, so that they do not have to be parsed on every event.
+ */
+public final class CompiledTaskConfig {
+
+    private final Set<String> worlds;
+    private final BitSet worldIds;
+    private final BlockMatcher blockMatcher;
+    private final Set<DyeColor> dyeColors;
+
+    private CompiledTaskConfig(Task task) {
+        this.worlds = compileWorlds(task.getConfigValue("worlds"));
+        this.worldIds = compileWorldIds(worlds);
+        this.blockMatcher = compileBlockMatcher(task);
+        this.dyeColors = compileDyeColors(task);
+    }
+
+    /**
+     * Compiles the config of a task and attaches it to the task.
+     *
+     * @param task the task to compile
+     * @return the compiled config
+     */
+    public static @NotNull CompiledTaskConfig compile(@NotNull Task task) {
+        Objects.requireNonNull(task, "task cannot be null");
+
+        CompiledTaskConfig compiledTaskConfig = new CompiledTaskConfig(task);
+        task.setCompiledConfig(compiledTaskConfig);
+        return compiledTaskConfig;
+    }
+
+    /**
+     * Gets the compiled config of a task, compiling it if it has not yet been compiled.
+     *
+     * @param task the task to get the compiled config of
+     * @return the compiled config
+     */
+    public static @NotNull CompiledTaskConfig of(@NotNull Task task) {
+        if (task.getCompiledConfig() instanceof CompiledTaskConfig compiledTaskConfig) {
+            return compiledTaskConfig;
+        }
+        return compile(task);
+    }
+
+    /**
+     * @return immutable set of world names the task is restricted to, or null if it is not restricted
+     */
+    public @Nullable Set<String> getWorlds() {
+        return worlds;
+    }
+
+    /**
+     * @return the block matcher for the task, or null if any block matches
+     */
+    public @Nullable BlockMatcher getBlockMatcher() {
+        return blockMatcher;
+    }
+
+    /**
+     * @return immutable set of dye colors for the task, or null if any color matches
+     */
+    public @Nullable Set<DyeColor> getDyeColors() {
+        return dyeColors;
+    }
+
+    public boolean isWorldAllowed(@NotNull String worldName) {
+        return worlds == null || worlds.contains(worldName);
+    }
+
+    /**
+     * @param worldId the id of the world, from {@link WorldIds}
+     * @return true if the task is not restricted to any worlds, or the world is one of them
+     */
+    public boolean isWorldAllowed(int worldId) {
+        return worldIds == null || worldIds.get(worldId);
+    }
+
+    private static Set<String> compileWorlds(Object configurationData) {
+        if (configurationData instanceof List<?> allowedWorldNames) {
+            Set<String> worlds = new HashSet<>();
+            for (Object allowedWorldName : allowedWorldNames) {
+                worlds.add(String.valueOf(allowedWorldName));
+            }
+            return Collections.unmodifiableSet(worlds);
+        }
+
+        if (configurationData instanceof String allowedWorldName) {
+            return Collections.singleton(allowedWorldName);
+        }
+
+        return null;
+    }
+
+    private static BitSet compileWorldIds(Set<String> worlds) {
+        if (worlds == null) {
+            return null;
+        }
+
+        BitSet worldIds = new BitSet();
+        for (String world : worlds) {
+            worldIds.set(WorldIds.of(world));
+        }
+        return worldIds;
+    }
+
+    private static BlockMatcher compileBlockMatcher(Task task) {
+        List<String> checkBlocks = TaskUtils.getConfigStringList(task, task.hasConfigKey("block") ? "block" : "blocks");
+        if (checkBlocks.isEmpty()) {
+            return null;
+        }
+
+        Object configData = task.getConfigValue("data");
+        EnumSet<Material> anyData = EnumSet.noneOf(Material.class);
+        EnumMap<Material, BitSet> dataValues = new EnumMap<>(Material.class);
+        for (String materialName : checkBlocks) {
+            // LOG:1 LOG:2 LOG should all be supported with this
+            String[] split = materialName.split(":");
+            Material material = Material.getMaterial(split[0]);
+            if (material == null) {
+                continue;
+            }
+
+            int comparableData;
+            if (split.length > 1) {
+                try {
+                    comparableData = Integer.parseInt(split[1]);
+                } catch (NumberFormatException ignored) {
+                    continue;
+                }
+            } else if (configData instanceof Integer data) {
+                comparableData = data;
+            } else {
+                anyData.add(material);
+                continue;
+            }
+
+            if (comparableData >= 0) {
+                dataValues.computeIfAbsent(material, m -> new BitSet()).set(comparableData);
+            }
+        }
+        return new BlockMatcher(anyData, dataValues);
+    }
+
+    private static Set<DyeColor> compileDyeColors(Task task) {
+        List<String> checkColors = TaskUtils.getConfigStringList(task, task.hasConfigKey("color") ? "color" : "colors");
+        if (checkColors.isEmpty()) {
+            return null;
+        }
+
+        EnumSet<DyeColor> dyeColors = EnumSet.noneOf(DyeColor.class);
+        for (String colorName : checkColors) {
+            try {
+                dyeColors.add(DyeColor.valueOf(colorName));
+            } catch (IllegalArgumentException ignored) { }
+        }
+        return Collections.unmodifiableSet(dyeColors);
+    }
+
+    /**
+     * Matches blocks against the materials and data values configured for a task.
+     */
+    public static final class BlockMatcher {
+
+        private final Set<Material> anyData;
+        private final Map<Material, BitSet> dataValues;
+
+        private BlockMatcher(EnumSet<Material> anyData, EnumMap<Material, BitSet> dataValues) {
+            this.anyData = anyData;
+            this.dataValues = dataValues;
+        }
+
+        /**
+         * @param material the material to check
+         * @return true if the material is configured for the task, regardless of data value
+         */
+        public boolean matchesType(@NotNull Material material) {
+            return anyData.contains(material) || dataValues.containsKey(material);
+        }
+
+        /**
+         * @param block the block to check
+         * @return true if the type and data value of the block matches
+         */
+        public boolean matches(@NotNull Block block) {
+            Material material = block.getType();
+            if (anyData.contains(material)) {
+                return true;
+            }
+
+            BitSet data = dataValues.get(material);
+            if (data == null) {
+                return false;
+            }
+
+            int blockData = block.getData();
+            return blockData >= 0 && data.get(blockData);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.leonardobishop.quests.bukkit.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable, pre-tokenized view of a display name or lore line, split into literal segments and
+ * <code>{placeholder}</code> segments, so that placeholders can be replaced in a single pass.
+ */
+public final class CompiledText {
+
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([^}]+)}");
+    // texts compiled through of(String) come from configuration, so there should only be a limited number of them
+    private static final int MAX_CACHED = 4096;
+    private static final Map<String, CompiledText> CACHE = new ConcurrentHashMap<>();
+
+    private final String text;
+    private final String[] literals;
+    private final String[] tokens;
+    private final String[] keys;
+    private final boolean placeholderAPI;
+
+    private CompiledText(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(text);
+        int end = 0;
+        while (matcher.find()) {
+            literals.add(text.substring(end, matcher.start()));
+            tokens.add(matcher.group(0));
+            keys.add(matcher.group(1));
+            end = matcher.end();
+        }
+        literals.add(text.substring(end));
+
+        this.text = text;
+        this.literals = literals.toArray(new String[0]);
+        this.tokens = tokens.toArray(new String[0]);
+        this.keys = keys.toArray(new String[0]);
+        this.placeholderAPI = text.indexOf('%') != -1;
+    }
+
+    /**
+     * Compiles a text.
+     *
+     * @param text the text to compile
+     * @return the compiled text
+     */
+    public static @NotNull CompiledText compile(@NotNull String text) {
+        Objects.requireNonNull(text, "text cannot be null");
+
+        return new CompiledText(text);
+    }
+
+    /**
+     * Compiles a list of texts.
+     *
+     * @param texts the texts to compile
+     * @return immutable list of the compiled texts
+     */
+    public static @NotNull List<CompiledText> compile(@NotNull List<String> texts) {
+        Objects.requireNonNull(texts, "texts cannot be null");
+
+        List<CompiledText> compiled = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            compiled.add(new CompiledText(text));
+        }
+        return Collections.unmodifiableList(compiled);
+    }
+
+    /**
+     * Gets the compiled form of a text from configuration, compiling it if it has not yet been compiled.
+     *
+     * @param text the text
+     * @return the compiled text
+     */
+    public static @NotNull CompiledText of(@NotNull String text) {
+        Objects.requireNonNull(text, "text cannot be null");
+
+        CompiledText compiled = CACHE.get(text);
+        if (compiled != null) {
+            return compiled;
+        }
+        compiled = new CompiledText(text);
+        if (CACHE.size() < MAX_CACHED) {
+            CACHE.put(text, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * @return the text this was compiled from
+     */
+    public @NotNull String getText() {
+        return text;
+    }
+
+    /**
+     * @return whether the text contains any <code>{placeholder}</code>
+     */
+    public boolean hasPlaceholders() {
+        return tokens.length != 0;
+    }
+
+    /**
+     * @return whether the text may contain PlaceholderAPI placeholders, which are delimited by <code>%</code>
+     */
+    public boolean hasPlaceholderAPIPlaceholders() {
+        return placeholderAPI;
+    }
+
+    /**
+     * Replaces each placeholder with the value for its key, which is the placeholder without braces.
+     *
+     * @param resolver gives the value of a key, or null to leave the placeholder as it is
+     * @return the text with placeholders replaced
+     */
+    public @NotNull String render(@NotNull Function<String, String> resolver) {
+        if (tokens.length == 0) {
+            return text;
+        }
+
+        StringBuilder builder = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < tokens.length; i++) {
+            builder.append(literals[i]);
+            String value = resolver.apply(keys[i]);
+            builder.append(value == null ? tokens[i] : value);
+        }
+        builder.append(literals[tokens.length]);
+        return builder.toString();
+    }
+
+    /**
+     * Replaces each placeholder which is present in a map, including its braces, with its value.
+     *
+     * @param placeholders map of placeholders to values
+     * @return the text with placeholders replaced
+     */
+    public @NotNull String render(@NotNull Map<String, String> placeholders) {
+        if (tokens.length == 0 || placeholders.isEmpty()) {
+            return text;
+        }
+
+        StringBuilder builder = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < tokens.length; i++) {
+            builder.append(literals[i]);
+            String value = placeholders.get(tokens[i]);
+            builder.append(value == null ? tokens[i] : value);
+        }
+        builder.append(literals[tokens.length]);
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -2,37 +2,96 @@ package com.leonardobishop.quests.bukkit.util;
 
 import com.leonardobishop.quests.common.logger.QuestsLogger;
 
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
+/**
+ * Records the most recent log entries in a fixed-capacity ring buffer, overwriting the oldest entries once it is full.
+ * Recording does not lock, so it can be called from any thread; entries which are being overwritten while
+ * a snapshot is taken are left out of it.
+ */
 public class LogHistory {
 
+    public static final int DEFAULT_CAPACITY = 8192;
+
     private boolean enabled;
 
-    private final List<LogEntry> entries = new ArrayList<>();
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
 
     public LogHistory(boolean enabled) {
+        this(enabled, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param enabled whether entries should be recorded
+     * @param capacity the number of entries to keep, rounded up to a power of two
+     */
+    public LogHistory(boolean enabled, int capacity) {
         this.enabled = enabled;
+
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
     }
 
     public void record(QuestsLogger.LoggingLevel type, Supplier<String> supplier) {
         if (enabled) {
             String entry = supplier.get();
-            String thread = Thread.currentThread().getName();
-            long time = System.currentTimeMillis();
-
-            LogEntry logEntry = new LogEntry(entry, type, thread, time);
+            long index = sequence.getAndIncrement();
+            Slot slot = slots[(int) (index & mask)];
+
+            slot.sequence = -1;
+            // keeps the writes below from being reordered before the slot is marked as being written
+            VarHandle.releaseFence();
+            slot.entry = entry;
+            slot.type = type;
+            slot.thread = Thread.currentThread().getName();
+            slot.time = System.currentTimeMillis();
+            slot.sequence = index;
+        }
+    }
 
-            synchronized (this) {
-                entries.add(logEntry);
-            }
+    /**
+     * Copies the entries currently held, from oldest to newest.
+     *
+     * @return the entries
+     */
+    public List<LogEntry> snapshot() {
+        long end = sequence.get();
+        long start = Math.max(0, end - slots.length);
+
+        List<LogEntry> entries = new ArrayList<>((int) (end - start));
+        for (long index = start; index < end; index++) {
+            Slot slot = slots[(int) (index & mask)];
+            if (slot.sequence != index) continue;
+
+            String entry = slot.entry;
+            QuestsLogger.LoggingLevel type = slot.type;
+            String thread = slot.thread;
+            long time = slot.time;
+            // keeps the reads above from being reordered after the check below
+            VarHandle.acquireFence();
+            // the slot was overwritten while it was being read
+            if (slot.sequence != index) continue;
+
+            entries.add(new LogEntry(entry, type, thread, time));
         }
+        return entries;
     }
 
-    public synchronized List<LogEntry> getEntries() {
-        return Collections.unmodifiableList(entries);
+    /**
+     * @return the number of entries the history can hold
+     */
+    public int getCapacity() {
+        return slots.length;
     }
 
     public boolean isEnabled() {
@@ -43,6 +102,15 @@ public class LogHistory {
         this.enabled = enabled;
     }
 
+    private static final class Slot {
+        // the index of the entry held, or -1 while it is being written
+        private volatile long sequence = -1;
+        private String entry;
+        private QuestsLogger.LoggingLevel type;
+        private String thread;
+        private long time;
+    }
+
     public static class LogEntry {
         private final String entry;
         private final QuestsLogger.LoggingLevel type;
@@ -34,20 +34,25 @@ public class MenuUtils {
         boolean usePAPI = player != null && plugin != null && plugin.getQuestsConfig().getBoolean("options.gui-use-placeholderapi");
         if (lore != null) {
             for (String s : lore) {
-                for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-                    s = s.replace(entry.getKey(), entry.getValue());
-                }
-                if (usePAPI) {
+                CompiledText line = CompiledText.of(s);
+                s = line.render(placeholders);
+                // substituted values such as quest names may bring in PlaceholderAPI placeholders, so check what was rendered
+                if (usePAPI && s.indexOf('%') != -1) {
                     s = plugin.getPlaceholderAPIProcessor().apply(player, s);
                 }
                 newLore.add(s);
             }
         }
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            ism.setDisplayName(ism.getDisplayName().replace(entry.getKey(), entry.getValue()));
-        }
-        if (usePAPI) {
-            ism.setDisplayName(plugin.getPlaceholderAPIProcessor().apply(player, ism.getDisplayName()));
+        String displayName = ism.getDisplayName();
+        if (displayName != null) {
+            CompiledText compiledDisplayName = CompiledText.of(displayName);
+            String newDisplayName = compiledDisplayName.render(placeholders);
+            if (usePAPI && newDisplayName.indexOf('%') != -1) {
+                newDisplayName = plugin.getPlaceholderAPIProcessor().apply(player, newDisplayName);
+            }
+            if (!newDisplayName.equals(displayName)) {
+                ism.setDisplayName(newDisplayName);
+            }
         }
         ism.setLore(newLore);
         newItemStack.setItemMeta(ism);
@@ -25,6 +25,7 @@ import org.bukkit.material.Colorable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public class TaskUtils {
@@ -37,11 +38,15 @@ public class TaskUtils {
     }
 
     public static boolean validateWorld(Player player, Task task) {
-        return validateWorld(player.getLocation().getWorld().getName(), task.getConfigValue("worlds"));
+        return validateWorld(WorldIds.of(player.getWorld()), task);
+    }
+
+    public static boolean validateWorld(int worldId, Task task) {
+        return CompiledTaskConfig.of(task).isWorldAllowed(worldId);
     }
 
     public static boolean validateWorld(String worldName, Task task) {
-        return validateWorld(worldName, task.getConfigValue("worlds"));
+        return CompiledTaskConfig.of(task).isWorldAllowed(worldName);
     }
 
     public static boolean validateWorld(String worldName, Object configurationData) {
@@ -112,138 +117,135 @@ public class TaskUtils {
     }
 
     public static double getDecimalTaskProgress(TaskProgress taskProgress) {
-        double progress;
-        if (taskProgress.getProgress() == null) {
-            progress = 0.0;
-        } else {
-            progress = (double) taskProgress.getProgress();
-        }
-        return progress;
+        return taskProgress.getDoubleProgress();
     }
 
     public static int getIntegerTaskProgress(TaskProgress taskProgress) {
-        int progress;
-        if (taskProgress.getProgress() == null) {
-            progress = 0;
-        } else {
-            progress = (int) taskProgress.getProgress();
-        }
-        return progress;
+        return taskProgress.getIntProgress();
     }
 
     public static int incrementIntegerTaskProgress(TaskProgress taskProgress) {
-        int progress = getIntegerTaskProgress(taskProgress);
-        taskProgress.setProgress(++progress);
-        return progress;
+        return taskProgress.incrementIntProgress(1);
     }
 
     public static int decrementIntegerTaskProgress(TaskProgress taskProgress) {
-        int progress = getIntegerTaskProgress(taskProgress);
-        taskProgress.setProgress(--progress);
-        return progress;
+        return taskProgress.incrementIntProgress(-1);
     }
 
+    /**
+     * @deprecated use {@link #getApplicablePendingTasks(Player, QPlayer, TaskType, TaskConstraint...)} instead
+     */
+    @Deprecated
     public static List<PendingTask> getApplicableTasks(Player player, QPlayer qPlayer, TaskType type, TaskConstraint... constraints) {
-        List<PendingTask> tasks = new ArrayList<>();
-        boolean containsWorldConstraint = ArrayUtils.contains(constraints, TaskConstraint.WORLD);
+        List<com.leonardobishop.quests.common.player.PendingTask> pendingTasks = getApplicablePendingTasks(player, qPlayer, type, constraints);
+        List<PendingTask> tasks = new ArrayList<>(pendingTasks.size());
+        for (com.leonardobishop.quests.common.player.PendingTask pendingTask : pendingTasks) {
+            tasks.add(new PendingTask(pendingTask.quest(), pendingTask.task(), pendingTask.questProgress(), pendingTask.taskProgress()));
+        }
+        return tasks;
+    }
 
-        for (Quest quest : type.getRegisteredQuests()) {
-            if (qPlayer.hasStartedQuest(quest)) {
-                QuestProgress questProgress = qPlayer.getQuestProgressFile().getQuestProgress(quest);
+    public static List<com.leonardobishop.quests.common.player.PendingTask> getApplicablePendingTasks(Player player, QPlayer qPlayer, TaskType type, TaskConstraint... constraints) {
+        List<com.leonardobishop.quests.common.player.PendingTask> pendingTasks = qPlayer.getPendingTasks(type.getType());
+        boolean containsWorldConstraint = ArrayUtils.contains(constraints, TaskConstraint.WORLD);
+        // resolve the world once, rather than for each task
+        int worldId = containsWorldConstraint ? WorldIds.of(player.getWorld()) : -1;
 
-                for (Task task : quest.getTasksOfType(type.getType())) {
-                    if (containsWorldConstraint && !TaskUtils.validateWorld(player, task)) {
-                        continue;
-                    }
+        // only copy the pending tasks if any of them are not applicable
+        List<com.leonardobishop.quests.common.player.PendingTask> tasks = null;
+        for (int i = 0; i < pendingTasks.size(); i++) {
+            com.leonardobishop.quests.common.player.PendingTask pendingTask = pendingTasks.get(i);
 
-                    TaskProgress taskProgress = questProgress.getTaskProgress(task.getId());
-                    if (taskProgress.isCompleted()) {
-                        continue;
-                    }
+            boolean applicable = qPlayer.hasStartedQuest(pendingTask.quest())
+                    && (!containsWorldConstraint || TaskUtils.validateWorld(worldId, pendingTask.task()));
 
-                    tasks.add(new PendingTask(quest, task, questProgress, taskProgress));
-                }
+            if (!applicable && tasks == null) {
+                tasks = new ArrayList<>(pendingTasks.subList(0, i));
+            } else if (applicable && tasks != null) {
+                tasks.add(pendingTask);
             }
         }
 
-        return tasks;
+        return tasks == null ? pendingTasks : tasks;
     }
 
-    public record PendingTask(Quest quest, Task task, QuestProgress questProgress, TaskProgress taskProgress) { }
+    /**
+     * @deprecated use {@link com.leonardobishop.quests.common.player.PendingTask} instead
+     */
+    @Deprecated
+    public record PendingTask(Quest quest, Task task, QuestProgress questProgress, TaskProgress taskProgress) {
+
+        private com.leonardobishop.quests.common.player.PendingTask toPendingTask() {
+            return new com.leonardobishop.quests.common.player.PendingTask(quest, task, questProgress, taskProgress);
+        }
+    }
 
     public enum TaskConstraint {
         WORLD
     }
 
+    /**
+     * @deprecated use {@link #matchBlock(BukkitTaskType, com.leonardobishop.quests.common.player.PendingTask, Block, UUID)} instead
+     */
+    @Deprecated
     public static boolean matchBlock(BukkitTaskType type, PendingTask pendingTask, Block block, UUID player) {
-        Task task = pendingTask.task;
-
-        Material material;
+        return matchBlock(type, pendingTask.toPendingTask(), block, player);
+    }
 
-        Object configData = task.getConfigValue("data");
+    public static boolean matchBlock(BukkitTaskType type, com.leonardobishop.quests.common.player.PendingTask pendingTask, Block block, UUID player) {
+        Task task = pendingTask.task();
 
-        List<String> checkBlocks = TaskUtils.getConfigStringList(task, task.getConfigValues().containsKey("block") ? "block" : "blocks");
-        if (checkBlocks.isEmpty()) {
+        CompiledTaskConfig.BlockMatcher blockMatcher = CompiledTaskConfig.of(task).getBlockMatcher();
+        if (blockMatcher == null) {
             return true;
         }
 
-        for (String materialName : checkBlocks) {
-            // LOG:1 LOG:2 LOG should all be supported with this
-            String[] split = materialName.split(":");
-            int comparableData = 0;
-            if (configData != null) {
-                comparableData = (int) configData;
-            }
-            if (split.length > 1) {
-                comparableData = Integer.parseInt(split[1]);
-            }
-
-            material = Material.getMaterial(String.valueOf(split[0]));
-
+        if (block == null) {
+            type.debug("Type mismatch", pendingTask.quest().getId(), task.getId(), player);
+            return false;
+        }
 
-            type.debug("Checking against block " + material, pendingTask.quest.getId(), task.getId(), player);
+        type.debug("Checking against block " + block.getType(), pendingTask.quest().getId(), task.getId(), player);
 
-            if (block != null && block.getType() == material) {
-                short blockData = block.getData();
-                if (((split.length == 1 && configData == null) || ((int) blockData) == comparableData)) {
-                    type.debug("Block match", pendingTask.quest.getId(), task.getId(), player);
-                    return true;
-                } else {
-                    type.debug("Data mismatch", pendingTask.quest.getId(), task.getId(), player);
-                }
-            } else {
-                type.debug("Type mismatch", pendingTask.quest.getId(), task.getId(), player);
-            }
+        if (blockMatcher.matches(block)) {
+            type.debug("Block match", pendingTask.quest().getId(), task.getId(), player);
+            return true;
+        } else if (blockMatcher.matchesType(block.getType())) {
+            type.debug("Data mismatch", pendingTask.quest().getId(), task.getId(), player);
+        } else {
+            type.debug("Type mismatch", pendingTask.quest().getId(), task.getId(), player);
         }
         return false;
     }
 
+    /**
+     * @deprecated use {@link #matchDyeColor(BukkitTaskType, com.leonardobishop.quests.common.player.PendingTask, Colorable, UUID)} instead
+     */
+    @Deprecated
     public static boolean matchDyeColor(BukkitTaskType type, PendingTask pendingTask, Colorable colorable, UUID player) {
-        Task task = pendingTask.task;
+        return matchDyeColor(type, pendingTask.toPendingTask(), colorable, player);
+    }
 
-        DyeColor color;
+    public static boolean matchDyeColor(BukkitTaskType type, com.leonardobishop.quests.common.player.PendingTask pendingTask, Colorable colorable, UUID player) {
+        Task task = pendingTask.task();
 
-        List<String> checkColors = TaskUtils.getConfigStringList(task, task.getConfigValues().containsKey("color") ? "color" : "colors");
-        if (checkColors.isEmpty()) {
+        Set<DyeColor> checkColors = CompiledTaskConfig.of(task).getDyeColors();
+        if (checkColors == null) {
             return true;
         }
 
-        for (String colorName : checkColors) {
-            color = DyeColor.valueOf(colorName);
-
-            DyeColor entityColor = colorable.getColor();
-            if (entityColor == null) {
-                break;
-            }
+        DyeColor entityColor = colorable.getColor();
+        if (entityColor == null) {
+            return false;
+        }
 
-            type.debug("Checking against entity " + entityColor.name(), pendingTask.quest.getId(), task.getId(), player);
+        type.debug("Checking against entity " + entityColor.name(), pendingTask.quest().getId(), task.getId(), player);
 
-            if (entityColor == color) {
-                type.debug("DyeColor match", pendingTask.quest.getId(), task.getId(), player);
-                return true;
-            } else {
-                type.debug("DyeColor mismatch", pendingTask.quest.getId(), task.getId(), player);
-            }
+        if (checkColors.contains(entityColor)) {
+            type.debug("DyeColor match", pendingTask.quest().getId(), task.getId(), player);
+            return true;
+        } else {
+            type.debug("DyeColor mismatch", pendingTask.quest().getId(), task.getId(), player);
         }
         return false;
     }
@@ -261,6 +263,33 @@ public class TaskUtils {
         return slotToAmount;
     }
 
+    /**
+     * Counts the items matching each of several quest items, fetching each inventory slot only once.
+     *
+     * @param player the player whose inventory to scan
+     * @param questItems the quest items to match
+     * @return for each quest item in order, its amounts per slot as returned by {@link #getAmountsPerSlot(Player, QuestItem)}
+     */
+    public static int[][] getAmountsPerSlot(Player player, List<QuestItem> questItems) {
+        int[][] slotToAmounts = new int[questItems.size()][37];
+        if (questItems.isEmpty()) {
+            return slotToAmounts;
+        }
+
+        for (int i = 0; i < 36; i++) {
+            ItemStack slot = player.getInventory().getItem(i);
+            if (slot == null)
+                continue;
+            for (int j = 0; j < slotToAmounts.length; j++) {
+                if (!questItems.get(j).compareItemStack(slot))
+                    continue;
+                slotToAmounts[j][36] = slotToAmounts[j][36] + slot.getAmount();
+                slotToAmounts[j][i] = slot.getAmount();
+            }
+        }
+        return slotToAmounts;
+    }
+
     public static void removeItemsInSlots(Player player, int[] amountPerSlot, int amountToRemove) {
         for (int i = 0; i < 36; i++) {
             if (amountPerSlot[i] == 0) continue;
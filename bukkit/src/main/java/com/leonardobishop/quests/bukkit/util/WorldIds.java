@@ -0,0 +1,86 @@
+package com.leonardobishop.quests.bukkit.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns a small, dense id to each world name, so that world restrictions can be stored as bitsets.
+ * Ids are never reused, so a world name keeps its id across world unloads and quest reloads.
+ */
+public final class WorldIds {
+
+    private static final Map<String, Integer> BY_NAME = new ConcurrentHashMap<>();
+    // loaded worlds, so that looking up the id of a world does not need its name
+    private static final Map<World, Integer> BY_WORLD = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private WorldIds() { }
+
+    /**
+     * Gets the id of a world name, assigning one if it does not yet have one.
+     *
+     * @param worldName the world name
+     * @return the id
+     */
+    public static int of(@NotNull String worldName) {
+        Objects.requireNonNull(worldName, "worldName cannot be null");
+
+        return BY_NAME.computeIfAbsent(worldName, name -> NEXT_ID.getAndIncrement());
+    }
+
+    /**
+     * Gets the id of a world, which is the id of its name.
+     *
+     * @param world the world
+     * @return the id
+     */
+    public static int of(@NotNull World world) {
+        Objects.requireNonNull(world, "world cannot be null");
+
+        Integer id = BY_WORLD.get(world);
+        if (id != null) {
+            return id;
+        }
+        return load(world);
+    }
+
+    /**
+     * Resolves the id of a world which has been loaded.
+     *
+     * @param world the world
+     * @return the id
+     */
+    public static int load(@NotNull World world) {
+        Objects.requireNonNull(world, "world cannot be null");
+
+        int id = of(world.getName());
+        BY_WORLD.put(world, id);
+        return id;
+    }
+
+    /**
+     * Forgets a world which has been unloaded. Its name keeps its id.
+     *
+     * @param world the world
+     */
+    public static void unload(@NotNull World world) {
+        Objects.requireNonNull(world, "world cannot be null");
+
+        BY_WORLD.remove(world);
+    }
+
+    /**
+     * Resolves the ids of all currently loaded worlds.
+     */
+    public static void loadAll() {
+        for (World world : Bukkit.getWorlds()) {
+            load(world);
+        }
+    }
+}
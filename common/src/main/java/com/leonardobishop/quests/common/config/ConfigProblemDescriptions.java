@@ -109,6 +109,17 @@ public enum ConfigProblemDescriptions {
                     "This may be the result of a cascading error<br>" +
                     "if '%s' failed to load, or a mis-typed ID."
     ),
+    REQUIREMENT_CYCLE("Quest '%s' is part of, or requires a quest in, a requirement cycle",
+            "Quest '%s' can never be unlocked, as its<br>" +
+                    "requirements lead back to itself or another<br>" +
+                    "quest which requires itself."
+    ),
+    QUEST_NOT_LOADED("Quest file could not be loaded",
+            "Loading this quest file did not finish, so the<br>" +
+                    "quest has not been registered. It will be<br>" +
+                    "loaded again on the next reload.<br><br>" +
+                    "%s"
+    ),
     NOT_ACCEPTED_VALUE("Value '%s' is not in the list of accepted values for task %s", null);
 
     private final String description;
@@ -0,0 +1,13 @@
+package com.leonardobishop.quests.common.player;
+
+import com.leonardobishop.quests.common.player.questprogressfile.QuestProgress;
+import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
+import com.leonardobishop.quests.common.quest.Quest;
+import com.leonardobishop.quests.common.quest.Task;
+
+/**
+ * Represents a task which a player has not yet completed, along with the progress objects it is tracked against.
+ *
+ * @see QPlayer#getPendingTasks(String)
+ */
+public record PendingTask(Quest quest, Task task, QuestProgress questProgress, TaskProgress taskProgress) { }
@@ -1,17 +1,18 @@
 package com.leonardobishop.quests.common.player;
 
 import com.leonardobishop.quests.common.enums.QuestStartResult;
+import com.leonardobishop.quests.common.player.questprogressfile.QuestProgress;
 import com.leonardobishop.quests.common.player.questprogressfile.QuestProgressFile;
+import com.leonardobishop.quests.common.player.questprogressfile.TaskProgress;
 import com.leonardobishop.quests.common.plugin.Quests;
 import com.leonardobishop.quests.common.quest.Quest;
+import com.leonardobishop.quests.common.quest.Task;
 import com.leonardobishop.quests.common.questcontroller.QuestController;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a player.
@@ -22,6 +23,10 @@ public class QPlayer {
     private final UUID uuid;
     private final QPlayerPreferences playerPreferences;
     private final QuestProgressFile questProgressFile;
+    private final Map<String, List<PendingTask>> pendingTasks = new HashMap<>();
+    private int pendingTasksVersion = -1;
+    private final Map<Quest, CachedStartResult> startResults = new ConcurrentHashMap<>();
+    private volatile int startResultsVersion = -1;
     private QuestController questController;
 
     public QPlayer(Quests plugin, UUID uuid, QPlayerPreferences playerPreferences, QuestProgressFile questProgressFile, QuestController questController) {
@@ -81,8 +86,189 @@ public class QPlayer {
      * @return list of effectively started quests
      */
     public List<Quest> getEffectiveStartedQuests() {
-        // TODO this can be better
-        return plugin.getQuestManager().getQuests().values().stream().filter(q -> questController.hasPlayerStartedQuest(this, q)).collect(Collectors.toList());
+        List<Quest> startedQuests = new ArrayList<>();
+        for (Quest quest : plugin.getQuestManager().getQuests().values()) {
+            if (questController.hasPlayerStartedQuest(this, quest)) {
+                startedQuests.add(quest);
+            }
+        }
+        return startedQuests;
+    }
+
+    /**
+     * Gets the tasks of a specific task type which the player has not yet completed, belonging to quests
+     * the player has either started or which are automatically started. Entries for automatically started quests
+     * are included regardless of whether the player is currently able to start them, so callers should
+     * still test {@link QPlayer#hasStartedQuest(Quest)} where this matters.
+     *
+     * @param type the task type
+     * @return immutable list of pending tasks
+     */
+    public @NotNull List<PendingTask> getPendingTasks(@NotNull String type) {
+        Objects.requireNonNull(type, "type cannot be null");
+
+        if (pendingTasksVersion != questProgressFile.getStructureVersion()) {
+            rebuildPendingTasks();
+        }
+
+        List<PendingTask> tasks = pendingTasks.get(type);
+        if (tasks == null) {
+            return Collections.emptyList();
+        }
+
+        // tasks are only completed outside the quest controller, so prune them here instead
+        for (PendingTask pendingTask : tasks) {
+            if (pendingTask.taskProgress().isCompleted()) {
+                List<PendingTask> pruned = new ArrayList<>(tasks.size());
+                for (PendingTask other : tasks) {
+                    if (!other.taskProgress().isCompleted()) {
+                        pruned.add(other);
+                    }
+                }
+                tasks = Collections.unmodifiableList(pruned);
+                pendingTasks.put(type, tasks);
+                break;
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Updates the pending tasks held for a specific quest. This should be called whenever the
+     * started state of the quest changes.
+     *
+     * @param quest the quest to update
+     */
+    public void updatePendingTasks(@NotNull Quest quest) {
+        Objects.requireNonNull(quest, "quest cannot be null");
+
+        if (pendingTasksVersion != questProgressFile.getStructureVersion()) {
+            rebuildPendingTasks();
+            return;
+        }
+
+        Map<String, List<PendingTask>> additions = collectPendingTasks(quest);
+        Set<String> types = new HashSet<>();
+        for (Task task : quest.getTasks()) {
+            types.add(task.getType());
+        }
+
+        for (String type : types) {
+            List<PendingTask> current = pendingTasks.get(type);
+            List<PendingTask> added = additions.get(type);
+            if (current == null && added == null) {
+                continue;
+            }
+
+            List<PendingTask> tasks = new ArrayList<>();
+            if (current != null) {
+                for (PendingTask pendingTask : current) {
+                    if (pendingTask.quest() != quest) {
+                        tasks.add(pendingTask);
+                    }
+                }
+            }
+            if (added != null) {
+                tasks.addAll(added);
+            }
+
+            if (tasks.isEmpty()) {
+                pendingTasks.remove(type);
+            } else {
+                pendingTasks.put(type, Collections.unmodifiableList(tasks));
+            }
+        }
+    }
+
+    /**
+     * Discards all pending tasks, causing them to be rebuilt when next requested. This should be called
+     * whenever quests are reloaded.
+     */
+    public void invalidatePendingTasks() {
+        pendingTasksVersion = -1;
+    }
+
+    /**
+     * Gets a start result previously cached for a quest by the quest controller. Cached results are discarded
+     * whenever the state version of the players {@link QuestProgressFile} changes, or once they expire.
+     *
+     * @param quest the quest to get the cached result for
+     * @return the cached start result, or null if there is none
+     */
+    public @Nullable QuestStartResult getCachedStartResult(@NotNull Quest quest) {
+        Objects.requireNonNull(quest, "quest cannot be null");
+
+        if (startResultsVersion != questProgressFile.getStateVersion()) {
+            return null;
+        }
+
+        CachedStartResult cachedStartResult = startResults.get(quest);
+        if (cachedStartResult == null || cachedStartResult.expiry() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return cachedStartResult.result();
+    }
+
+    /**
+     * Caches a start result for a quest. This should only be used for results which depend solely on the
+     * players {@link QuestProgressFile} and the current time.
+     *
+     * @param quest the quest to cache the result for
+     * @param result the start result
+     * @param expiry the time in milliseconds at which the result is no longer valid
+     */
+    public void cacheStartResult(@NotNull Quest quest, @NotNull QuestStartResult result, long expiry) {
+        Objects.requireNonNull(quest, "quest cannot be null");
+        Objects.requireNonNull(result, "result cannot be null");
+
+        int stateVersion = questProgressFile.getStateVersion();
+        if (startResultsVersion != stateVersion) {
+            startResults.clear();
+            startResultsVersion = stateVersion;
+        }
+        startResults.put(quest, new CachedStartResult(result, expiry));
+    }
+
+    /**
+     * Discards all cached start results. This should be called whenever quests are reloaded.
+     */
+    public void invalidateCachedStartResults() {
+        startResults.clear();
+        startResultsVersion = -1;
+    }
+
+    private record CachedStartResult(QuestStartResult result, long expiry) { }
+
+    private void rebuildPendingTasks() {
+        Map<String, List<PendingTask>> tasks = new HashMap<>();
+        for (Quest quest : plugin.getQuestManager().getQuests().values()) {
+            for (Map.Entry<String, List<PendingTask>> entry : collectPendingTasks(quest).entrySet()) {
+                tasks.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
+            }
+        }
+
+        pendingTasks.clear();
+        for (Map.Entry<String, List<PendingTask>> entry : tasks.entrySet()) {
+            pendingTasks.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        pendingTasksVersion = questProgressFile.getStructureVersion();
+    }
+
+    private Map<String, List<PendingTask>> collectPendingTasks(Quest quest) {
+        Map<String, List<PendingTask>> tasks = new HashMap<>();
+        if (!questController.isQuestAutoStarted(quest) && !questProgressFile.hasQuestStarted(quest)) {
+            return tasks;
+        }
+
+        QuestProgress questProgress = questProgressFile.getQuestProgress(quest);
+        for (Task task : quest.getTasks()) {
+            TaskProgress taskProgress = questProgress.getTaskProgress(task);
+            if (taskProgress.isCompleted()) {
+                continue;
+            }
+            tasks.computeIfAbsent(task.getType(), k -> new ArrayList<>()).add(new PendingTask(quest, task, questProgress, taskProgress));
+        }
+        return tasks;
     }
 
     /**
@@ -175,6 +361,8 @@ public class QPlayer {
         Objects.requireNonNull(questController, "questController cannot be null");
 
         this.questController = questController;
+        this.invalidatePendingTasks();
+        this.invalidateCachedStartResults();
     }
 
     @Override //Used by java GC
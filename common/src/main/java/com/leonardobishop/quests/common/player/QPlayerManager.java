@@ -1,5 +1,6 @@
 package com.leonardobishop.quests.common.player;
 
+import com.leonardobishop.quests.common.player.questprogressfile.QuestProgress;
 import com.leonardobishop.quests.common.player.questprogressfile.QuestProgressFile;
 import com.leonardobishop.quests.common.plugin.Quests;
 import com.leonardobishop.quests.common.questcontroller.QuestController;
@@ -8,8 +9,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 
 /**
  * The QPlayerManager is responsible for keeping a reference to all players on the server and is used to
@@ -17,15 +17,31 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class QPlayerManager {
 
+    private static final int MAX_SAVE_ATTEMPTS = 3;
+
     private final Map<UUID, QPlayer> qPlayers = new ConcurrentHashMap<>();
+    private final Map<UUID, PendingSave> pendingSaves = new LinkedHashMap<>();
+    private final Object writeLock = new Object();
+    private final ScheduledExecutorService saveExecutor;
     private final Quests plugin;
     private final StorageProvider storageProvider;
     private QuestController activeQuestController;
+    private boolean flushScheduled;
+    private volatile long lastFlushDuration;
+    private volatile int lastFlushSize;
 
     public QPlayerManager(Quests plugin, StorageProvider storageProvider, QuestController questController) {
         this.plugin = plugin;
         this.storageProvider = storageProvider;
         this.activeQuestController = questController;
+        ScheduledThreadPoolExecutor saveExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "Quests Save Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // delayed flushes are performed by shutdown() instead
+        saveExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.saveExecutor = saveExecutor;
     }
 
     /**
@@ -48,7 +64,8 @@ public class QPlayerManager {
     }
 
     /**
-     * Unloads and schedules a save for the player. See {@link QPlayerManager#savePlayer(UUID)}
+     * Unloads and saves the player. The save is written without waiting for the next batch of pending saves,
+     * and the player is unloaded once it has been written. See {@link QPlayerManager#savePlayer(UUID)}
      *
      * @param uuid the uuid of the player
      */
@@ -56,8 +73,24 @@ public class QPlayerManager {
         Objects.requireNonNull(uuid, "uuid cannot be null");
 
         plugin.getQuestsLogger().debug("Unloading and saving player " + uuid + "...");
-        CompletableFuture<Void> future = savePlayer(uuid);
-        future.thenAccept((v) -> qPlayers.remove(uuid));
+        QPlayer qPlayer = getPlayer(uuid);
+        if (qPlayer == null) return;
+        CompletableFuture<Void> future = savePlayer(uuid, qPlayer.getQuestProgressFile());
+        future.thenAccept((v) -> {
+            // the player may have been loaded again since, in which case the new session must be kept;
+            // if the save fails this is not run, and the player stays loaded so that their progress is not lost
+            if (qPlayers.remove(uuid, qPlayer)) {
+                storageProvider.unloadProgressFile(uuid);
+            }
+        });
+
+        // write quit saves straight away rather than with the next batch, as other servers
+        // may load the player after options.storage.synchronisation.delay-loading
+        try {
+            saveExecutor.execute(() -> flushPendingSave(uuid));
+        } catch (RejectedExecutionException ignored) {
+            // shutdown() writes all pending saves
+        }
     }
 
     /**
@@ -76,8 +109,10 @@ public class QPlayerManager {
     }
 
     /**
-     * Schedules a save for the player with a specified {@link QuestProgressFile}. The modified status of the
-     * specified progress file will be reset.
+     * Schedules a save for the player with a specified {@link QuestProgressFile}. Only the quest progress which
+     * has been modified is saved, and the modified status of the specified progress file will be reset.
+     * Saves are written behind on a dedicated thread, and repeated saves for the same player which have not
+     * yet been written are combined.
      *
      * @param uuid the uuid of the player
      * @param originalProgressFile the quest progress file to associate with and save
@@ -87,16 +122,46 @@ public class QPlayerManager {
         Objects.requireNonNull(uuid, "uuid cannot be null");
         Objects.requireNonNull(originalProgressFile, "originalProgressFile cannot be null");
 
-        CompletableFuture<Void> future = new CompletableFuture<>();
-
-        QuestProgressFile clonedProgressFile = new QuestProgressFile(originalProgressFile);
+        QuestProgressFile modifiedProgressFile = originalProgressFile.copyModified();
         originalProgressFile.resetModified();
-        plugin.getScheduler().doAsync(() -> {
-            save(uuid, clonedProgressFile);
-            future.complete(null);
-        });
 
-        return future;
+        PendingSave pendingSave;
+        synchronized (pendingSaves) {
+            pendingSave = pendingSaves.get(uuid);
+            if (pendingSave == null && modifiedProgressFile.getAllQuestProgress().isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            } else if (pendingSave == null) {
+                pendingSave = new PendingSave(uuid, modifiedProgressFile);
+                pendingSaves.put(uuid, pendingSave);
+            } else {
+                for (QuestProgress questProgress : modifiedProgressFile.getAllQuestProgress()) {
+                    pendingSave.questProgressFile.addQuestProgress(questProgress);
+                }
+                plugin.getQuestsLogger().debug("Combined save for player " + uuid + " with pending save.");
+            }
+
+            scheduleFlush(uuid);
+        }
+
+        return pendingSave.future;
+    }
+
+    // must be called while holding the pendingSaves lock
+    private boolean scheduleFlush(UUID uuid) {
+        if (flushScheduled) {
+            return true;
+        }
+
+        flushScheduled = true;
+        long delay = Math.max(0, plugin.getQuestsConfig().getInt("options.performance-tweaking.quest-save-delay", 20)) * 50L;
+        try {
+            saveExecutor.schedule(this::flushPendingSaves, delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            flushScheduled = false;
+            plugin.getQuestsLogger().severe("Cannot schedule save for player " + uuid + " as the save executor has been shut down!");
+            return false;
+        }
     }
 
     /**
@@ -115,24 +180,191 @@ public class QPlayerManager {
 
     /**
      * Immediately saves the player with a specified {@link QuestProgressFile}, on the same thread. The modified status
-     * of the specified progress file is not changed.
+     * of the specified progress file is not changed. Any pending save for the player is written first.
      *
      * @param uuid the uuid of the player
      * @param questProgressFile the quest progress file to associate with and save
      */
     public void savePlayerSync(@NotNull UUID uuid, @NotNull QuestProgressFile questProgressFile) {
-        save(uuid, questProgressFile);
+        PendingSave pendingSave;
+        synchronized (pendingSaves) {
+            pendingSave = pendingSaves.remove(uuid);
+        }
+
+        synchronized (writeLock) {
+            if (pendingSave != null) {
+                completeSave(pendingSave, save(uuid, pendingSave.questProgressFile));
+            }
+            save(uuid, questProgressFile);
+        }
+    }
+
+    /**
+     * Immediately writes all pending saves on the same thread.
+     */
+    public void flushPendingSaves() {
+        // the batch is taken while holding the write lock, so that a pending save is either still queued
+        // or already written for anything else which acquires the lock
+        synchronized (writeLock) {
+            List<PendingSave> batch;
+            synchronized (pendingSaves) {
+                batch = new ArrayList<>(pendingSaves.values());
+                pendingSaves.clear();
+                flushScheduled = false;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<QuestProgressFile> files = new ArrayList<>(batch.size());
+            for (PendingSave pendingSave : batch) {
+                files.add(pendingSave.questProgressFile);
+            }
+
+            long start = System.nanoTime();
+            Set<QuestProgressFile> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+            try {
+                failed.addAll(storageProvider.trySaveAllProgressFiles(files));
+            } catch (Exception e) {
+                plugin.getQuestsLogger().severe("Failed to save batch of " + batch.size() + " players!");
+                e.printStackTrace();
+                failed.addAll(files);
+            }
+            for (PendingSave pendingSave : batch) {
+                if (failed.contains(pendingSave.questProgressFile)) {
+                    retrySave(pendingSave);
+                } else {
+                    pendingSave.future.complete(null);
+                }
+            }
+            lastFlushDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastFlushSize = batch.size();
+            plugin.getQuestsLogger().debug("Flushed " + batch.size() + " pending saves in " + lastFlushDuration + "ms.");
+        }
     }
 
-    private void save(@NotNull UUID uuid, @NotNull QuestProgressFile questProgressFile) {
+    /**
+     * Immediately writes the pending save for a player on the same thread, or waits for it to finish if it is
+     * already being written, so that their progress can be read back from storage. Any unload waiting on the
+     * save will have happened by the time this returns.
+     *
+     * @param uuid the uuid of the player
+     */
+    private void flushPendingSave(@NotNull UUID uuid) {
+        PendingSave pendingSave;
+        synchronized (pendingSaves) {
+            pendingSave = pendingSaves.remove(uuid);
+        }
+
+        synchronized (writeLock) {
+            if (pendingSave != null) {
+                completeSave(pendingSave, save(uuid, pendingSave.questProgressFile));
+            }
+        }
+    }
+
+    /**
+     * Queues a pending save which could not be written to be written with the next batch, combined with any
+     * save for the player queued since. Once it has failed {@link #MAX_SAVE_ATTEMPTS} times, its future is
+     * completed exceptionally instead.
+     *
+     * @param failedSave the pending save which could not be written
+     */
+    private void retrySave(@NotNull PendingSave failedSave) {
+        UUID uuid = failedSave.uuid;
+        if (++failedSave.attempts >= MAX_SAVE_ATTEMPTS) {
+            plugin.getQuestsLogger().severe("Failed to save player " + uuid + " after " + failedSave.attempts + " attempts!");
+            completeSave(failedSave, false);
+            return;
+        }
+
+        synchronized (pendingSaves) {
+            PendingSave newerSave = pendingSaves.get(uuid);
+            if (newerSave != null) {
+                // progress saved since takes precedence over what failed
+                for (QuestProgress questProgress : newerSave.questProgressFile.getAllQuestProgress()) {
+                    failedSave.questProgressFile.addQuestProgress(questProgress);
+                }
+                failedSave.future.whenComplete((v, t) -> {
+                    if (t == null) newerSave.future.complete(null);
+                    else newerSave.future.completeExceptionally(t);
+                });
+            }
+            pendingSaves.put(uuid, failedSave);
+            if (!scheduleFlush(uuid)) {
+                pendingSaves.remove(uuid);
+                completeSave(failedSave, false);
+                return;
+            }
+        }
+        plugin.getQuestsLogger().warning("Failed to save player " + uuid + "; retrying with the next batch.");
+    }
+
+    private void completeSave(@NotNull PendingSave pendingSave, boolean saved) {
+        if (saved) {
+            pendingSave.future.complete(null);
+        } else {
+            pendingSave.future.completeExceptionally(new IllegalStateException("Failed to save player " + pendingSave.uuid));
+        }
+    }
+
+    /**
+     * Stops the save executor, waiting for any write in progress to finish, and writes all pending saves
+     * on the same thread. Saves scheduled after this is called will not be written, so this should only be
+     * called when the plugin is disabling.
+     */
+    public void shutdown() {
+        saveExecutor.shutdown();
+        try {
+            if (!saveExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getQuestsLogger().severe("Timed out waiting for the save executor to finish!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushPendingSaves();
+    }
+
+    /**
+     * Gets the number of players with saves which have been scheduled but not yet written.
+     *
+     * @return the number of pending saves
+     */
+    public int getPendingSaveCount() {
+        synchronized (pendingSaves) {
+            return pendingSaves.size();
+        }
+    }
+
+    /**
+     * Gets the time taken to write the most recent batch of pending saves.
+     *
+     * @return the time in milliseconds
+     */
+    public long getLastFlushDuration() {
+        return lastFlushDuration;
+    }
+
+    /**
+     * Gets the number of saves written in the most recent batch of pending saves.
+     *
+     * @return the number of saves
+     */
+    public int getLastFlushSize() {
+        return lastFlushSize;
+    }
+
+    private boolean save(@NotNull UUID uuid, @NotNull QuestProgressFile questProgressFile) {
         Objects.requireNonNull(uuid, "uuid cannot be null");
         Objects.requireNonNull(questProgressFile, "questProgressFile cannot be null");
 
         plugin.getQuestsLogger().debug("Saving player " + uuid + "...");
         if (storageProvider.saveProgressFile(uuid, questProgressFile)) {
             plugin.getQuestsLogger().debug("Quest progress file saved for player " + uuid + ".");
+            return true;
         } else {
             plugin.getQuestsLogger().severe("Failed to save player " + uuid + "!");
+            return false;
         }
     }
 
@@ -146,6 +378,7 @@ public class QPlayerManager {
 
         plugin.getQuestsLogger().debug("Dropping player " + uuid + ".");
         qPlayers.remove(uuid);
+        storageProvider.unloadProgressFile(uuid);
     }
 
     /**
@@ -169,6 +402,8 @@ public class QPlayerManager {
 
         CompletableFuture<QPlayer> future = new CompletableFuture<>();
         plugin.getScheduler().doAsync(() -> {
+            // a player who rejoins before their quit save is written would otherwise load stale progress
+            flushPendingSave(uuid);
             QuestProgressFile questProgressFile = storageProvider.loadProgressFile(uuid);
             if (questProgressFile == null) {
                 plugin.getQuestsLogger().debug("A problem occurred trying loading player " + uuid + "; quest progress file is null.");
@@ -203,4 +438,16 @@ public class QPlayerManager {
             qPlayer.setQuestController(activeQuestController);
         }
     }
+
+    private static class PendingSave {
+        private final UUID uuid;
+        private final QuestProgressFile questProgressFile;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private int attempts;
+
+        private PendingSave(UUID uuid, QuestProgressFile questProgressFile) {
+            this.uuid = uuid;
+            this.questProgressFile = questProgressFile;
+        }
+    }
 }
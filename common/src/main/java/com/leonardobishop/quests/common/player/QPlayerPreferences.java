@@ -2,6 +2,7 @@ package com.leonardobishop.quests.common.player;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,6 +31,10 @@ public class QPlayerPreferences {
         debug.put(questId, debugType);
     }
 
+    public Map<String, DebugType> getDebugTypes() {
+        return Collections.unmodifiableMap(debug);
+    }
+
     public enum DebugType {
         SELF,
         ALL
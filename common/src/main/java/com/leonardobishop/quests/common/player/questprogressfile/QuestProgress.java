@@ -1,17 +1,21 @@
 package com.leonardobishop.quests.common.player.questprogressfile;
 
 import com.leonardobishop.quests.common.plugin.Quests;
+import com.leonardobishop.quests.common.quest.Task;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 
 public class QuestProgress {
 
     private final Quests plugin;
 
+    private static final Task[] NO_TASKS = new Task[0];
+    private static final TaskProgress[] NO_TASK_PROGRESS = new TaskProgress[0];
+
     private final Map<String, TaskProgress> taskProgress = new HashMap<>();
+    // task progress by task ordinal, filled as it is looked up, and only valid for the same task objects
+    private Task[] indexedTasks = NO_TASKS;
+    private TaskProgress[] indexedTaskProgress = NO_TASK_PROGRESS;
     private final String questid;
     private final UUID player;
 
@@ -21,6 +25,7 @@ public class QuestProgress {
     private boolean completedBefore;
     private long completionDate;
     private boolean modified;
+    private QuestProgressFile questProgressFile;
 
     public QuestProgress(Quests plugin, String questid, boolean completed, boolean completedBefore, long completionDate, UUID player, boolean started, long startedDate) {
         this.plugin = plugin;
@@ -64,6 +69,7 @@ public class QuestProgress {
     public void setCompleted(boolean completed) {
         this.completed = completed;
         this.modified = true;
+        this.notifyStateChanged();
     }
 
     public boolean isStarted() {
@@ -73,6 +79,7 @@ public class QuestProgress {
     public void setStarted(boolean started) {
         this.started = started;
         this.modified = true;
+        this.notifyStateChanged();
     }
 
     public long getStartedDate() {
@@ -82,6 +89,7 @@ public class QuestProgress {
     public void setStartedDate(long startedDate) {
         this.startedDate = startedDate;
         this.modified = true;
+        this.notifyProgressChanged();
     }
 
     public long getCompletionDate() {
@@ -91,6 +99,7 @@ public class QuestProgress {
     public void setCompletionDate(long completionDate) {
         this.completionDate = completionDate;
         this.modified = true;
+        this.notifyStateChanged();
     }
 
     public UUID getPlayer() {
@@ -104,10 +113,32 @@ public class QuestProgress {
     public void setCompletedBefore(boolean completedBefore) {
         this.completedBefore = completedBefore;
         this.modified = true;
+        this.notifyStateChanged();
+        if (questProgressFile != null) {
+            questProgressFile.notifyCompletedBeforeChanged(this);
+        }
+    }
+
+    void setQuestProgressFile(QuestProgressFile questProgressFile) {
+        this.questProgressFile = questProgressFile;
+    }
+
+    private void notifyStateChanged() {
+        if (questProgressFile != null) {
+            questProgressFile.incrementStateVersion();
+        }
+    }
+
+    void notifyProgressChanged() {
+        if (questProgressFile != null) {
+            questProgressFile.incrementProgressVersion();
+        }
     }
 
     public void addTaskProgress(TaskProgress taskProgress) {
         this.taskProgress.put(taskProgress.getTaskId(), taskProgress);
+        this.clearTaskProgressIndex();
+        this.notifyProgressChanged();
     }
 
     public Collection<TaskProgress> getTaskProgress() {
@@ -127,6 +158,37 @@ public class QuestProgress {
         return tP;
     }
 
+    /**
+     * Gets the progress for a task, looking it up by the ordinal of the task rather than its id
+     * if it has been looked up before. Generates a new one if it does not exist.
+     *
+     * @param task the task
+     * @return {@link TaskProgress}
+     */
+    public TaskProgress getTaskProgress(Task task) {
+        int ordinal = task.getOrdinal();
+        if (ordinal >= 0 && ordinal < indexedTasks.length && indexedTasks[ordinal] == task) {
+            return indexedTaskProgress[ordinal];
+        }
+
+        TaskProgress tP = getTaskProgress(task.getId());
+        if (ordinal >= 0) {
+            if (ordinal >= indexedTasks.length) {
+                int length = Math.max(ordinal + 1, indexedTasks.length * 2);
+                indexedTasks = Arrays.copyOf(indexedTasks, length);
+                indexedTaskProgress = Arrays.copyOf(indexedTaskProgress, length);
+            }
+            indexedTasks[ordinal] = task;
+            indexedTaskProgress[ordinal] = tP;
+        }
+        return tP;
+    }
+
+    void clearTaskProgressIndex() {
+        Arrays.fill(indexedTasks, null);
+        Arrays.fill(indexedTaskProgress, null);
+    }
+
     public void repairTaskProgress(String taskid) {
         TaskProgress taskProgress = new TaskProgress(this, taskid, null, player, false, false);
         this.addTaskProgress(taskProgress);
@@ -146,7 +208,7 @@ public class QuestProgress {
         if (this.started || this.startedDate != 0 || this.completed || this.completedBefore || this.completionDate != 0) return true;
         else {
             for (TaskProgress progress : this.taskProgress.values()) {
-                if (progress.getProgress() != null || progress.isCompleted()) return true;
+                if (progress.hasProgress() || progress.isCompleted()) return true;
             }
             return false;
         }
@@ -3,6 +3,7 @@ package com.leonardobishop.quests.common.player.questprogressfile;
 import com.leonardobishop.quests.common.player.QPlayer;
 import com.leonardobishop.quests.common.plugin.Quests;
 import com.leonardobishop.quests.common.quest.Quest;
+import com.leonardobishop.quests.common.quest.QuestRequirementGraph;
 import com.leonardobishop.quests.common.quest.Task;
 
 import java.util.*;
@@ -13,9 +14,23 @@ import java.util.concurrent.TimeUnit;
  */
 public class QuestProgressFile {
 
-    private final Map<String, QuestProgress> questProgress = new HashMap<>();
+    // indexed by quest ordinal, and null for quests the player has no progress in
+    private QuestProgress[] questProgress = new QuestProgress[0];
+    private int questProgressCount;
+    // progress for quest ids which have no ordinal, such as quests removed from the config, kept so that it is saved again
+    private final Map<String, QuestProgress> unknownQuestProgress = new HashMap<>();
+    private final Collection<QuestProgress> allQuestProgress = new AllQuestProgress();
+    // quests whose requirements have been met by ordinal, for the requirement graph they were computed with;
+    // guarded by unlockedQuestsLock, as requirements may be tested off the main thread, for example by placeholders
+    private final Object unlockedQuestsLock = new Object();
+    private BitSet unlockedQuests;
+    private QuestRequirementGraph unlockedQuestsGraph;
+    private final List<Quest> newlyUnlockedQuests = new ArrayList<>();
     private final UUID playerUUID;
     private final Quests plugin;
+    private int structureVersion;
+    private int stateVersion;
+    private int progressVersion;
 
     public QuestProgressFile(UUID playerUUID, Quests plugin) {
         this.playerUUID = playerUUID;
@@ -23,19 +38,138 @@ public class QuestProgressFile {
     }
 
     public QuestProgressFile(QuestProgressFile questProgressFile) {
-        for (Map.Entry<String, QuestProgress> progressEntry : questProgressFile.questProgress.entrySet()) {
-            questProgress.put(progressEntry.getKey(), new QuestProgress(progressEntry.getValue()));
+        this.questProgress = new QuestProgress[questProgressFile.questProgress.length];
+        for (int i = 0; i < questProgress.length; i++) {
+            QuestProgress progress = questProgressFile.questProgress[i];
+            if (progress == null) continue;
+
+            QuestProgress clonedProgress = new QuestProgress(progress);
+            clonedProgress.setQuestProgressFile(this);
+            questProgress[i] = clonedProgress;
+        }
+        this.questProgressCount = questProgressFile.questProgressCount;
+        for (Map.Entry<String, QuestProgress> progressEntry : questProgressFile.unknownQuestProgress.entrySet()) {
+            QuestProgress clonedProgress = new QuestProgress(progressEntry.getValue());
+            clonedProgress.setQuestProgressFile(this);
+            unknownQuestProgress.put(progressEntry.getKey(), clonedProgress);
         }
         this.playerUUID = questProgressFile.playerUUID;
         this.plugin = questProgressFile.plugin;
     }
 
+    /**
+     * Creates a copy of this progress file containing only the {@link QuestProgress} which has been modified.
+     *
+     * @return a copy of the modified quest progress
+     */
+    public QuestProgressFile copyModified() {
+        QuestProgressFile copy = new QuestProgressFile(playerUUID, plugin);
+        for (QuestProgress progress : allQuestProgress) {
+            if (progress.isModified()) {
+                copy.addQuestProgress(new QuestProgress(progress));
+            }
+        }
+        return copy;
+    }
+
     public void addQuestProgress(QuestProgress questProgress) {
         //TODO don't do here
 //        if (Options.VERIFY_QUEST_EXISTS_ON_LOAD.getBooleanValue(true) && plugin.getQuestManager().getQuestById(questProgress.getQuestId()) == null) {
 //            return;
 //        }
-        this.questProgress.put(questProgress.getQuestId(), questProgress);
+        questProgress.setQuestProgressFile(this);
+        boolean replaced = this.putQuestProgress(questProgress) != null;
+        // after the progress is put, so that unlocked quests are not recomputed from the old progress
+        this.invalidateUnlockedQuests();
+        if (replaced) {
+            structureVersion++;
+            stateVersion++;
+            progressVersion++;
+        } else if (questProgress.hasNonDefaultValues()) {
+            stateVersion++;
+            progressVersion++;
+        }
+    }
+
+    private QuestProgress putQuestProgress(QuestProgress progress) {
+        int ordinal = plugin.getQuestManager().getQuestOrdinal(progress.getQuestId());
+        if (ordinal < 0) {
+            return unknownQuestProgress.put(progress.getQuestId(), progress);
+        }
+
+        QuestProgress previous = unknownQuestProgress.isEmpty() ? null : unknownQuestProgress.remove(progress.getQuestId());
+        if (ordinal >= questProgress.length) {
+            questProgress = Arrays.copyOf(questProgress, Math.max(ordinal + 1, questProgress.length * 2));
+        }
+        if (questProgress[ordinal] != null) {
+            previous = questProgress[ordinal];
+        } else {
+            questProgressCount++;
+        }
+        questProgress[ordinal] = progress;
+        return previous;
+    }
+
+    private QuestProgress lookupQuestProgress(Quest quest) {
+        int ordinal = quest.getOrdinal();
+        if (ordinal >= 0 && ordinal < questProgress.length) {
+            QuestProgress progress = questProgress[ordinal];
+            if (progress != null) {
+                return progress;
+            }
+        }
+        // the quest may have been registered since this progress was added
+        return unknownQuestProgress.isEmpty() ? null : unknownQuestProgress.get(quest.getId());
+    }
+
+    private void removeQuestProgress(String questId) {
+        int ordinal = plugin.getQuestManager().getQuestOrdinal(questId);
+        if (ordinal >= 0 && ordinal < questProgress.length && questProgress[ordinal] != null) {
+            questProgress[ordinal] = null;
+            questProgressCount--;
+        }
+        unknownQuestProgress.remove(questId);
+        invalidateUnlockedQuests();
+    }
+
+    /**
+     * Gets the structure version of this progress file. The version changes whenever a {@link QuestProgress}
+     * held by this file is replaced or removed, meaning any references to it held elsewhere are no longer valid.
+     *
+     * @return the structure version
+     */
+    public int getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * Gets the state version of this progress file. The version changes whenever the structure version changes,
+     * or the started, completed or completion state of any {@link QuestProgress} held by this file changes.
+     * Task progress does not affect the state version.
+     *
+     * @return the state version
+     */
+    public int getStateVersion() {
+        return stateVersion;
+    }
+
+    /**
+     * Gets the progress version of this progress file. The version changes whenever the state version changes,
+     * or any other value of a {@link QuestProgress} or {@link TaskProgress} held by this file changes.
+     *
+     * @return the progress version
+     */
+    public int getProgressVersion() {
+        return progressVersion;
+    }
+
+    void incrementStateVersion() {
+        stateVersion++;
+        progressVersion++;
+    }
+
+    void incrementProgressVersion() {
+        progressVersion++;
     }
 
     /**
@@ -48,7 +182,7 @@ public class QuestProgressFile {
      */
     public List<Quest> getStartedQuests() {
         List<Quest> startedQuests = new ArrayList<>();
-        for (QuestProgress questProgress : questProgress.values()) {
+        for (QuestProgress questProgress : allQuestProgress) {
             Quest quest = plugin.getQuestManager().getQuestById(questProgress.getQuestId());
             if (quest != null && questProgress.isStarted()) {
                 startedQuests.add(plugin.getQuestManager().getQuestById(questProgress.getQuestId()));
@@ -65,7 +199,7 @@ public class QuestProgressFile {
      */
     public List<Quest> getAllQuestsFromProgress(QuestsProgressFilter filter) {
         List<Quest> questsProgress = new ArrayList<>();
-        for (QuestProgress qProgress : questProgress.values()) {
+        for (QuestProgress qProgress : allQuestProgress) {
             boolean condition = false;
             if (filter == QuestsProgressFilter.STARTED) {
                 condition = qProgress.isStarted();
@@ -116,7 +250,7 @@ public class QuestProgressFile {
      * @return {@code Collection<QuestProgress>} all quest progresses
      */
     public Collection<QuestProgress> getAllQuestProgress() {
-        return questProgress.values();
+        return allQuestProgress;
     }
 
     /**
@@ -126,7 +260,7 @@ public class QuestProgressFile {
      * @return true if they have quest progress
      */
     public boolean hasQuestProgress(Quest quest) {
-        return questProgress.containsKey(quest.getId());
+        return lookupQuestProgress(quest) != null;
     }
 
     /**
@@ -173,20 +307,106 @@ public class QuestProgressFile {
      */
     //TODO possibly move this
     public boolean hasMetRequirements(Quest quest) {
+        QuestRequirementGraph graph = plugin.getQuestManager().getRequirementGraph();
+        if (graph != null && graph.contains(quest)) {
+            synchronized (unlockedQuestsLock) {
+                return getUnlockedQuests(graph).get(quest.getOrdinal());
+            }
+        }
+
         for (String id : quest.getRequirements()) {
             Quest q = plugin.getQuestManager().getQuestById(id);
             if (q == null) {
                 continue;
             }
-            if (hasQuestProgress(q) && !getQuestProgress(q).isCompletedBefore()) {
+            QuestProgress progress = lookupQuestProgress(q);
+            if (progress == null || !progress.isCompletedBefore()) {
                 return false;
-            } else if (!hasQuestProgress(q)) {
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the quests whose requirements have been met since this was last called, as a result of
+     * quests being completed. Tracking begins once requirements have first been tested with {@link #hasMetRequirements(Quest)},
+     * and restarts whenever quest progress is added or removed.
+     *
+     * @return list of newly unlocked quests
+     */
+    public List<Quest> pollNewlyUnlockedQuests() {
+        synchronized (unlockedQuestsLock) {
+            if (newlyUnlockedQuests.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<Quest> quests = new ArrayList<>(newlyUnlockedQuests);
+            newlyUnlockedQuests.clear();
+            return quests;
+        }
+    }
+
+    private BitSet getUnlockedQuests(QuestRequirementGraph graph) {
+        if (unlockedQuestsGraph != graph) {
+            BitSet unlocked = new BitSet(graph.size());
+            for (int ordinal = 0; ordinal < graph.size(); ordinal++) {
+                if (graph.getQuest(ordinal) != null && hasMetRequirements(graph, ordinal)) {
+                    unlocked.set(ordinal);
+                }
+            }
+            unlockedQuests = unlocked;
+            unlockedQuestsGraph = graph;
+            newlyUnlockedQuests.clear();
+        }
+        return unlockedQuests;
+    }
+
+    private boolean hasMetRequirements(QuestRequirementGraph graph, int ordinal) {
+        for (int requirement : graph.getRequirements(ordinal)) {
+            QuestProgress progress = requirement < questProgress.length ? questProgress[requirement] : null;
+            if (progress == null && !unknownQuestProgress.isEmpty()) {
+                progress = unknownQuestProgress.get(graph.getQuest(requirement).getId());
+            }
+            if (progress == null || !progress.isCompletedBefore()) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Unlocks the quests which require a quest that has just been completed, if their other requirements are met.
+     */
+    void notifyCompletedBeforeChanged(QuestProgress progress) {
+        synchronized (unlockedQuestsLock) {
+            QuestRequirementGraph graph = unlockedQuestsGraph;
+            if (graph == null) {
+                return;
+            }
+            if (!progress.isCompletedBefore()) {
+                invalidateUnlockedQuests();
+                return;
+            }
+
+            int ordinal = plugin.getQuestManager().getQuestOrdinal(progress.getQuestId());
+            if (ordinal < 0 || ordinal >= graph.size()) {
+                return;
+            }
+            for (int dependent : graph.getDependents(ordinal)) {
+                if (!unlockedQuests.get(dependent) && hasMetRequirements(graph, dependent)) {
+                    unlockedQuests.set(dependent);
+                    newlyUnlockedQuests.add(graph.getQuest(dependent));
+                }
+            }
+        }
+    }
+
+    private void invalidateUnlockedQuests() {
+        synchronized (unlockedQuestsLock) {
+            unlockedQuests = null;
+            unlockedQuestsGraph = null;
+        }
+    }
+
     /**
      * Get the {@link UUID} of the player this QuestProgressFile represents.
      *
@@ -203,11 +423,11 @@ public class QuestProgressFile {
      * @return {@link QuestProgress} or a blank generated one if the quest does not exist
      */
     public QuestProgress getQuestProgress(Quest quest) {
-        if (questProgress.containsKey(quest.getId())) {
-            return questProgress.get(quest.getId());
+        QuestProgress progress = lookupQuestProgress(quest);
+        if (progress != null) {
+            return progress;
         }
-        generateBlankQuestProgress(quest);
-        return getQuestProgress(quest);
+        return createBlankQuestProgress(quest, false);
     }
 
     /**
@@ -217,7 +437,8 @@ public class QuestProgressFile {
      * @return true if player has the quest started
      */
     public boolean hasQuestStarted(Quest quest) {
-        return questProgress.containsKey(quest.getId()) && questProgress.get(quest.getId()).isStarted();
+        QuestProgress progress = lookupQuestProgress(quest);
+        return progress != null && progress.isStarted();
     }
 
     /**
@@ -236,6 +457,10 @@ public class QuestProgressFile {
      * @param modified the modified state of the quest
      */
     public void generateBlankQuestProgress(Quest quest, boolean modified) {
+        createBlankQuestProgress(quest, modified);
+    }
+
+    private QuestProgress createBlankQuestProgress(Quest quest, boolean modified) {
         QuestProgress questProgress = new QuestProgress(plugin, quest.getId(), false, false, 0, playerUUID, false, 0, modified);
         for (Task task : quest.getTasks()) {
             TaskProgress taskProgress = new TaskProgress(questProgress, task.getId(), null, playerUUID, false, modified);
@@ -243,10 +468,17 @@ public class QuestProgressFile {
         }
 
         addQuestProgress(questProgress);
+        return questProgress;
     }
 
     public void clear() {
-        questProgress.clear();
+        Arrays.fill(questProgress, null);
+        questProgressCount = 0;
+        unknownQuestProgress.clear();
+        invalidateUnlockedQuests();
+        structureVersion++;
+        stateVersion++;
+        progressVersion++;
     }
 
     /**
@@ -255,7 +487,7 @@ public class QuestProgressFile {
      * set the modified flag in that case.
      */
     public void reset() {
-        for (QuestProgress questProgress : questProgress.values()) {
+        for (QuestProgress questProgress : new ArrayList<>(allQuestProgress)) {
             if (!questProgress.hasNonDefaultValues()) {
                 continue;
             }
@@ -274,39 +506,76 @@ public class QuestProgressFile {
     public void clean() {
         plugin.getQuestsLogger().debug("Cleaning file " + playerUUID + ".");
         if (!plugin.getTaskTypeManager().areRegistrationsAccepted()) {
-            ArrayList<String> invalidQuests = new ArrayList<>();
-            for (String questId : this.questProgress.keySet()) {
+            for (QuestProgress questProgress : new ArrayList<>(allQuestProgress)) {
                 Quest q;
-                if ((q = plugin.getQuestManager().getQuestById(questId)) == null) {
-                    invalidQuests.add(questId);
+                if ((q = plugin.getQuestManager().getQuestById(questProgress.getQuestId())) == null) {
+                    removeQuestProgress(questProgress.getQuestId());
                 } else {
-                    ArrayList<String> invalidTasks = new ArrayList<>();
-                    for (String taskId : this.questProgress.get(questId).getTaskProgressMap().keySet()) {
-                        if (q.getTaskById(taskId) == null) {
-                            invalidTasks.add(taskId);
-                        }
-                    }
-                    for (String taskId : invalidTasks) {
-                        this.questProgress.get(questId).getTaskProgressMap().remove(taskId);
-                    }
+                    questProgress.getTaskProgressMap().keySet().removeIf(taskId -> q.getTaskById(taskId) == null);
+                    questProgress.clearTaskProgressIndex();
                 }
             }
-            for (String questId : invalidQuests) {
-                this.questProgress.remove(questId);
-            }
+            structureVersion++;
+            stateVersion++;
+            progressVersion++;
         }
     }
 
     public void resetModified() {
-        for (QuestProgress questProgress : questProgress.values()) {
+        for (QuestProgress questProgress : allQuestProgress) {
             questProgress.resetModified();
         }
     }
 
     public void setModified(boolean modified) {
-        for (QuestProgress questProgress : questProgress.values()) {
+        for (QuestProgress questProgress : allQuestProgress) {
             questProgress.setModified(modified);
         }
     }
 
+    /**
+     * Read-only view of the quest progress held by ordinal followed by the quest progress for unknown quest ids.
+     */
+    private final class AllQuestProgress extends AbstractCollection<QuestProgress> {
+
+        @Override
+        public Iterator<QuestProgress> iterator() {
+            return new Iterator<>() {
+                private final QuestProgress[] array = questProgress;
+                private final Iterator<QuestProgress> unknown = unknownQuestProgress.values().iterator();
+                private int index = advance(0);
+
+                private int advance(int from) {
+                    while (from < array.length && array[from] == null) from++;
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return index < array.length || unknown.hasNext();
+                }
+
+                @Override
+                public QuestProgress next() {
+                    if (index < array.length) {
+                        QuestProgress progress = array[index];
+                        index = advance(index + 1);
+                        return progress;
+                    }
+                    return unknown.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return questProgressCount + unknownQuestProgress.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+    }
+
 }
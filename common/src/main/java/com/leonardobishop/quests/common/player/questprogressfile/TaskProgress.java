@@ -1,22 +1,37 @@
 package com.leonardobishop.quests.common.player.questprogressfile;
 
+import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * The progress of a player in a task. Integer, long and double progress is held in a primitive field, so that
+ * it can be incremented and compared without boxing; any other type of progress, such as BigDecimal, is held as an object.
+ */
 public class TaskProgress {
 
+    private static final byte TYPE_NONE = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_OBJECT = 4;
+
     private final String taskid;
     private final UUID player;
 
     private QuestProgress linkedQuestProgress;
     private boolean modified;
-    private Object progress;
+    private byte progressType;
+    // int and long progress
+    private long longProgress;
+    private double doubleProgress;
+    private Object objectProgress;
     private boolean completed;
 
     public TaskProgress(QuestProgress linkedQuestProgress, String taskid, Object progress, UUID player, boolean completed) {
         this.linkedQuestProgress = linkedQuestProgress;
         this.taskid = taskid;
-        this.progress = progress;
         this.player = player;
+        this.storeProgress(progress);
         this.completed = completed;
     }
 
@@ -29,7 +44,10 @@ public class TaskProgress {
         this.taskid = taskProgress.taskid;
         this.player = taskProgress.player;
         this.modified = taskProgress.modified;
-        this.progress = taskProgress.progress;
+        this.progressType = taskProgress.progressType;
+        this.longProgress = taskProgress.longProgress;
+        this.doubleProgress = taskProgress.doubleProgress;
+        this.objectProgress = taskProgress.objectProgress;
         this.completed = taskProgress.completed;
     }
 
@@ -37,14 +55,189 @@ public class TaskProgress {
         return taskid;
     }
 
+    /**
+     * Gets the progress as an object, boxing it if it is held as a primitive.
+     *
+     * @return the progress, or null if there is none
+     */
     public Object getProgress() {
-        return progress;
+        return switch (progressType) {
+            case TYPE_INT -> (int) longProgress;
+            case TYPE_LONG -> longProgress;
+            case TYPE_DOUBLE -> doubleProgress;
+            case TYPE_OBJECT -> objectProgress;
+            default -> null;
+        };
     }
 
+    /**
+     * Sets the progress. Integers, longs and doubles are unboxed, other types are held as they are.
+     *
+     * @param progress the progress, or null to clear it
+     */
     public void setProgress(Object progress) {
-        if (this.progress != progress) this.modified = true;
+        if (!isProgressEqual(progress)) {
+            this.storeProgress(progress);
+            this.markProgressChanged();
+        }
+    }
+
+    /**
+     * @return whether there is any progress
+     */
+    public boolean hasProgress() {
+        return progressType != TYPE_NONE;
+    }
+
+    /**
+     * Gets the progress as an integer, truncating decimal progress. Progress which is not a number is treated as 0.
+     *
+     * @return the progress
+     */
+    public int getIntProgress() {
+        return switch (progressType) {
+            case TYPE_INT, TYPE_LONG -> (int) longProgress;
+            case TYPE_DOUBLE -> (int) doubleProgress;
+            case TYPE_OBJECT -> objectProgress instanceof Number number ? number.intValue() : 0;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Gets the progress as a long, truncating decimal progress. Progress which is not a number is treated as 0.
+     *
+     * @return the progress
+     */
+    public long getLongProgress() {
+        return switch (progressType) {
+            case TYPE_INT, TYPE_LONG -> longProgress;
+            case TYPE_DOUBLE -> (long) doubleProgress;
+            case TYPE_OBJECT -> objectProgress instanceof Number number ? number.longValue() : 0;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Gets the progress as a double. Progress which is not a number is treated as 0.
+     *
+     * @return the progress
+     */
+    public double getDoubleProgress() {
+        return switch (progressType) {
+            case TYPE_INT, TYPE_LONG -> longProgress;
+            case TYPE_DOUBLE -> doubleProgress;
+            case TYPE_OBJECT -> objectProgress instanceof Number number ? number.doubleValue() : 0;
+            default -> 0;
+        };
+    }
+
+    public void setIntProgress(int progress) {
+        if (progressType != TYPE_INT || longProgress != progress) {
+            this.clearProgress();
+            this.progressType = TYPE_INT;
+            this.longProgress = progress;
+            this.markProgressChanged();
+        }
+    }
+
+    public void setLongProgress(long progress) {
+        if (progressType != TYPE_LONG || longProgress != progress) {
+            this.clearProgress();
+            this.progressType = TYPE_LONG;
+            this.longProgress = progress;
+            this.markProgressChanged();
+        }
+    }
+
+    public void setDoubleProgress(double progress) {
+        if (progressType != TYPE_DOUBLE || Double.compare(doubleProgress, progress) != 0) {
+            this.clearProgress();
+            this.progressType = TYPE_DOUBLE;
+            this.doubleProgress = progress;
+            this.markProgressChanged();
+        }
+    }
 
-        this.progress = progress;
+    /**
+     * Adds to the progress, which will be held as an integer afterwards.
+     *
+     * @param amount the amount to add, which may be negative
+     * @return the new progress
+     */
+    public int incrementIntProgress(int amount) {
+        int progress = getIntProgress() + amount;
+        setIntProgress(progress);
+        return progress;
+    }
+
+    /**
+     * Adds to the progress, which will be held as a double afterwards.
+     *
+     * @param amount the amount to add, which may be negative
+     * @return the new progress
+     */
+    public double incrementDoubleProgress(double amount) {
+        double progress = getDoubleProgress() + amount;
+        setDoubleProgress(progress);
+        return progress;
+    }
+
+    /**
+     * @param goal the goal
+     * @return whether the progress is at least the goal
+     */
+    public boolean hasReached(long goal) {
+        return switch (progressType) {
+            case TYPE_INT, TYPE_LONG -> longProgress >= goal;
+            case TYPE_DOUBLE -> doubleProgress >= goal;
+            default -> getDoubleProgress() >= goal;
+        };
+    }
+
+    /**
+     * @param goal the goal
+     * @return whether the progress is at least the goal
+     */
+    public boolean hasReached(double goal) {
+        return getDoubleProgress() >= goal;
+    }
+
+    private boolean isProgressEqual(Object progress) {
+        if (progress == null) return progressType == TYPE_NONE;
+        if (progress instanceof Integer value) return progressType == TYPE_INT && longProgress == value;
+        if (progress instanceof Long value) return progressType == TYPE_LONG && longProgress == value;
+        if (progress instanceof Double value) return progressType == TYPE_DOUBLE && Double.compare(doubleProgress, value) == 0;
+        return progressType == TYPE_OBJECT && Objects.equals(objectProgress, progress);
+    }
+
+    private void storeProgress(Object progress) {
+        this.clearProgress();
+        if (progress == null) {
+            this.progressType = TYPE_NONE;
+        } else if (progress instanceof Integer value) {
+            this.progressType = TYPE_INT;
+            this.longProgress = value;
+        } else if (progress instanceof Long value) {
+            this.progressType = TYPE_LONG;
+            this.longProgress = value;
+        } else if (progress instanceof Double value) {
+            this.progressType = TYPE_DOUBLE;
+            this.doubleProgress = value;
+        } else {
+            this.progressType = TYPE_OBJECT;
+            this.objectProgress = progress;
+        }
+    }
+
+    private void clearProgress() {
+        this.longProgress = 0;
+        this.doubleProgress = 0;
+        this.objectProgress = null;
+    }
+
+    private void markProgressChanged() {
+        this.modified = true;
+        this.notifyProgressChanged();
     }
 
     public UUID getPlayer() {
@@ -58,12 +251,19 @@ public class TaskProgress {
     public void setCompleted(boolean complete) {
         this.completed = complete;
         this.modified = true;
+        this.notifyProgressChanged();
 
         if (complete) {
             linkedQuestProgress.queueForCompletionTest();
         }
     }
 
+    private void notifyProgressChanged() {
+        if (linkedQuestProgress != null) {
+            linkedQuestProgress.notifyProgressChanged();
+        }
+    }
+
     public boolean isModified() {
         return modified;
     }
@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
@@ -53,6 +54,26 @@ public class Category {
         registeredQuestIds.add(questId);
     }
 
+    /**
+     * Unregister a quest ID from this category
+     *
+     * @param questId quest id to unregister
+     */
+    public void unregisterQuestId(@NotNull String questId) {
+        Objects.requireNonNull(questId, "questId cannot be null");
+        registeredQuestIds.remove(questId);
+    }
+
+    /**
+     * Reorder the quest IDs registered to this category
+     *
+     * @param comparator the order to sort the quest ids in
+     */
+    public void sortQuestIds(@NotNull Comparator<String> comparator) {
+        Objects.requireNonNull(comparator, "comparator cannot be null");
+        registeredQuestIds.sort(comparator);
+    }
+
     /**
      * Get quest IDs which are registered to this category
      *
@@ -27,6 +27,7 @@ public class Quest implements Comparable<Quest> {
     private boolean countsTowardsLimit;
     private Map<String, String> placeholders;
     private String categoryid;
+    private int ordinal = -1;
 
     private Quest() { }
 
@@ -38,6 +39,8 @@ public class Quest implements Comparable<Quest> {
     public void registerTask(@NotNull Task task) {
         Objects.requireNonNull(task, "task cannot be null");
 
+        Task previous = tasks.get(task.getId());
+        task.setOrdinal(previous == null ? tasks.size() : previous.getOrdinal());
         tasks.put(task.getId(), task);
         tasksByType.compute(task.getType(), (type, list) -> {
             if (list == null) {
@@ -49,6 +52,20 @@ public class Quest implements Comparable<Quest> {
         });
     }
 
+    /**
+     * Get the ordinal of this quest, which is assigned by the {@link QuestManager} when the quest is registered.
+     * A quest id keeps the same ordinal for as long as the server runs, including across reloads.
+     *
+     * @return the ordinal, or -1 if this quest has not been registered
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
     /**
      * Get all tasks registered to this quest.
      *
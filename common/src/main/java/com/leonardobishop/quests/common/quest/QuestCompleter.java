@@ -24,4 +24,15 @@ public interface QuestCompleter {
      */
     void queueFullCheck(@NotNull QuestProgressFile questProgressFile);
 
+    /**
+     * Queue a check for when the time limit of a started quest runs out. This has no effect if the
+     * quest is not started or does not have a time limit. Implementations which do not queue time limits
+     * may ignore this.
+     *
+     * @param questProgress the questprogress of the started quest
+     */
+    default void queueTimeLimit(@NotNull QuestProgress questProgress) {
+        // no impl
+    }
+
 }
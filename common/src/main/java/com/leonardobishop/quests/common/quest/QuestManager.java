@@ -5,6 +5,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The quests manager stores all present Quests and Categories on the server and is used as a registry.
@@ -14,6 +15,9 @@ public class QuestManager {
     private final Quests plugin;
     private final Map<String, Quest> quests = new LinkedHashMap<>();
     private final List<Category> categories = new ArrayList<>();
+    // never cleared, so that the ordinal of a quest id stays the same across reloads; read by storage threads
+    private final Map<String, Integer> questOrdinals = new ConcurrentHashMap<>();
+    private QuestRequirementGraph requirementGraph;
 
     public QuestManager(Quests plugin) {
         this.plugin = plugin;
@@ -27,9 +31,39 @@ public class QuestManager {
     public void registerQuest(@NotNull Quest quest) {
         Objects.requireNonNull(quest, "quest cannot be null");
 
+        quest.setOrdinal(questOrdinals.computeIfAbsent(quest.getId(), id -> questOrdinals.size()));
         quests.put(quest.getId(), quest);
     }
 
+    /**
+     * Unregister a quest from the quest manager
+     *
+     * @param id the id of the quest to unregister
+     * @return the {@link Quest} which was unregistered, or null
+     */
+    public @Nullable Quest unregisterQuest(@NotNull String id) {
+        Objects.requireNonNull(id, "id cannot be null");
+
+        return quests.remove(id);
+    }
+
+    /**
+     * Reorder the registered quests, for example to restore the order they were loaded in after some
+     * have been registered again
+     *
+     * @param comparator the order to sort the quests in
+     */
+    public void sortQuests(@NotNull Comparator<Quest> comparator) {
+        Objects.requireNonNull(comparator, "comparator cannot be null");
+
+        List<Quest> sorted = new ArrayList<>(quests.values());
+        sorted.sort(comparator);
+        quests.clear();
+        for (Quest quest : sorted) {
+            quests.put(quest.getId(), quest);
+        }
+    }
+
     /**
      * @param id id to match
      * @return {@link Quest}, or null
@@ -40,6 +74,19 @@ public class QuestManager {
         return quests.get(id);
     }
 
+    /**
+     * Get the ordinal assigned to a quest id.
+     *
+     * @param id the id of the quest
+     * @return the ordinal, or -1 if no quest with this id has ever been registered
+     * @see Quest#getOrdinal()
+     */
+    public int getQuestOrdinal(@NotNull String id) {
+        Objects.requireNonNull(id, "id cannot be null");
+
+        return questOrdinals.getOrDefault(id, -1);
+    }
+
     /**
      * Get a map of id-quest of all quests registered
      * @return immutable map of all {@link Quest}
@@ -48,6 +95,24 @@ public class QuestManager {
         return Collections.unmodifiableMap(quests);
     }
 
+    /**
+     * Get the requirement graph of the registered quests, which is built once quests have been loaded.
+     *
+     * @return {@link QuestRequirementGraph}, or null if quests have not been loaded
+     */
+    public @Nullable QuestRequirementGraph getRequirementGraph() {
+        return requirementGraph;
+    }
+
+    /**
+     * Set the requirement graph of the registered quests
+     *
+     * @param requirementGraph the graph
+     */
+    public void setRequirementGraph(@Nullable QuestRequirementGraph requirementGraph) {
+        this.requirementGraph = requirementGraph;
+    }
+
     /**
      * Register a category with the quest manager
      *
@@ -87,6 +152,7 @@ public class QuestManager {
     public void clear() {
         quests.clear();
         categories.clear();
+        requirementGraph = null;
     }
 
 }
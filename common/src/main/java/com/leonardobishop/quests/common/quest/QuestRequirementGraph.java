@@ -0,0 +1,151 @@
+package com.leonardobishop.quests.common.quest;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An immutable graph of the requirements between registered quests, indexed by quest ordinal.
+ * Requirements on quests which are not registered are left out, as they do not lock a quest.
+ */
+public final class QuestRequirementGraph {
+
+    private static final int[] NONE = new int[0];
+
+    private final Quest[] quests;
+    private final int[][] requirements;
+    private final int[][] dependents;
+    private final List<Quest> cyclic;
+
+    private QuestRequirementGraph(Quest[] quests, int[][] requirements, int[][] dependents, List<Quest> cyclic) {
+        this.quests = quests;
+        this.requirements = requirements;
+        this.dependents = dependents;
+        this.cyclic = cyclic;
+    }
+
+    /**
+     * Builds the requirement graph of a set of registered quests.
+     *
+     * @param questManager the quest manager the quests are registered to
+     * @return the graph
+     */
+    public static @NotNull QuestRequirementGraph build(@NotNull QuestManager questManager) {
+        Objects.requireNonNull(questManager, "questManager cannot be null");
+
+        Collection<Quest> registered = questManager.getQuests().values();
+        int size = 0;
+        for (Quest quest : registered) {
+            size = Math.max(size, quest.getOrdinal() + 1);
+        }
+
+        Quest[] quests = new Quest[size];
+        int[][] requirements = new int[size][];
+        int[] dependentCounts = new int[size];
+        for (Quest quest : registered) {
+            int ordinal = quest.getOrdinal();
+            quests[ordinal] = quest;
+
+            int[] edges = new int[quest.getRequirements().size()];
+            int count = 0;
+            for (String id : quest.getRequirements()) {
+                Quest requirement = questManager.getQuestById(id);
+                if (requirement == null) continue;
+
+                edges[count++] = requirement.getOrdinal();
+                dependentCounts[requirement.getOrdinal()]++;
+            }
+            requirements[ordinal] = count == 0 ? NONE : Arrays.copyOf(edges, count);
+        }
+
+        int[][] dependents = new int[size][];
+        for (int i = 0; i < size; i++) {
+            dependents[i] = dependentCounts[i] == 0 ? NONE : new int[dependentCounts[i]];
+            if (requirements[i] == null) requirements[i] = NONE;
+        }
+        int[] filled = new int[size];
+        for (int i = 0; i < size; i++) {
+            for (int requirement : requirements[i]) {
+                dependents[requirement][filled[requirement]++] = i;
+            }
+        }
+
+        return new QuestRequirementGraph(quests, requirements, dependents, findCyclic(quests, requirements, dependents));
+    }
+
+    // Kahn's algorithm; whatever cannot be ordered is in a cycle or requires a quest in one
+    private static List<Quest> findCyclic(Quest[] quests, int[][] requirements, int[][] dependents) {
+        int[] remaining = new int[quests.length];
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < quests.length; i++) {
+            remaining[i] = requirements[i].length;
+            if (remaining[i] == 0) ready.add(i);
+        }
+
+        while (!ready.isEmpty()) {
+            int ordinal = ready.poll();
+            for (int dependent : dependents[ordinal]) {
+                if (--remaining[dependent] == 0) ready.add(dependent);
+            }
+        }
+
+        List<Quest> cyclic = new ArrayList<>();
+        for (int i = 0; i < quests.length; i++) {
+            if (remaining[i] > 0 && quests[i] != null) cyclic.add(quests[i]);
+        }
+        return Collections.unmodifiableList(cyclic);
+    }
+
+    /**
+     * @return the number of ordinals covered by this graph
+     */
+    public int size() {
+        return quests.length;
+    }
+
+    /**
+     * Check whether a quest is the one this graph was built with, rather than one registered since.
+     *
+     * @param quest the quest
+     * @return whether this graph can be used for the quest
+     */
+    public boolean contains(@NotNull Quest quest) {
+        int ordinal = quest.getOrdinal();
+        return ordinal >= 0 && ordinal < quests.length && quests[ordinal] == quest;
+    }
+
+    /**
+     * @param ordinal the ordinal of a quest
+     * @return the quest, or null if no quest with this ordinal was registered
+     */
+    public @Nullable Quest getQuest(int ordinal) {
+        return quests[ordinal];
+    }
+
+    /**
+     * @param ordinal the ordinal of a quest
+     * @return the ordinals of the quests it requires; must not be modified
+     */
+    public int[] getRequirements(int ordinal) {
+        return requirements[ordinal];
+    }
+
+    /**
+     * @param ordinal the ordinal of a quest
+     * @return the ordinals of the quests which require it; must not be modified
+     */
+    public int[] getDependents(int ordinal) {
+        return dependents[ordinal];
+    }
+
+    /**
+     * Get the quests which are in a requirement cycle, or which require a quest in one.
+     * These quests can only be unlocked by completing a quest in the cycle some other way.
+     *
+     * @return immutable list of quests
+     */
+    public @NotNull List<Quest> getCyclicQuests() {
+        return cyclic;
+    }
+}
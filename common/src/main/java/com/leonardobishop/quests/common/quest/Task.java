@@ -13,6 +13,8 @@ public class Task {
     private final Map<String, Object> configValues = new HashMap<>();
     private final String id;
     private final String type;
+    private Object compiledConfig;
+    private int ordinal = -1;
 
     public Task(String id, String type) {
         this.id = id;
@@ -26,6 +28,19 @@ public class Task {
         return id;
     }
 
+    /**
+     * Get the ordinal of this task, which is its index within the quest it was registered to.
+     *
+     * @return the ordinal, or -1 if this task has not been registered to a quest
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
     /**
      * @return the configured task type for this task
      */
@@ -88,6 +103,26 @@ public class Task {
         Objects.requireNonNull(value, "value cannot be null");
 
         configValues.put(key, value);
+        compiledConfig = null;
+    }
+
+    /**
+     * Get the compiled configuration for this task, which is an immutable representation
+     * of the config values prepared by the platform for faster access
+     *
+     * @return compiled configuration, or null if not yet compiled
+     */
+    public @Nullable Object getCompiledConfig() {
+        return compiledConfig;
+    }
+
+    /**
+     * Set the compiled configuration for this task. This is discarded whenever a config value is added.
+     *
+     * @param compiledConfig compiled configuration
+     */
+    public void setCompiledConfig(@Nullable Object compiledConfig) {
+        this.compiledConfig = compiledConfig;
     }
 
 }
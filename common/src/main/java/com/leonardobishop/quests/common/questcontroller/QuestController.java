@@ -20,6 +20,19 @@ public interface QuestController {
 
     boolean hasPlayerStartedQuest(QPlayer qPlayer, Quest quest);
 
+    /**
+     * Gets whether a quest is started automatically, in which case whether a player has started it
+     * depends on whether they are able to start it, rather than what is recorded in their progress file.
+     *
+     * Defaults to false for controllers which do not start quests automatically.
+     *
+     * @param quest the quest to check
+     * @return true if the quest is automatically started
+     */
+    default boolean isQuestAutoStarted(Quest quest) {
+        return false;
+    }
+
     boolean cancelQuestForPlayer(QPlayer qPlayer, Quest quest);
 
     boolean expireQuestForPlayer(QPlayer qPlayer, Quest quest);
@@ -4,8 +4,10 @@ import com.leonardobishop.quests.common.player.questprogressfile.QuestProgressFi
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * The storage provider is responsible for obtaining a QuestProgressFile for a specified UUID and for
@@ -35,6 +37,16 @@ public interface StorageProvider {
      */
     boolean saveProgressFile(@NotNull UUID uuid, @NotNull QuestProgressFile questProgressFile);
 
+    /**
+     * Release anything held in memory for a player who is no longer online. This is called once
+     * the final save of the player has been written.
+     *
+     * @param uuid the uuid of the player
+     */
+    default void unloadProgressFile(@NotNull UUID uuid) {
+        // no impl
+    }
+
     /**
      * Load all QuestProgressFiles
      *
@@ -42,6 +54,18 @@ public interface StorageProvider {
      */
     @NotNull List<QuestProgressFile> loadAllProgressFiles();
 
+    /**
+     * Load all QuestProgressFiles, passing each to a consumer as soon as it has been loaded
+     * so that every file does not have to be held in memory at once
+     *
+     * @param consumer the consumer to pass each file to
+     */
+    default void loadAllProgressFiles(@NotNull Consumer<QuestProgressFile> consumer) {
+        for (QuestProgressFile file : loadAllProgressFiles()) {
+            consumer.accept(file);
+        }
+    }
+
     /**
      * Save a list of QuestProgressFiles
      *
@@ -49,6 +73,22 @@ public interface StorageProvider {
      **/
     void saveAllProgressFiles(List<QuestProgressFile> files);
 
+    /**
+     * Save a list of QuestProgressFiles, reporting which of them could not be saved
+     *
+     * @param files the list of QuestProgressFile to save
+     * @return {@link List<QuestProgressFile>} of the files which could not be saved
+     */
+    default @NotNull List<QuestProgressFile> trySaveAllProgressFiles(@NotNull List<QuestProgressFile> files) {
+        List<QuestProgressFile> failed = new ArrayList<>();
+        for (QuestProgressFile file : files) {
+            if (!saveProgressFile(file.getPlayerUUID(), file)) {
+                failed.add(file);
+            }
+        }
+        return failed;
+    }
+
     /**
      * Whether this provider is 'similar' to another one.
      * Similarity is determined if the provider effectively points to the same data source.
@@ -67,6 +67,19 @@ public abstract class TaskType {
         }
     }
 
+    /**
+     * Unregisters a {@link Quest} from this task type. This is done when a single
+     * quest is reloaded.
+     *
+     * @param quest the {@link Quest} to unregister.
+     * @return true if the quest was registered
+     */
+    public final boolean unregisterQuest(@NotNull Quest quest) {
+        Objects.requireNonNull(quest, "quest cannot be null");
+
+        return quests.remove(quest);
+    }
+
     /**
      * Clears the list which contains the registered quests.
      */
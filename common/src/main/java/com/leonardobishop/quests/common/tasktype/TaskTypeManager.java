@@ -96,6 +96,25 @@ public abstract class TaskTypeManager {
         }
     }
 
+    /**
+     * Unregister a quest from its task types. This will unregister the quest from each task type it contains.
+     *
+     * @param quest the quest to unregister
+     * @return the task types the quest was unregistered from
+     */
+    public @NotNull Set<TaskType> unregisterQuestTasksWithTaskTypes(@NotNull Quest quest) {
+        Objects.requireNonNull(quest, "quest cannot be null");
+
+        Set<TaskType> unregistered = new HashSet<>();
+        for (Task task : quest.getTasks()) {
+            TaskType t;
+            if ((t = getTaskType(task.getType())) != null && t.unregisterQuest(quest)) {
+                unregistered.add(t);
+            }
+        }
+        return unregistered;
+    }
+
     /**
      * Get a registered task type by type
      *